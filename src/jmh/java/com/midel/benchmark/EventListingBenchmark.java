@@ -0,0 +1,121 @@
+package com.midel.benchmark;
+
+import com.midel.dto.Mapper;
+import com.midel.dto.event.EventResponseDto;
+import com.midel.dto.event.EventRowDto;
+import com.midel.dto.event.EventSummaryResponseDto;
+import com.midel.entity.Event;
+import com.midel.entity.User;
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Role;
+import com.midel.entity.enums.Status;
+import com.midel.service.EventSummaries;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * CPU cost of mapping an event listing, for owners with growing audiences.
+ *
+ * <p>
+ * {@link #legacy()} reproduces the previous pipeline: every event was mapped with its whole audience and
+ * collected with <code>Collectors.toSet()</code>, hashing each DTO and its nested users. {@link #ordered()}
+ * is the current pipeline over the listing rows and the audience counts, {@link #orderedParallel()} the same
+ * with the optional parallel stage.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventListingBenchmark {
+
+    private static final EventVisibility[] VISIBILITIES = {
+            EventVisibility.PUBLIC, EventVisibility.FRIENDS_ONLY, EventVisibility.SELECTED_INDIVIDUALS
+    };
+
+    @Param({"100", "1000"})
+    private int events;
+
+    @Param({"10", "500", "5000"})
+    private int audience;
+
+    private List<Event> entities;
+    private List<EventRowDto> rows;
+    private Map<UUID, Long> audienceCounts;
+
+    @Setup
+    public void setUp() {
+        User owner = user(0);
+        Set<User> friends = new LinkedHashSet<>();
+        for (int i = 1; i <= audience; i++) {
+            friends.add(user(i));
+        }
+        owner.setFriends(friends);
+
+        entities = new ArrayList<>(events);
+        rows = new ArrayList<>(events);
+        audienceCounts = new HashMap<>();
+
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < events; i++) {
+            EventVisibility visibility = VISIBILITIES[i % VISIBILITIES.length];
+
+            Event event = new Event();
+            event.setId(UUID.randomUUID());
+            event.setTitle("Event " + i);
+            event.setDescription("Description of event " + i);
+            event.setStatus(Status.OPENED);
+            event.setOwner(owner);
+            event.changeVisibility(visibility);
+            if (visibility == EventVisibility.SELECTED_INDIVIDUALS) {
+                friends.forEach(event::addAllowedUser);
+            }
+            entities.add(event);
+
+            rows.add(new EventRowDto(event.getId(), event.getTitle(), event.getDescription(), visibility,
+                    Status.OPENED, createdAt.plusSeconds(i), null, owner.getId(), owner.getUsername(),
+                    null, null, null, null));
+            if (visibility != EventVisibility.PUBLIC) {
+                audienceCounts.put(event.getId(), audience + 1L);
+            }
+        }
+    }
+
+    @Benchmark
+    public Set<EventResponseDto> legacy() {
+        return entities.stream()
+                .map(event -> switch (event.getVisibility()) {
+                    case PUBLIC -> Mapper.INSTANCE.eventToPublicEventResponse(event);
+                    case FRIENDS_ONLY -> Mapper.INSTANCE.eventToFriendsEventResponse(event);
+                    case SELECTED_INDIVIDUALS -> Mapper.INSTANCE.eventToIndividualEventResponse(event);
+                    case SPECIFIC_CHAT -> Mapper.INSTANCE.eventToChatEventResponse(event);
+                })
+                .collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public List<EventSummaryResponseDto> ordered() {
+        return EventSummaries.map(EventSummaries.distinctById(rows), audienceCounts, false);
+    }
+
+    @Benchmark
+    public List<EventSummaryResponseDto> orderedParallel() {
+        return EventSummaries.map(EventSummaries.distinctById(rows), audienceCounts, true);
+    }
+
+    private static User user(long id) {
+        return User.builder()
+                .id(id)
+                .username("user" + id)
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build();
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.midel.benchmark;
+
+import com.midel.dto.Mapper;
+import com.midel.dto.event.EventResponseDto;
+import com.midel.entity.Chat;
+import com.midel.entity.Event;
+import com.midel.entity.User;
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Role;
+import com.midel.entity.enums.Status;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping a single event entity to its response for every visibility, as done for the event detail,
+ * and of {@link Event#getSharedUsers()} alone, which copies the friends of the owner for FRIENDS_ONLY events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventMappingBenchmark {
+
+    @Param({"PUBLIC", "FRIENDS_ONLY", "SELECTED_INDIVIDUALS", "SPECIFIC_CHAT"})
+    private EventVisibility visibility;
+
+    @Param({"10", "1000", "10000"})
+    private int audience;
+
+    private Event event;
+
+    @Setup
+    public void setUp() {
+        User owner = user(0);
+        Set<User> users = new LinkedHashSet<>();
+        for (int i = 1; i <= audience; i++) {
+            users.add(user(i));
+        }
+        owner.setFriends(users);
+
+        event = new Event();
+        event.setId(UUID.randomUUID());
+        event.setTitle("Event");
+        event.setDescription("Description of the event");
+        event.setStatus(Status.OPENED);
+        event.setOwner(owner);
+        event.changeVisibility(visibility);
+
+        switch (visibility) {
+            case SELECTED_INDIVIDUALS -> users.forEach(event::addAllowedUser);
+            case SPECIFIC_CHAT -> event.setAllowedChat(Chat.builder()
+                    .id(UUID.randomUUID())
+                    .title("Chat")
+                    .owner(owner)
+                    .members(users)
+                    .build());
+            default -> {
+            }
+        }
+    }
+
+    @Benchmark
+    public EventResponseDto map() {
+        return switch (event.getVisibility()) {
+            case PUBLIC -> Mapper.INSTANCE.eventToPublicEventResponse(event);
+            case FRIENDS_ONLY -> Mapper.INSTANCE.eventToFriendsEventResponse(event);
+            case SELECTED_INDIVIDUALS -> Mapper.INSTANCE.eventToIndividualEventResponse(event);
+            case SPECIFIC_CHAT -> Mapper.INSTANCE.eventToChatEventResponse(event);
+        };
+    }
+
+    @Benchmark
+    public Set<User> sharedUsers() {
+        return event.getSharedUsers();
+    }
+
+    private static User user(long id) {
+        return User.builder()
+                .id(id)
+                .username("user" + id)
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build();
+    }
+
+}
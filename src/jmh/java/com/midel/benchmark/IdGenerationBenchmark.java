@@ -0,0 +1,32 @@
+package com.midel.benchmark;
+
+import com.midel.entity.id.UuidV7;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating an entity id under contention: {@link UUID#randomUUID()} used by the previous
+ * <code>GenerationType.AUTO</code> strategy against the lock-free {@link UuidV7}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    @Benchmark
+    public UUID random() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID timeOrdered() {
+        return UuidV7.next();
+    }
+
+}
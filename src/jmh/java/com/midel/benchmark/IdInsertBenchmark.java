@@ -0,0 +1,90 @@
+package com.midel.benchmark;
+
+import com.midel.entity.id.UuidV7;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of sustained inserts into a table keyed by a uuid primary key, with random ids against
+ * time-ordered ids. Each operation inserts and commits one JDBC batch of {@link #BATCH_SIZE} rows.
+ * At the end of the trial the size of the primary key index per row is printed: random ids split
+ * pages all over the B-tree, which leaves them half full, while time-ordered ids fill the rightmost page.
+ *
+ * <p>
+ * Needs a PostgreSQL database, configured like the application through the <code>BENCHMARK_JDBC_URL</code>,
+ * <code>BENCHMARK_JDBC_USERNAME</code> and <code>BENCHMARK_JDBC_PASSWORD</code> environment variables.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class IdInsertBenchmark {
+
+    static final int BATCH_SIZE = 1000;
+
+    @Param({"random", "timeOrdered"})
+    public String strategy;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private String table;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("BENCHMARK_JDBC_URL", "jdbc:postgresql://localhost:5432/testtaskdb"),
+                env("BENCHMARK_JDBC_USERNAME", "postgres"),
+                env("BENCHMARK_JDBC_PASSWORD", "123")
+        );
+        connection.setAutoCommit(false);
+        table = "benchmark_ids_" + strategy.toLowerCase();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(), title VARCHAR(255))");
+        }
+        connection.commit();
+
+        insert = connection.prepareStatement("INSERT INTO " + table + " (id, title) VALUES (?, ?)");
+    }
+
+    @Benchmark
+    public void insertBatch() throws SQLException {
+        boolean timeOrdered = strategy.equals("timeOrdered");
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setObject(1, timeOrdered ? UuidV7.next() : UUID.randomUUID());
+            insert.setString(2, "Benchmark event");
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT count(*), pg_relation_size('" + table + "_pkey') FROM " + table)) {
+            resultSet.next();
+            long rows = resultSet.getLong(1);
+            long indexBytes = resultSet.getLong(2);
+            System.out.printf("%n%s: %d rows, primary key index %d kB, %.1f bytes per row%n",
+                    strategy, rows, indexBytes / 1024, (double) indexBytes / rows);
+
+            statement.execute("DROP TABLE " + table);
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.midel.benchmark;
+
+import com.midel.entity.User;
+import com.midel.entity.enums.Role;
+import com.midel.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request CPU cost of authenticating a bearer token in {@code JwtAuthenticationFilter}, and cost of
+ * issuing a token on sign in.
+ *
+ * <p>
+ * {@link #legacy()} reproduces the previous behaviour: the key and the parser were rebuilt for
+ * every parse and the token was parsed three times per request. {@link #cached()} is the current
+ * path with a single parse through the shared parser.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    static final String SIGNING_KEY = "SZHFXEYNJSEU1J79AUTONR61TARZZSRJR0TFUTWONS4ASHF4DFQIK6CNG4AM1GLE";
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SIGNING_KEY, 36000);
+        user = User.builder()
+                .id(1L)
+                .username("benchmark")
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        String username = legacyParse(token).getSubject();
+        return username.equals(user.getUsername())
+                && legacyParse(token).getSubject().equals(user.getUsername())
+                && !legacyParse(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean cached() {
+        Claims claims = jwtService.extractVerifiedClaims(token);
+        return jwtService.isTokenValid(claims, user);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtService.generateToken(user);
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SIGNING_KEY)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+}
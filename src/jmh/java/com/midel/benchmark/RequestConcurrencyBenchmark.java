@@ -0,0 +1,77 @@
+package com.midel.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of blocking requests under sustained concurrency, served by a pool of platform threads like the default
+ * Tomcat pool or by a virtual thread per request, see <code>spring.threads.virtual.enabled</code>.
+ *
+ * <p>
+ * Each of the 400 benchmark threads is a client sending requests back to back. A request holds one of the
+ * <code>connections</code> for a query, like the JDBC pool, and then blocks without a connection, like waiting
+ * on a slow client or another service. Sample time mode reports the percentiles, p0.99 included. With few
+ * connections the pool is the limit on both kinds of threads, with more the 200 platform threads become it first.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(400)
+@Fork(1)
+public class RequestConcurrencyBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"20", "100"})
+    private int connections;
+
+    @Param({"2"})
+    private long queryMs;
+
+    @Param({"5"})
+    private long blockingMs;
+
+    private ExecutorService executor;
+    private Semaphore connectionPool;
+
+    @Setup
+    public void setUp() {
+        executor = threads.equals("virtual")
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+        connectionPool = new Semaphore(connections, true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void request() throws Exception {
+        executor.submit(this::handle).get();
+    }
+
+    private Void handle() throws InterruptedException {
+        connectionPool.acquire();
+        try {
+            Thread.sleep(queryMs);
+        } finally {
+            connectionPool.release();
+        }
+
+        Thread.sleep(blockingMs);
+        return null;
+    }
+
+}
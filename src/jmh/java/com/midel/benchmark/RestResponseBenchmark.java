@@ -0,0 +1,73 @@
+package com.midel.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.midel.dto.CursorPageDto;
+import com.midel.dto.event.EventSummaryResponseDto;
+import com.midel.dto.user.UserResponseDto;
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Status;
+import com.midel.response.RestResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing a {@link RestResponse} as JSON, for a page of event summaries of the listing sizes.
+ *
+ * <p>
+ * The object mapper is configured like the one of the application, with ISO dates.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RestResponseBenchmark {
+
+    @Param({"1", "20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private CursorPageDto<EventSummaryResponseDto> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        List<EventSummaryResponseDto> items = new ArrayList<>(pageSize);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < pageSize; i++) {
+            EventSummaryResponseDto summary = new EventSummaryResponseDto();
+            summary.setId(UUID.randomUUID());
+            summary.setTitle("Event " + i);
+            summary.setDescription("Description of event " + i);
+            summary.setVisibility(i % 2 == 0 ? EventVisibility.PUBLIC : EventVisibility.FRIENDS_ONLY);
+            summary.setStatus(Status.OPENED);
+            summary.setCreatedAt(createdAt.plusSeconds(i));
+            summary.setOwner(new UserResponseDto((long) i, "user" + i));
+            if (i % 2 == 1) {
+                summary.setAudienceCount(42L);
+            }
+            items.add(summary);
+        }
+        page = new CursorPageDto<>(items, "MjAyNC0wMS0wMVQwMDowMHwwMDAwMDAwMC0wMDAwLTAwMDAtMDAwMC0wMDAwMDAwMDAwMDA");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new RestResponse(HttpStatus.OK, page));
+    }
+
+}
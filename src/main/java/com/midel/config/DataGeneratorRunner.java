@@ -0,0 +1,41 @@
+package com.midel.config;
+
+import com.midel.dto.DataGenerationRequestDto;
+import com.midel.service.DataGeneratorService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the data generator from the command line and exits, for example:
+ * <pre>
+ * gradlew bootRun --args='--generator.enabled=true --generator.users=1000000 --generator.events=5000000 --generator.seed=7'
+ * </pre>
+ * The other <code>generator.*</code> properties are the fields of {@link DataGenerationRequestDto}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "generator.enabled", havingValue = "true")
+public class DataGeneratorRunner implements ApplicationRunner {
+
+    private final DataGeneratorService dataGeneratorService;
+    private final Environment environment;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        DataGenerationRequestDto request = Binder.get(environment)
+                .bind("generator", DataGenerationRequestDto.class)
+                .orElseGet(DataGenerationRequestDto::new);
+
+        dataGeneratorService.generate(request);
+        System.exit(SpringApplication.exit(context));
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.midel.config;
+
+import com.midel.monitoring.SlowQueryDataSource;
+import com.midel.monitoring.SlowQueryRecorder;
+import com.midel.resilience.LaneRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+
+/**
+ * One connection pool per {@link com.midel.resilience.Lane}, both to the <code>spring.datasource</code> database,
+ * behind the routing data source used by JPA and JDBC, itself wrapped to time the statements when the
+ * {@link SlowQueryRecorder} is enabled.
+ *
+ * <p>
+ * The user pool is configured by <code>spring.datasource.hikari.*</code> as before, the moderation pool by
+ * <code>resilience.bulkhead.moderation.datasource.*</code>.
+ * </p>
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource userDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("resilience.bulkhead.moderation.datasource")
+    public HikariDataSource moderationDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            HikariDataSource userDataSource,
+            HikariDataSource moderationDataSource,
+            SlowQueryRecorder slowQueryRecorder
+    ) {
+        DataSource dataSource = new LaneRoutingDataSource(userDataSource, moderationDataSource);
+        return slowQueryRecorder.isEnabled() ? new SlowQueryDataSource(dataSource, slowQueryRecorder) : dataSource;
+    }
+
+}
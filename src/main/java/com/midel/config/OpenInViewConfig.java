@@ -0,0 +1,33 @@
+package com.midel.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Open entity manager in view for every request except the event streams.
+ *
+ * <p>
+ * Replaces <code>spring.jpa.open-in-view</code>, which keeps the entity manager and its connection for the whole
+ * async request: an open event stream would hold a pooled connection until the client disconnects.
+ * </p>
+ */
+@Configuration
+@RequiredArgsConstructor
+public class OpenInViewConfig implements WebMvcConfigurer {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+
+        registry.addWebRequestInterceptor(interceptor)
+                .excludePathPatterns("/events/stream");
+    }
+
+}
@@ -2,6 +2,7 @@ package com.midel.controller;
 
 import com.midel.dto.event.EventCreateRequestDto;
 import com.midel.dto.event.EventUpdateRequestDto;
+import com.midel.dto.user.UserBatchRequestDto;
 import com.midel.dto.user.UserRequestDto;
 import com.midel.response.RestResponse;
 import com.midel.service.EventService;
@@ -11,8 +12,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.UUID;
 
@@ -37,12 +40,18 @@ public class EventController {
 
     }
 
-    @Operation(summary = "Get all events of an authorized user")
+    @Operation(summary = "Get all events of an authorized user, or only the changes since a sync token")
     @GetMapping
-    public ResponseEntity<?> getMyEvents() {
+    public ResponseEntity<?> getMyEvents(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "since", required = false) String since,
+            @RequestParam(name = "limit", required = false) Integer limit
+    ) {
         return new RestResponse(
                 HttpStatus.OK,
-                eventService.getMyEvents()
+                since == null
+                        ? eventService.getMyEvents(cursor, limit)
+                        : eventService.getMyChanges(since, limit)
         ).getResponseEntity();
     }
 
@@ -57,6 +66,21 @@ public class EventController {
 
     }
 
+    @Operation(summary = "Get the users who can see a non-public event, paged by user id")
+    @GetMapping("{eventId}/audience")
+    public ResponseEntity<?> getEventAudience(
+            @PathVariable UUID eventId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit
+    ) {
+
+        return new RestResponse(
+                HttpStatus.OK,
+                eventService.getAudience(eventId, cursor, limit)
+        ).getResponseEntity();
+
+    }
+
     @Operation(summary = "Remove event by id of an authorized user")
     @DeleteMapping("{eventId}")
     public ResponseEntity<?> removeEvent(@PathVariable UUID eventId) {
@@ -98,13 +122,38 @@ public class EventController {
 
     }
 
+    @Operation(summary = "Invite many users to a SELECTED_INDIVIDUALS event")
+    @PostMapping("{eventId}/invite/batch")
+    public ResponseEntity<?> inviteUsers(@PathVariable UUID eventId, @RequestBody @Valid UserBatchRequestDto userBatchRequestDto) {
+
+        return new RestResponse(
+                HttpStatus.OK,
+                eventService.inviteUsers(eventId, userBatchRequestDto)
+        ).getResponseEntity();
+
+    }
+
+    @Operation(summary = "Stream the changes of the events visible to the authorized user as Server-Sent Events")
+    @GetMapping(value = "stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEventChanges() {
+
+        return eventService.subscribeToChanges();
+
+    }
+
     @Operation(summary = "Get all available chats for the authorized user.")
     @GetMapping("shared")
-    public ResponseEntity<?> getSharedEvents() {
+    public ResponseEntity<?> getSharedEvents(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "since", required = false) String since,
+            @RequestParam(name = "limit", required = false) Integer limit
+    ) {
 
         return new RestResponse(
                 HttpStatus.OK,
-                eventService.getSharedEvents()
+                since == null
+                        ? eventService.getSharedEvents(cursor, limit)
+                        : eventService.getSharedChanges(since, limit)
         ).getResponseEntity();
 
     }
@@ -1,19 +1,31 @@
 package com.midel.controller;
 
+import com.midel.dto.DataGenerationRequestDto;
+import com.midel.dto.event.EventBulkStatusRequestDto;
 import com.midel.entity.enums.Status;
 import com.midel.response.RestResponse;
 import com.midel.service.ChatService;
+import com.midel.service.DataGeneratorService;
+import com.midel.service.EventArchiveService;
+import com.midel.service.EventAudienceService;
+import com.midel.service.EventExportService;
 import com.midel.service.EventService;
+import com.midel.service.ModerationQueueService;
 import com.midel.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 @RestController
@@ -27,6 +39,11 @@ public class ModeratorController {
     private final UserService userService;
     private final ChatService chatService;
     private final EventService eventService;
+    private final EventAudienceService eventAudienceService;
+    private final EventExportService eventExportService;
+    private final EventArchiveService eventArchiveService;
+    private final DataGeneratorService dataGeneratorService;
+    private final ModerationQueueService moderationQueueService;
     private final EventController eventController;
 
     @Operation(summary = "Get all users")
@@ -38,6 +55,13 @@ public class ModeratorController {
         ).getResponseEntity();
     }
 
+    @Operation(summary = "Revoke all tokens issued to a user")
+    @PostMapping("users/{userId}/revoke-tokens")
+    public ResponseEntity<?> revokeTokens(@PathVariable Long userId) {
+        userService.revokeTokens(userId);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
     @Operation(summary = "Get chats of all users")
     @GetMapping("chats")
     public ResponseEntity<?> getAllChats() {
@@ -49,25 +73,70 @@ public class ModeratorController {
 
     @Operation(summary = "Get all events of all users")
     @GetMapping("events")
-    public ResponseEntity<?> getAllEvents(@RequestParam(name = "status", required = false) String status) {
-        if (status != null && !status.isEmpty()) {
-            try {
-                Status statusEnum = Status.valueOf(status.toUpperCase());
-                return new RestResponse(
-                        HttpStatus.OK,
-                        eventService.getAllByStatus(statusEnum)
-                ).getResponseEntity();
-            } catch (IllegalArgumentException e) {
-                throw new IllegalArgumentException("Invalid status parameter");
-            }
+    public ResponseEntity<?> getAllEvents(
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit
+    ) {
+        Status statusEnum = parseStatus(status);
+        if (statusEnum != null) {
+            return new RestResponse(
+                    HttpStatus.OK,
+                    eventService.getAllByStatus(statusEnum, cursor, limit)
+            ).getResponseEntity();
         } else {
             return new RestResponse(
                     HttpStatus.OK,
-                    eventService.getAll()
+                    eventService.getAll(cursor, limit)
             ).getResponseEntity();
         }
     }
 
+    @Operation(summary = "Export all events of all users as NDJSON or CSV")
+    @GetMapping("events/export")
+    public void exportEvents(
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            HttpServletResponse response
+    ) throws IOException {
+        Status statusEnum = parseStatus(status);
+        EventExportService.Format formatEnum;
+        try {
+            formatEnum = EventExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid format parameter");
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(formatEnum.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"events." + formatEnum.getExtension() + "\"");
+
+        eventExportService.export(statusEnum, formatEnum, response.getOutputStream());
+    }
+
+    @Operation(summary = "Get the archived events of all users, those ended, rejected or removed long ago")
+    @GetMapping("events/archive")
+    public ResponseEntity<?> getArchivedEvents(
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit
+    ) {
+        return new RestResponse(
+                HttpStatus.OK,
+                eventArchiveService.getArchivedEvents(parseStatus(status), cursor, limit)
+        ).getResponseEntity();
+    }
+
+    @Operation(summary = "Get an archived event with the users it was shared with")
+    @GetMapping("events/archive/{eventId}")
+    public ResponseEntity<?> getArchivedEvent(@PathVariable UUID eventId) {
+        return new RestResponse(
+                HttpStatus.OK,
+                eventArchiveService.getArchivedEvent(eventId)
+        ).getResponseEntity();
+    }
+
     @Operation(summary = "Get any event.")
     @GetMapping("events/{eventId}")
     public ResponseEntity<?> getEvent(@PathVariable UUID eventId) {
@@ -91,4 +160,81 @@ public class ModeratorController {
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
+    @Operation(summary = "Approve many events selected by id or by owner and current status")
+    @PostMapping("events/approve")
+    public ResponseEntity<?> approveEvents(@RequestBody @Valid EventBulkStatusRequestDto eventBulkStatusRequestDto) {
+        return new RestResponse(
+                HttpStatus.OK,
+                eventService.changeEventsStatus(eventBulkStatusRequestDto, Status.OPENED)
+        ).getResponseEntity();
+    }
+
+    @Operation(summary = "Reject many events selected by id or by owner and current status")
+    @PostMapping("events/reject")
+    public ResponseEntity<?> rejectEvents(@RequestBody @Valid EventBulkStatusRequestDto eventBulkStatusRequestDto) {
+        return new RestResponse(
+                HttpStatus.OK,
+                eventService.changeEventsStatus(eventBulkStatusRequestDto, Status.REJECTED)
+        ).getResponseEntity();
+    }
+
+    @Operation(summary = "Claim the next unverified events that no other moderator is reviewing")
+    @PostMapping("queue/claim")
+    public ResponseEntity<?> claimEvents(@RequestParam(name = "limit", required = false) Integer limit) {
+        return new RestResponse(
+                HttpStatus.OK,
+                moderationQueueService.claim(limit)
+        ).getResponseEntity();
+    }
+
+    @Operation(summary = "Release all events claimed by the moderator")
+    @PostMapping("queue/release")
+    public ResponseEntity<?> releaseClaims() {
+        return new RestResponse(
+                HttpStatus.OK,
+                moderationQueueService.releaseClaims()
+        ).getResponseEntity();
+    }
+
+    @Operation(summary = "Compare the event audience index with the audience computed from scratch")
+    @GetMapping("events/audience/verify")
+    public ResponseEntity<?> verifyEventAudience() {
+        return new RestResponse(
+                HttpStatus.OK,
+                eventAudienceService.verify()
+        ).getResponseEntity();
+    }
+
+    @Operation(summary = "Rebuild the event audience index from scratch")
+    @PostMapping("events/audience/rebuild")
+    public ResponseEntity<?> rebuildEventAudience() {
+        eventAudienceService.rebuild();
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
+    @Operation(hidden = true)
+    @PostMapping("generate")
+    public ResponseEntity<?> generateData(@RequestBody @Valid DataGenerationRequestDto dataGenerationRequestDto) {
+        return new RestResponse(
+                HttpStatus.OK,
+                dataGeneratorService.generate(dataGenerationRequestDto)
+        ).getResponseEntity();
+    }
+
+    /**
+     * @param status the status parameter, may be empty
+     * @return the status, or <code>null</code> if the parameter is empty
+     */
+    private Status parseStatus(String status) {
+        if (status == null || status.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return Status.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid status parameter");
+        }
+    }
+
 }
@@ -39,12 +39,4 @@ public class UserController {
 
     }
 
-    @Operation(hidden = true)
-    @GetMapping("genfriend")
-    public ResponseEntity<?> generateFriends() {
-        userService.generateFriends();
-
-        return ResponseEntity.ok("");
-    }
-
 }
@@ -0,0 +1,33 @@
+package com.midel.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDto<T> {
+
+    private List<T> items;
+
+    /**
+     * Opaque cursor of the next page, <code>null</code> on the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Token to pass as <code>since</code> to get the later changes of the listing, only on the first page
+     * of the listings that support delta sync.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String syncToken;
+
+    public CursorPageDto(List<T> items, String nextCursor) {
+        this(items, nextCursor, null);
+    }
+
+}
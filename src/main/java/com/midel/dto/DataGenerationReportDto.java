@@ -0,0 +1,21 @@
+package com.midel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DataGenerationReportDto {
+
+    private long firstUserId;
+    private long users;
+    private long friendships;
+    private long chats;
+    private long chatMembers;
+    private long events;
+    private long allowedUsers;
+    private long durationMs;
+
+}
@@ -0,0 +1,81 @@
+package com.midel.dto;
+
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Status;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size and shape of the synthetic data written for load tests, also bound from the <code>generator.*</code>
+ * properties when the generator runs from the command line.
+ */
+@Data
+public class DataGenerationRequestDto {
+
+    /**
+     * Seed of the run, the same seed and parameters always generate the same rows.
+     */
+    private long seed = 42;
+
+    @Min(1)
+    @Max(50_000_000)
+    private int users = 1000;
+
+    /**
+     * Friends each new user makes in the Barabási–Albert graph, the average number of friends is twice that.
+     */
+    @Min(0)
+    @Max(100)
+    private int friendsPerUser = 5;
+
+    @Min(0)
+    private int chats = 100;
+
+    @Min(1)
+    private int minChatMembers = 2;
+
+    @Min(1)
+    private int maxChatMembers = 50;
+
+    /**
+     * Exponent of the power law of the chat sizes, 0 for uniform sizes.
+     */
+    @DecimalMin("0")
+    private double chatSizeExponent = 1.5;
+
+    @Min(0)
+    private int events = 10_000;
+
+    @Min(1)
+    private int maxSelectedUsers = 20;
+
+    /**
+     * Events are created within this many days before the run.
+     */
+    @Min(1)
+    private int createdWithinDays = 90;
+
+    @NotEmpty
+    private Map<EventVisibility, Integer> visibilityWeights = new LinkedHashMap<>(Map.of(
+            EventVisibility.PUBLIC, 40,
+            EventVisibility.FRIENDS_ONLY, 30,
+            EventVisibility.SELECTED_INDIVIDUALS, 20,
+            EventVisibility.SPECIFIC_CHAT, 10
+    ));
+
+    @NotEmpty
+    private Map<Status, Integer> statusWeights = new LinkedHashMap<>(Map.of(
+            Status.OPENED, 70,
+            Status.UNVERIFIED, 10,
+            Status.ENDED, 10,
+            Status.REJECTED, 5,
+            Status.REMOVED, 5
+    ));
+
+}
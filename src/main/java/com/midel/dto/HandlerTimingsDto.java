@@ -0,0 +1,36 @@
+package com.midel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Latency of a controller method over the last minutes, in milliseconds, with the share of each phase.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HandlerTimingsDto {
+
+    private long count;
+    private double meanMs;
+    private double p50Ms;
+    private double p90Ms;
+    private double p99Ms;
+    private double maxMs;
+    private Map<String, PhaseTimingsDto> phases;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class PhaseTimingsDto {
+
+        private double meanMs;
+        private double p99Ms;
+        private double maxMs;
+
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.midel.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SlowQueryDto {
+
+    private long id;
+    private Instant executedAt;
+    private double durationMs;
+    private String sql;
+    private List<String> binds;
+    private int batchSize;
+    private String repositoryMethod;
+    private String caller;
+    private String plan;
+
+}
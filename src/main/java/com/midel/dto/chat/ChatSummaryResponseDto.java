@@ -0,0 +1,27 @@
+package com.midel.dto.chat;
+
+import com.midel.dto.user.UserResponseDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Chat in list responses, with the number of members instead of the members themselves.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChatSummaryResponseDto {
+
+    private UUID id;
+    private String title;
+    private UserResponseDto owner;
+    private long memberCount;
+
+    public ChatSummaryResponseDto(UUID id, String title, Long ownerId, String ownerUsername, Long memberCount) {
+        this(id, title, new UserResponseDto(ownerId, ownerUsername), memberCount);
+    }
+
+}
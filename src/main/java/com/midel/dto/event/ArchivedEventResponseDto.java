@@ -0,0 +1,28 @@
+package com.midel.dto.event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Event read from the archive by the moderators.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class ArchivedEventResponseDto extends EventResponseDto {
+
+    private LocalDateTime updatedAt;
+    private LocalDateTime archivedAt;
+    private UUID allowedChatId;
+
+    /**
+     * Users the event was shared with, only when a single event is read.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Long> allowedUserIds;
+
+}
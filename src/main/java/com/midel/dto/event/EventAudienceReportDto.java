@@ -0,0 +1,20 @@
+package com.midel.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventAudienceReportDto {
+
+    private long liveRows;
+    private long missingRows;
+    private long staleRows;
+
+    public boolean isConsistent() {
+        return missingRows == 0 && staleRows == 0;
+    }
+
+}
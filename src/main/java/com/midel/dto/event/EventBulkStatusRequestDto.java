@@ -0,0 +1,36 @@
+package com.midel.dto.event;
+
+import com.midel.entity.enums.Status;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Selects the events of a bulk status change either by id or by a filter on the owner and the current status.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventBulkStatusRequestDto {
+
+    /**
+     * Events changed by one request, either the listed ids or the first matches of the filter.
+     */
+    public static final int MAX_EVENTS = 1000;
+
+    @Size(max = MAX_EVENTS, message = "At most 1000 event ids can be changed at once.")
+    @Schema(description = "Identifiers of the events, mutually exclusive with the filter", example = "[\"68240812-7a87-4a7e-8d20-17c6dce7fbff\"]")
+    private List<UUID> eventIds;
+
+    @Schema(description = "Filter: identifier of the owner of the events", example = "1")
+    private Long ownerId;
+
+    @Schema(description = "Filter: current status of the events", example = "UNVERIFIED")
+    private Status status;
+
+}
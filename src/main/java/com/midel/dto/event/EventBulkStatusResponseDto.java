@@ -0,0 +1,44 @@
+package com.midel.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a bulk status change for every selected event.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventBulkStatusResponseDto {
+
+    /**
+     * Events moved to the new status.
+     */
+    private List<UUID> updated;
+
+    /**
+     * Events that already had the new status.
+     */
+    private List<UUID> unchanged;
+
+    /**
+     * Requested ids that match no event.
+     */
+    private List<UUID> notFound;
+
+    /**
+     * Events skipped because another moderator holds an active claim on them.
+     */
+    private List<UUID> claimed;
+
+    /**
+     * Whether more events may match the filter, the request is then repeated to change the next batch.
+     * Always <code>false</code> for a selection by id.
+     */
+    private boolean hasMore;
+
+}
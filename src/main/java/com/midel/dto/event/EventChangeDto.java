@@ -0,0 +1,34 @@
+package com.midel.dto.event;
+
+import com.midel.entity.enums.EventChangeType;
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Change of an event pushed to the event stream, clients fetch the event itself when they need it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventChangeDto {
+
+    private EventChangeType type;
+
+    private UUID eventId;
+
+    private EventVisibility visibility;
+
+    /**
+     * Status of the event when the change was dispatched.
+     */
+    private Status status;
+
+    private LocalDateTime occurredAt;
+
+}
@@ -0,0 +1,40 @@
+package com.midel.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Changes of an event listing since a sync token.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventDeltaDto {
+
+    /**
+     * Events created, changed or made visible since the token, ordered by id.
+     */
+    private List<EventSummaryResponseDto> changed;
+
+    /**
+     * Events that are no longer visible, reported on the first page of a delta only.
+     */
+    private List<UUID> removed;
+
+    /**
+     * Token of the next page while <code>hasMore</code>, otherwise the token of the next sync.
+     */
+    private String syncToken;
+
+    private boolean hasMore;
+
+    /**
+     * The token is older than the tombstone retention, the whole listing has to be reloaded.
+     */
+    private boolean resyncRequired;
+
+}
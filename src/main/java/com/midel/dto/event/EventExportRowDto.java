@@ -0,0 +1,32 @@
+package com.midel.dto.event;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat event row of the moderator export, the field order is also the CSV column order.
+ */
+@Data
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "title", "description", "visibility", "status", "createdAt", "expirationAt",
+        "ownerId", "ownerUsername", "allowedChatId"})
+public class EventExportRowDto {
+
+    private UUID id;
+    private String title;
+    private String description;
+    private EventVisibility visibility;
+    private Status status;
+    private LocalDateTime createdAt;
+    private LocalDateTime expirationAt;
+    private Long ownerId;
+    private String ownerUsername;
+    private UUID allowedChatId;
+
+}
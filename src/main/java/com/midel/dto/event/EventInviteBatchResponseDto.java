@@ -0,0 +1,32 @@
+package com.midel.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch invite for every requested user.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventInviteBatchResponseDto {
+
+    /**
+     * Users newly allowed to see the event.
+     */
+    private List<Long> added;
+
+    /**
+     * Users that were already invited.
+     */
+    private List<Long> alreadyInvited;
+
+    /**
+     * Requested ids that match no user.
+     */
+    private List<Long> notFound;
+
+}
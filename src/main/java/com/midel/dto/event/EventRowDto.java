@@ -0,0 +1,35 @@
+package com.midel.dto.event;
+
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat projection of an event with its owner and allowed chat, read by the event listings instead of
+ * managed entities, so that mapping a page never triggers lazy loading.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventRowDto {
+
+    private UUID id;
+    private String title;
+    private String description;
+    private EventVisibility visibility;
+    private Status status;
+    private LocalDateTime createdAt;
+    private LocalDateTime expirationAt;
+    private Long ownerId;
+    private String ownerUsername;
+    private UUID allowedChatId;
+    private String allowedChatTitle;
+    private Long allowedChatOwnerId;
+    private String allowedChatOwnerUsername;
+
+}
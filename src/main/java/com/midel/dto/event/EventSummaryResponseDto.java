@@ -0,0 +1,25 @@
+package com.midel.dto.event;
+
+import com.midel.dto.chat.ChatSummaryResponseDto;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Event in list responses. Non-public events carry the size of their audience instead of the users,
+ * which are paged by <code>/events/{id}/audience</code>.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class EventSummaryResponseDto extends EventResponseDto {
+
+    /**
+     * Number of users who can see the event, <code>null</code> for public events.
+     */
+    private Long audienceCount;
+
+    /**
+     * Chat of a SPECIFIC_CHAT event, its members are the audience of the event.
+     */
+    private ChatSummaryResponseDto sharedChat;
+
+}
@@ -0,0 +1,28 @@
+package com.midel.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Unverified events claimed by a moderator.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ModerationClaimResponseDto {
+
+    /**
+     * The claimed events, oldest first, empty when the queue is drained.
+     */
+    private List<EventSummaryResponseDto> events;
+
+    /**
+     * Time the claims expire unless the events are approved or rejected before.
+     */
+    private LocalDateTime expiresAt;
+
+}
@@ -4,12 +4,12 @@ import com.midel.dto.user.UserResponseDto;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
-import java.util.Set;
+import java.util.List;
 
 @EqualsAndHashCode(callSuper = true)
 @Data
 public class PrivateAccessEventResponseDto extends EventResponseDto {
 
-    private Set<UserResponseDto> usersWithInvite;
+    private List<UserResponseDto> usersWithInvite;
 
 }
@@ -0,0 +1,22 @@
+package com.midel.dto.user;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserBatchRequestDto {
+
+    @NotEmpty(message = "User ids must be specified.")
+    @Size(max = 5000, message = "At most 5000 users can be specified at once.")
+    @Schema(description = "Identifiers of the users", example = "[2, 3, 4]")
+    private List<Long> userIds;
+
+}
@@ -0,0 +1,79 @@
+package com.midel.entity;
+
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Status;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Event in a terminal status moved out of the live <code>events</code> table by
+ * {@link com.midel.service.EventArchiveService}, kept for the moderators only.
+ *
+ * <p>
+ * Archived events are never changed, so the owner username is copied at archive time and the owner, the chat and
+ * the allowed users are kept as plain ids, without foreign keys that would hold back deleting them.
+ * </p>
+ */
+@Entity
+@Immutable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "events_archive", indexes = {
+        @Index(name = "idx_events_archive_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_events_archive_status_created_at_id", columnList = "status, created_at, id"),
+        @Index(name = "idx_events_archive_owner_id", columnList = "owner_id")
+})
+public class ArchivedEvent {
+
+    @Id
+    @Column(nullable = false)
+    private UUID id;
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "description")
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "visibility", nullable = false)
+    private EventVisibility visibility;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "created_at", columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private LocalDateTime createdAt;
+
+    @Column(name = "expiration_at", columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private LocalDateTime expirationAt;
+
+    @Column(name = "updated_at", columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false, columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private LocalDateTime archivedAt;
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(name = "owner_username")
+    private String ownerUsername;
+
+    @Column(name = "allowed_chat_id")
+    private UUID allowedChatId;
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "events_archive_allowed_users", joinColumns = @JoinColumn(name = "event_id"))
+    @Column(name = "user_id", nullable = false)
+    private Set<Long> allowedUserIds = new LinkedHashSet<>();
+
+}
@@ -1,6 +1,7 @@
 package com.midel.entity;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.midel.entity.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -19,7 +20,7 @@ public class Chat {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(name = "title", nullable = false)
@@ -3,12 +3,13 @@ package com.midel.entity;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.midel.entity.enums.EventVisibility;
 import com.midel.entity.enums.Status;
+import com.midel.entity.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -19,11 +20,19 @@ import java.util.UUID;
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_events_status_created_at_id", columnList = "status, created_at, id"),
+        @Index(name = "idx_events_owner_created_at_id", columnList = "owner_id, created_at, id"),
+        @Index(name = "idx_events_status_expiration_at", columnList = "status, expiration_at"),
+        @Index(name = "idx_events_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_events_owner_updated_at", columnList = "owner_id, updated_at"),
+        @Index(name = "idx_events_status_updated_at", columnList = "status, updated_at")
+})
 public class Event {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @TimeOrderedUuid
     @Column(nullable = false)
     private UUID id;
 
@@ -50,6 +59,14 @@ public class Event {
     @Column(name = "expiration_at", columnDefinition = "TIMESTAMP WITH TIME ZONE")
     private LocalDateTime expirationAt;
 
+    /**
+     * Time of the last change of the event row, also set by the bulk status updates, used by the delta sync.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "updated_at", columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     private User owner;
 
@@ -80,25 +97,25 @@ public class Event {
      * </ul>
      * </p>
      *
-     * @return the set of allowed users based on the event's visibility setting, or <code>null</code> if the event is public.
+     * @return the set of allowed users based on the event's visibility setting, with the owner first when the owner is
+     * included, or <code>null</code> if the event is public.
      */
     public Set<User> getSharedUsers() {
         return switch (visibility) {
             case PUBLIC -> null;
-            case FRIENDS_ONLY -> {
-                Set<User> shared = new HashSet<>(owner.getFriends());
-                shared.add(owner);
-                yield shared;
-            }
-            case SELECTED_INDIVIDUALS -> {
-                Set<User> shared = new HashSet<>(allowedUsers);
-                shared.add(owner);
-                yield shared;
-            }
+            case FRIENDS_ONLY -> withOwnerFirst(owner.getFriends());
+            case SELECTED_INDIVIDUALS -> withOwnerFirst(allowedUsers);
             case SPECIFIC_CHAT -> allowedChat.getMembers();
         };
     }
 
+    private Set<User> withOwnerFirst(Set<User> users) {
+        Set<User> shared = LinkedHashSet.newLinkedHashSet(users.size() + 1);
+        shared.add(owner);
+        shared.addAll(users);
+        return shared;
+    }
+
     /**
      * Adds a user to the set of allowed users for the event.
      *
@@ -0,0 +1,53 @@
+package com.midel.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Row of the precomputed event audience index: the user can see the non-public event.
+ *
+ * <p>
+ * The index is maintained by {@link com.midel.service.EventAudienceService} whenever the owner's friends,
+ * the allowed users, the allowed chat or its members change, so that shared events can be looked up by user
+ * instead of joining all of these relations on every request.
+ * </p>
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(EventAudience.Key.class)
+@Table(name = "event_audience", indexes = @Index(name = "idx_event_audience_event_id_user_id", columnList = "event_id, user_id"))
+public class EventAudience {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Id
+    @Column(name = "event_id", nullable = false)
+    private UUID eventId;
+
+    /**
+     * Time the user gained access to the event, set by the database since the rows are inserted by native queries.
+     */
+    @Column(name = "added_at", insertable = false, updatable = false,
+            columnDefinition = "TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()")
+    private LocalDateTime addedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Long userId;
+        private UUID eventId;
+
+    }
+
+}
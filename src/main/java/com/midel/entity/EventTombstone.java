@@ -0,0 +1,47 @@
+package com.midel.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Record that a user lost access to an event, so that the delta sync can tell clients to drop it.
+ *
+ * <p>
+ * Written when a change of visibility, allowed users or allowed chat removes users from the audience of the event,
+ * a tombstone without user is for everyone who saw the event while it was public. Events leaving the opened status
+ * need no tombstone, the delta sync finds them by their update time, but the owner gets one when the event is moved
+ * to the archive. Tombstones older than the retention are
+ * compacted by {@link com.midel.service.EventTombstoneService}.
+ * </p>
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "event_tombstones", indexes = {
+        @Index(name = "idx_event_tombstones_user_id_deleted_at", columnList = "user_id, deleted_at"),
+        @Index(name = "idx_event_tombstones_deleted_at", columnList = "deleted_at")
+})
+public class EventTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private UUID eventId;
+
+    /**
+     * The user who lost access, <code>null</code> for all users.
+     */
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "deleted_at", nullable = false, columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private LocalDateTime deletedAt;
+
+}
@@ -0,0 +1,38 @@
+package com.midel.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lease of an unverified event by the moderator reviewing it.
+ *
+ * <p>
+ * Claims are taken in batches by {@link com.midel.service.ModerationQueueService}, so that concurrent moderators
+ * never get the same event. A claim ends when the event status is changed, or on its own once it expires.
+ * </p>
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "moderation_claims", indexes = @Index(name = "idx_moderation_claims_moderator_id", columnList = "moderator_id"))
+public class ModerationClaim {
+
+    @Id
+    @Column(name = "event_id", nullable = false)
+    private UUID eventId;
+
+    @Column(name = "moderator_id", nullable = false)
+    private Long moderatorId;
+
+    @Column(name = "claimed_at", nullable = false, columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "expires_at", nullable = false, columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private LocalDateTime expiresAt;
+
+}
@@ -0,0 +1,34 @@
+package com.midel.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time-limited lease that elects the single node running a cluster-wide background job.
+ *
+ * <p>
+ * The lease is acquired and renewed through {@link com.midel.service.LeaseService}, a node holds it
+ * until it stops renewing it and the expiration passes.
+ * </p>
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "scheduler_leases")
+public class SchedulerLease {
+
+    @Id
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "owner", nullable = false)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false, columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private LocalDateTime expiresAt;
+
+}
@@ -35,6 +35,10 @@ public class User implements UserDetails {
     @Column(name = "role", nullable = false)
     private Role role;
 
+    @Builder.Default
+    @Column(name = "token_version", nullable = false, columnDefinition = "INTEGER DEFAULT 0")
+    private int tokenVersion = 0;
+
     @JsonManagedReference
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
@@ -62,9 +66,9 @@ public class User implements UserDetails {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        User user = (User) o;
-        return Objects.equals(id, user.id);
+        // instanceof and getId() also match lazy references to the same user
+        if (!(o instanceof User user)) return false;
+        return Objects.equals(getId(), user.getId());
     }
 
     @Override
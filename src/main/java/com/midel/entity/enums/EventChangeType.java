@@ -0,0 +1,41 @@
+package com.midel.entity.enums;
+
+/**
+ * Kind of change pushed to the event stream subscribers.
+ */
+public enum EventChangeType {
+
+    CREATED,
+
+    UPDATED,
+
+    APPROVED,
+
+    REJECTED,
+
+    REMOVED,
+
+    EXPIRED;
+
+    /**
+     * @param status the new status of the event
+     * @return the change matching a status change
+     */
+    public static EventChangeType of(Status status) {
+        return switch (status) {
+            case OPENED -> APPROVED;
+            case REJECTED -> REJECTED;
+            case REMOVED -> REMOVED;
+            case ENDED -> EXPIRED;
+            case UNVERIFIED -> UPDATED;
+        };
+    }
+
+    /**
+     * @return true if the event is no longer visible to its audience after the change
+     */
+    public boolean hidesEvent() {
+        return this == REJECTED || this == REMOVED || this == EXPIRED;
+    }
+
+}
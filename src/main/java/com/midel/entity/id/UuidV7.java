@@ -0,0 +1,75 @@
+package com.midel.entity.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUID version 7 (RFC 9562) factory.
+ *
+ * <p>
+ * The 48-bit Unix millisecond timestamp and the 12-bit <code>rand_a</code> field together form a 60-bit
+ * counter shared by all threads: each id takes the current millisecond with a zero counter, or the previous
+ * value plus one if that is not smaller, through a compare-and-set loop. Ids are therefore strictly increasing
+ * within the process, also within a millisecond and when the clock steps back, without any lock. When more
+ * than 4096 ids are taken in one millisecond the counter carries into the timestamp, which runs slightly ahead
+ * until the clock catches up. The remaining 62 bits are random.
+ * </p>
+ *
+ * <p>
+ * The random bits come from {@link ThreadLocalRandom}: the ids only have to be unique and well distributed,
+ * they are not secrets, access to every entity is checked on lookup.
+ * </p>
+ */
+public final class UuidV7 {
+
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RAND_B_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    /**
+     * @return a new id, greater than every id previously returned in this process
+     */
+    public static UUID next() {
+        long timeAndCounter = LAST.updateAndGet(
+                last -> Math.max(last + 1, System.currentTimeMillis() << COUNTER_BITS)
+        );
+
+        long mostSignificantBits = (timeAndCounter >>> COUNTER_BITS) << 16
+                | VERSION
+                | timeAndCounter & COUNTER_MASK;
+        long leastSignificantBits = VARIANT | ThreadLocalRandom.current().nextLong() & RAND_B_MASK;
+
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * Builds an id from the given time and random bits, for generated data that has to be reproducible.
+     *
+     * @param unixMillis the Unix millisecond timestamp
+     * @param random the random bits, the top 12 fill <code>rand_a</code> and the low 62 <code>rand_b</code>
+     * @return the id
+     */
+    public static UUID of(long unixMillis, long random) {
+        return new UUID(
+                unixMillis << 16 | VERSION | random >>> 52,
+                VARIANT | random & RAND_B_MASK
+        );
+    }
+
+    /**
+     * @param uuid a version 7 id
+     * @return the Unix millisecond timestamp embedded in the id
+     */
+    public static long timestamp(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+}
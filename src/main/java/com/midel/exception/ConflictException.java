@@ -0,0 +1,12 @@
+package com.midel.exception;
+
+/**
+ * Thrown when a request lost a race with a concurrent change, answered with 409 Conflict.
+ */
+public class ConflictException extends ResponseException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+
+}
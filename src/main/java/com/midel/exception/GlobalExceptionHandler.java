@@ -26,7 +26,7 @@ public class GlobalExceptionHandler {
 
         log.warn("", e);
         return new ErrorResponse(
-                HttpStatus.BAD_REQUEST,
+                e instanceof ConflictException ? HttpStatus.CONFLICT : HttpStatus.BAD_REQUEST,
                 message
         ).getResponseEntity();
     }
@@ -0,0 +1,56 @@
+package com.midel.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times the {@link Phase#DB} phase of the current request: Hibernate creates one listener per session and
+ * calls it around each connection acquisition, statement preparation and execution on the session thread.
+ */
+public class DatabasePhaseListener implements SessionEventListener {
+
+    private long acquisitionStartedAt;
+    private long prepareStartedAt;
+    private long executeStartedAt;
+    private long batchStartedAt;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        acquisitionStartedAt = RequestStatistics.phaseStarted(Phase.DB);
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        RequestStatistics.phaseEnded(Phase.DB, acquisitionStartedAt);
+    }
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        prepareStartedAt = RequestStatistics.phaseStarted(Phase.DB);
+    }
+
+    @Override
+    public void jdbcPrepareStatementEnd() {
+        RequestStatistics.phaseEnded(Phase.DB, prepareStartedAt);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStartedAt = RequestStatistics.phaseStarted(Phase.DB);
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestStatistics.phaseEnded(Phase.DB, executeStartedAt);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStartedAt = RequestStatistics.phaseStarted(Phase.DB);
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestStatistics.phaseEnded(Phase.DB, batchStartedAt);
+    }
+
+}
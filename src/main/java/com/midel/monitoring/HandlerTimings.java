@@ -0,0 +1,133 @@
+package com.midel.monitoring;
+
+import com.midel.dto.HandlerTimingsDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms of every controller method and of each {@link Phase} of its requests.
+ *
+ * <p>
+ * The timers are created on the first request of a method, later requests only record into the HDR histograms
+ * Micrometer keeps for the percentiles, without allocating. They are published as the
+ * <code>http.server.handler.latency</code> and <code>http.server.handler.phase</code> timers tagged with
+ * the handler, <code>EventController.getSharedEvents</code> for instance, and read by {@link TimingsEndpoint}.
+ * </p>
+ */
+@Component
+public class HandlerTimings {
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+    private static final Phase[] PHASES = Phase.values();
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Handler> handlers = new ConcurrentHashMap<>();
+
+    public HandlerTimings(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param handlerMethod the controller method that handled the request
+     * @param latencyNanos the time the whole request took
+     * @param statistics the scope of the request
+     * @param now the {@link System#nanoTime()} the request ended at
+     */
+    public void record(HandlerMethod handlerMethod, long latencyNanos, RequestStatistics statistics, long now) {
+        Handler handler = handlers.computeIfAbsent(handlerMethod.getMethod(), method -> new Handler(name(handlerMethod)));
+
+        handler.latency.record(latencyNanos, TimeUnit.NANOSECONDS);
+        for (Phase phase : PHASES) {
+            long nanos = statistics.getPhaseNanos(phase, now);
+            if (nanos > 0) {
+                handler.phases[phase.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * @return the timings of every handler called so far, by handler name
+     */
+    public Map<String, HandlerTimingsDto> snapshot() {
+        Map<String, HandlerTimingsDto> timings = new TreeMap<>();
+
+        for (Handler handler : handlers.values()) {
+            HistogramSnapshot latency = handler.latency.takeSnapshot();
+            Map<String, HandlerTimingsDto.PhaseTimingsDto> phases = new LinkedHashMap<>();
+            for (Phase phase : PHASES) {
+                HistogramSnapshot snapshot = handler.phases[phase.ordinal()].takeSnapshot();
+                if (snapshot.count() > 0) {
+                    phases.put(phase.getName(), new HandlerTimingsDto.PhaseTimingsDto(
+                            snapshot.mean(TimeUnit.MILLISECONDS),
+                            percentile(snapshot, 0.99),
+                            snapshot.max(TimeUnit.MILLISECONDS)
+                    ));
+                }
+            }
+
+            timings.put(handler.name, new HandlerTimingsDto(
+                    latency.count(),
+                    latency.mean(TimeUnit.MILLISECONDS),
+                    percentile(latency, 0.5),
+                    percentile(latency, 0.9),
+                    percentile(latency, 0.99),
+                    latency.max(TimeUnit.MILLISECONDS),
+                    phases
+            ));
+        }
+
+        return timings;
+    }
+
+    static String name(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    }
+
+    private static double percentile(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    private final class Handler {
+
+        private final String name;
+        private final Timer latency;
+        private final Timer[] phases = new Timer[PHASES.length];
+
+        private Handler(String name) {
+            this.name = name;
+            this.latency = Timer.builder("http.server.handler.latency")
+                    .description("Latency of the requests handled by a controller method")
+                    .tag("handler", name)
+                    .publishPercentiles(PERCENTILES)
+                    .percentilePrecision(2)
+                    .register(meterRegistry);
+
+            for (Phase phase : PHASES) {
+                phases[phase.ordinal()] = Timer.builder("http.server.handler.phase")
+                        .description("Time spent in a phase by the requests handled by a controller method")
+                        .tags("handler", name, "phase", phase.getName())
+                        .publishPercentiles(PERCENTILES)
+                        .percentilePrecision(2)
+                        .register(meterRegistry);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.midel.monitoring;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Hooks {@link RequestStatistics} into Hibernate: a statement inspector counts every statement Hibernate
+ * prepares, native queries included, a listener registered before the default one counts the lazy
+ * collections it initializes and a {@link DatabasePhaseListener} in every session times the JDBC calls.
+ *
+ * <p>
+ * Statements issued through <code>JdbcTemplate</code> (export, batch invitations, leases) bypass Hibernate
+ * and are not counted.
+ * </p>
+ */
+@Configuration
+public class HibernateStatisticsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer requestStatisticsHibernateCustomizer() {
+        StatementInspector statementInspector = sql -> {
+            RequestStatistics.statementPrepared(sql);
+            return sql;
+        };
+
+        InitializeCollectionEventListener lazyLoadListener = event -> {
+            if (!event.getCollection().wasInitialized()) {
+                RequestStatistics.collectionLoaded(event.getCollection().getRole());
+            }
+        };
+
+        Integrator integrator = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+                sessionFactory.getServiceRegistry()
+                        .requireService(EventListenerRegistry.class)
+                        .prependListeners(EventType.INIT_COLLECTION, lazyLoadListener);
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        };
+
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementInspector);
+            properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(integrator));
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, DatabasePhaseListener.class.getName());
+        };
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.midel.monitoring;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Parts of a request timed by {@link RequestStatistics}, named as in the <code>Server-Timing</code> header.
+ *
+ * <p>
+ * The phases are inclusive: the statements of the user lookup and the lazy loads of the mapping also count
+ * in {@link #DB}.
+ * </p>
+ */
+@Getter
+@RequiredArgsConstructor
+public enum Phase {
+
+    /**
+     * Verification of the token signature and parsing of its claims.
+     */
+    JWT("jwt"),
+    /**
+     * Loading of the authenticated user, from the cache or the database.
+     */
+    USER_LOOKUP("user"),
+    /**
+     * Hibernate waiting for connections, preparing and executing statements.
+     */
+    DB("db"),
+    /**
+     * Mapping of entities and rows to DTOs.
+     */
+    MAPPING("mapping"),
+    /**
+     * Writing of the JSON response body.
+     */
+    SERIALIZATION("json");
+
+    private final String name;
+
+}
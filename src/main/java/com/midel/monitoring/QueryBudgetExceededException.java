@@ -0,0 +1,14 @@
+package com.midel.monitoring;
+
+/**
+ * Thrown when a {@link RequestStatistics} scope in fail mode crosses its statement or lazy load budget.
+ * Thrown from a repository call, it reaches the caller as the cause of an
+ * {@link org.springframework.dao.InvalidDataAccessApiUsageException}.
+ */
+public class QueryBudgetExceededException extends IllegalStateException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.midel.monitoring;
+
+import lombok.NonNull;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the Spring Data repository method running on the current thread, <code>EventRepository.findRowsByIds</code>
+ * for instance, so that {@link SlowQueryRecorder} can tell which query method a slow statement came from.
+ *
+ * <p>
+ * An interceptor is added to every repository proxy before it is created. It only swaps a thread local,
+ * the names are built once per method.
+ * </p>
+ */
+@Component
+public class RepositoryCallSite implements BeanPostProcessor {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    /**
+     * @return the repository method running on the current thread, or <code>null</code> if there is none
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, information) -> proxyFactory.addAdvice(interceptor(information.getRepositoryInterface()))
+            ));
+        }
+        return bean;
+    }
+
+    private static MethodInterceptor interceptor(Class<?> repositoryInterface) {
+        // Per repository, the inherited methods such as findById are shared by all of them
+        Map<Method, String> names = new ConcurrentHashMap<>();
+
+        return invocation -> {
+            String name = names.computeIfAbsent(invocation.getMethod(),
+                    method -> repositoryInterface.getSimpleName() + "." + method.getName());
+
+            String previous = CURRENT.get();
+            CURRENT.set(name);
+            try {
+                return invocation.proceed();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.midel.monitoring;
+
+import lombok.Getter;
+
+/**
+ * Counts the SQL statements and lazy collection loads of the current thread between {@link #open} and
+ * {@link #close()}, usually the whole HTTP request including the JSON serialization of the response,
+ * and adds up the time spent in each {@link Phase}.
+ *
+ * <p>
+ * The counters are only kept while a scope is open, the Hibernate hooks are a thread local read otherwise.
+ * A scope opened with a budget and <code>failOnBudget</code> throws {@link QueryBudgetExceededException}
+ * from the statement or load crossing the budget, which is how tests catch N+1 regressions.
+ * </p>
+ *
+ * <pre>{@code
+ * try (RequestStatistics statistics = RequestStatistics.open(3, 0, true)) {
+ *     eventService.getAll(null, null);
+ * }
+ * }</pre>
+ */
+@Getter
+public final class RequestStatistics implements AutoCloseable {
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Budget value meaning no budget.
+     */
+    public static final int UNLIMITED = -1;
+
+    private final int statementBudget;
+    private final int lazyLoadBudget;
+    private final boolean failOnBudget;
+    private final RequestStatistics parent;
+
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private final long[] phaseStartedAt = new long[Phase.values().length];
+    private final boolean[] phaseRunning = new boolean[Phase.values().length];
+
+    private int statements;
+    private int lazyLoads;
+    private boolean budgetExceeded;
+
+    private RequestStatistics(int statementBudget, int lazyLoadBudget, boolean failOnBudget, RequestStatistics parent) {
+        this.statementBudget = statementBudget;
+        this.lazyLoadBudget = lazyLoadBudget;
+        this.failOnBudget = failOnBudget;
+        this.parent = parent;
+    }
+
+    /**
+     * Opens a scope on the current thread, scopes can be nested and every open scope counts.
+     *
+     * @param statementBudget the statements allowed in the scope, or {@link #UNLIMITED}
+     * @param lazyLoadBudget the lazy collection loads allowed in the scope, or {@link #UNLIMITED}
+     * @param failOnBudget whether crossing a budget throws instead of only being reported
+     * @return the scope, to be closed on the same thread
+     */
+    public static RequestStatistics open(int statementBudget, int lazyLoadBudget, boolean failOnBudget) {
+        RequestStatistics statistics = new RequestStatistics(statementBudget, lazyLoadBudget, failOnBudget, CURRENT.get());
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * @return the innermost open scope of the current thread, or <code>null</code> if there is none
+     */
+    public static RequestStatistics current() {
+        return CURRENT.get();
+    }
+
+    static void statementPrepared(String sql) {
+        for (RequestStatistics statistics = CURRENT.get(); statistics != null; statistics = statistics.parent) {
+            statistics.statements++;
+        }
+        // Checked once every scope has counted, so a failing inner scope does not skip the outer ones
+        for (RequestStatistics statistics = CURRENT.get(); statistics != null; statistics = statistics.parent) {
+            statistics.checkBudget(statistics.statements, statistics.statementBudget, "SQL statements", sql);
+        }
+    }
+
+    static void collectionLoaded(String role) {
+        for (RequestStatistics statistics = CURRENT.get(); statistics != null; statistics = statistics.parent) {
+            statistics.lazyLoads++;
+        }
+        for (RequestStatistics statistics = CURRENT.get(); statistics != null; statistics = statistics.parent) {
+            statistics.checkBudget(statistics.lazyLoads, statistics.lazyLoadBudget, "lazy collection loads", role);
+        }
+    }
+
+    /**
+     * Starts a phase in every open scope, to be ended by {@link #phaseEnded} with the returned time. Records nothing
+     * and allocates nothing if there is no open scope.
+     *
+     * <pre>{@code
+     * long startedAt = RequestStatistics.phaseStarted(Phase.MAPPING);
+     * try {
+     *     return Mapper.INSTANCE.userToUserResponse(users);
+     * } finally {
+     *     RequestStatistics.phaseEnded(Phase.MAPPING, startedAt);
+     * }
+     * }</pre>
+     *
+     * @param phase the phase
+     * @return the {@link System#nanoTime()} the phase started at
+     */
+    public static long phaseStarted(Phase phase) {
+        long now = System.nanoTime();
+        for (RequestStatistics statistics = CURRENT.get(); statistics != null; statistics = statistics.parent) {
+            statistics.phaseStartedAt[phase.ordinal()] = now;
+            statistics.phaseRunning[phase.ordinal()] = true;
+        }
+        return now;
+    }
+
+    /**
+     * Adds the time since <code>startedAt</code> to the phase of every open scope.
+     *
+     * @param phase the phase
+     * @param startedAt the value returned by {@link #phaseStarted}
+     */
+    public static void phaseEnded(Phase phase, long startedAt) {
+        RequestStatistics current = CURRENT.get();
+        if (current == null) {
+            return;
+        }
+
+        long nanos = System.nanoTime() - startedAt;
+        for (RequestStatistics statistics = current; statistics != null; statistics = statistics.parent) {
+            statistics.phaseNanos[phase.ordinal()] += nanos;
+            statistics.phaseRunning[phase.ordinal()] = false;
+        }
+    }
+
+    /**
+     * @param phase the phase
+     * @param now the current {@link System#nanoTime()}
+     * @return the nanoseconds spent in the phase until now, including the part of a phase still running
+     */
+    public long getPhaseNanos(Phase phase, long now) {
+        int i = phase.ordinal();
+        return phaseRunning[i] ? phaseNanos[i] + now - phaseStartedAt[i] : phaseNanos[i];
+    }
+
+    @Override
+    public void close() {
+        if (CURRENT.get() == this) {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+
+    private void checkBudget(int count, int budget, String kind, String culprit) {
+        if (budget == UNLIMITED || count <= budget) {
+            return;
+        }
+
+        budgetExceeded = true;
+        if (failOnBudget && count == budget + 1) {
+            throw new QueryBudgetExceededException(
+                    "Budget of " + budget + " " + kind + " exceeded by: " + culprit
+            );
+        }
+    }
+
+}
@@ -0,0 +1,284 @@
+package com.midel.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Opens a {@link RequestStatistics} scope around every sampled request, so the counts include the
+ * security filter and the serialization of the response, where lazy loads happen with open-in-view.
+ *
+ * <p>
+ * The counts are recorded as the <code>http.server.requests.statements</code> and
+ * <code>http.server.requests.lazy.loads</code> summaries, the latency and the phases of the request in
+ * {@link HandlerTimings}, and, when enabled, sent in the <code>Server-Timing</code> header with the time
+ * spent in each phase. The header is written just before the response is committed, so it only covers the
+ * work done before the first bytes were sent, which leaves out most of the serialization of large responses.
+ * </p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class RequestStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final MeterRegistry meterRegistry;
+    private final HandlerTimings handlerTimings;
+    private final boolean enabled;
+    private final double sampleRate;
+    private final boolean serverTiming;
+    private final int statementBudget;
+    private final int lazyLoadBudget;
+    private final boolean failOnBudget;
+
+    public RequestStatisticsFilter(
+            MeterRegistry meterRegistry,
+            HandlerTimings handlerTimings,
+            @Value("${monitoring.requests.enabled:true}") boolean enabled,
+            @Value("${monitoring.requests.sample-rate:1.0}") double sampleRate,
+            @Value("${monitoring.requests.server-timing:true}") boolean serverTiming,
+            @Value("${monitoring.requests.statement-budget:-1}") int statementBudget,
+            @Value("${monitoring.requests.lazy-load-budget:-1}") int lazyLoadBudget,
+            @Value("${monitoring.requests.fail-on-budget:false}") boolean failOnBudget
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.handlerTimings = handlerTimings;
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.serverTiming = serverTiming;
+        this.statementBudget = statementBudget;
+        this.lazyLoadBudget = lazyLoadBudget;
+        this.failOnBudget = failOnBudget;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        // Every request is checked in fail mode, otherwise only the sampled share
+        return !enabled || !failOnBudget && ThreadLocalRandom.current().nextDouble() >= sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        long startedAt = System.nanoTime();
+        ServerTimingResponse timingResponse = null;
+
+        try (RequestStatistics statistics = RequestStatistics.open(statementBudget, lazyLoadBudget, failOnBudget)) {
+            if (serverTiming) {
+                timingResponse = new ServerTimingResponse(response, statistics);
+                response = timingResponse;
+            }
+
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                if (timingResponse != null) {
+                    timingResponse.writeHeader();
+                }
+                record(request, statistics, startedAt);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestStatistics statistics, long startedAt) {
+        long now = System.nanoTime();
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handlerMethod) {
+            handlerTimings.record(handlerMethod, now - startedAt, statistics, now);
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+
+        DistributionSummary.builder("http.server.requests.statements")
+                .description("SQL statements prepared by Hibernate per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+        DistributionSummary.builder("http.server.requests.lazy.loads")
+                .description("Lazy collections initialized per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.getLazyLoads());
+
+        if (statistics.isBudgetExceeded()) {
+            Counter.builder("http.server.requests.budget.exceeded")
+                    .description("Requests over the statement or lazy load budget")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("{} {} used {} statements and {} lazy loads, over the budget of {} and {}",
+                    request.getMethod(), request.getRequestURI(), statistics.getStatements(), statistics.getLazyLoads(),
+                    statementBudget, lazyLoadBudget);
+        }
+    }
+
+    static String serverTiming(RequestStatistics statistics) {
+        StringBuilder header = new StringBuilder()
+                .append("sql;desc=\"statements=").append(statistics.getStatements()).append("\", ")
+                .append("lazy;desc=\"collections=").append(statistics.getLazyLoads()).append('"');
+
+        long now = System.nanoTime();
+        for (Phase phase : Phase.values()) {
+            long micros = statistics.getPhaseNanos(phase, now) / 1000;
+            if (micros > 0) {
+                header.append(", ").append(phase.getName()).append(";dur=").append(micros / 1000.0);
+            }
+        }
+
+        return header.toString();
+    }
+
+    /**
+     * Adds the <code>Server-Timing</code> header the first time the body is written or flushed, the last
+     * moment before the response is committed and headers are ignored.
+     */
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestStatistics statistics;
+        private boolean headerWritten;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        ServerTimingResponse(HttpServletResponse response, RequestStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        void writeHeader() {
+            if (!headerWritten) {
+                headerWritten = true;
+                if (!isCommitted()) {
+                    ((HttpServletResponse) getResponse()).addHeader(SERVER_TIMING_HEADER, serverTiming(statistics));
+                }
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        writeHeader();
+                        delegate.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        writeHeader();
+                        delegate.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        writeHeader();
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        writeHeader();
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                PrintWriter delegate = super.getWriter();
+                writer = new PrintWriter(delegate) {
+                    @Override
+                    public void write(int c) {
+                        writeHeader();
+                        super.write(c);
+                    }
+
+                    @Override
+                    public void write(char[] buf, int off, int len) {
+                        writeHeader();
+                        super.write(buf, off, len);
+                    }
+
+                    @Override
+                    public void write(String s, int off, int len) {
+                        writeHeader();
+                        super.write(s, off, len);
+                    }
+
+                    @Override
+                    public void flush() {
+                        writeHeader();
+                        super.flush();
+                    }
+                };
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.midel.monitoring;
+
+import com.midel.dto.SlowQueryDto;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * <code>/actuator/slowqueries</code>: the statements kept by {@link SlowQueryRecorder}, slowest first.
+ *
+ * <ul>
+ *     <li><code>GET /actuator/slowqueries/{id}</code> returns one of them,</li>
+ *     <li><code>POST /actuator/slowqueries/{id}</code> runs <code>EXPLAIN</code> on it with its bind parameters,
+ *     in a read-only transaction, and keeps the plan with the statement,</li>
+ *     <li><code>DELETE /actuator/slowqueries</code> empties the buffer.</li>
+ * </ul>
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private static final Pattern EXPLAINABLE = Pattern.compile("\\s*(select|with|insert|update|delete)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private final SlowQueryRecorder recorder;
+    private final DataSource dataSource;
+
+    public SlowQueriesEndpoint(SlowQueryRecorder recorder, DataSource dataSource) {
+        this.recorder = recorder;
+        this.dataSource = dataSource;
+    }
+
+    @ReadOperation
+    public List<SlowQueryDto> slowQueries() {
+        return recorder.getSlowQueries().stream()
+                .map(SlowQueryRecorder.SlowQuery::toDto)
+                .toList();
+    }
+
+    @ReadOperation
+    public SlowQueryDto slowQuery(@Selector long id) {
+        SlowQueryRecorder.SlowQuery query = recorder.getSlowQuery(id);
+        return query == null ? null : query.toDto();
+    }
+
+    @WriteOperation
+    public SlowQueryDto explain(@Selector long id) {
+        SlowQueryRecorder.SlowQuery query = recorder.getSlowQuery(id);
+        if (query == null) {
+            return null;
+        }
+        if (!EXPLAINABLE.matcher(query.getSql()).lookingAt()) {
+            throw new IllegalArgumentException("Only SELECT, WITH, INSERT, UPDATE and DELETE statements can be explained.");
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            // Without ANALYZE the statement is only planned, the read-only transaction makes sure of it
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.getSql())) {
+                Object[] binds = query.getBinds();
+                if (binds != null) {
+                    for (int i = 0; i < binds.length; i++) {
+                        // An untyped null is rejected by Postgres, the type given to setNull is replayed with it
+                        if (binds[i] instanceof SlowQueryRecorder.NullBind nullBind) {
+                            statement.setNull(i + 1, nullBind.sqlType());
+                        } else {
+                            statement.setObject(i + 1, binds[i]);
+                        }
+                    }
+                }
+
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append('\n');
+                    }
+                }
+                query.setPlan(plan.toString());
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("The statement could not be explained: " + e.getMessage(), e);
+        }
+
+        return query.toDto();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        recorder.clear();
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.midel.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Times every statement executed through the connections of the data source and hands them to the
+ * {@link SlowQueryRecorder}, JPA and <code>JdbcTemplate</code> alike.
+ *
+ * <p>
+ * The connections and statements are wrapped in dynamic proxies forwarding every call. A prepared statement keeps
+ * its bind parameters in an array reused across executions when they are captured, a statement under the
+ * threshold costs two clock reads and a comparison beyond the forwarding. Calls to <code>unwrap</code> reach the
+ * driver, so the <code>COPY</code> of the data generator is not timed.
+ * </p>
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private static final ClassLoader CLASS_LOADER = SlowQueryDataSource.class.getClassLoader();
+
+    private final SlowQueryRecorder recorder;
+
+    public SlowQueryDataSource(DataSource targetDataSource, SlowQueryRecorder recorder) {
+        super(targetDataSource);
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        ConnectionHandler handler = new ConnectionHandler(connection);
+        handler.proxy = (Connection) Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{Connection.class}, handler);
+        return handler.proxy;
+    }
+
+    private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private Connection proxy;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+            }
+
+            Object result = forward(target, method, args);
+
+            // createStatement, prepareStatement and prepareCall, the returned interface is the one to proxy
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{method.getReturnType()},
+                        new StatementHandler(statement, this.proxy, sql));
+            }
+
+            return result;
+        }
+
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final Connection connection;
+        private final String sql;
+
+        private Object[] binds;
+        private int bindCount;
+        private int batchSize;
+
+        private StatementHandler(Statement target, Connection connection, String sql) {
+            this.target = target;
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (name.startsWith("execute")) {
+                // Plain statements get their SQL with the execution
+                String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+                boolean batch = name.endsWith("Batch");
+
+                long startedAt = System.nanoTime();
+                try {
+                    return forward(target, method, args);
+                } finally {
+                    recorder.record(executed, binds, bindCount, batch ? batchSize : 0, System.nanoTime() - startedAt);
+                    if (batch) {
+                        batchSize = 0;
+                    }
+                }
+            }
+
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                if (recorder.isCaptureBinds()) {
+                    bind(index, "setNull".equals(name) ? new SlowQueryRecorder.NullBind((Integer) args[1]) : args[1]);
+                }
+            } else {
+                switch (name) {
+                    case "clearParameters" -> bindCount = 0;
+                    case "addBatch" -> batchSize++;
+                    case "clearBatch" -> batchSize = 0;
+                    case "getConnection" -> {
+                        return connection;
+                    }
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                }
+            }
+
+            return forward(target, method, args);
+        }
+
+        private void bind(int index, Object value) {
+            if (binds == null) {
+                binds = new Object[Math.max(index, 8)];
+            } else if (index > binds.length) {
+                binds = Arrays.copyOf(binds, Math.max(index, binds.length * 2));
+            }
+
+            binds[index - 1] = value;
+            bindCount = Math.max(bindCount, index);
+        }
+
+    }
+
+}
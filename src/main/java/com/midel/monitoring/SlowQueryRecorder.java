@@ -0,0 +1,212 @@
+package com.midel.monitoring;
+
+import com.midel.dto.SlowQueryDto;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the slowest statements run through {@link SlowQueryDataSource}, with their bind parameters and call site.
+ *
+ * <p>
+ * Statements faster than the threshold cost a comparison. Slower ones are logged and enter a buffer of fixed
+ * capacity, replacing its fastest entry once it is full, so the buffer holds the slowest statements since the
+ * last {@link #clear()}. The call site is the Spring Data method running the statement, see
+ * {@link RepositoryCallSite}, and the first frame of the application outside of the repositories.
+ * </p>
+ */
+@Component
+@Slf4j
+public class SlowQueryRecorder {
+
+    private static final String APPLICATION_PACKAGE = "com.midel.";
+    private static final String MONITORING_PACKAGE = "com.midel.monitoring.";
+    private static final String REPOSITORY_PACKAGE = "com.midel.repository.";
+    private static final int MAX_BIND_LENGTH = 200;
+
+    @Getter
+    private final boolean enabled;
+    @Getter
+    private final boolean captureBinds;
+    private final long thresholdNanos;
+    private final SlowQuery[] slowest;
+    private final AtomicLong ids = new AtomicLong();
+
+    private int size;
+
+    public SlowQueryRecorder(
+            @Value("${monitoring.slow-queries.enabled:true}") boolean enabled,
+            @Value("${monitoring.slow-queries.threshold-ms:200}") long thresholdMs,
+            @Value("${monitoring.slow-queries.capacity:50}") int capacity,
+            @Value("${monitoring.slow-queries.capture-binds:true}") boolean captureBinds
+    ) {
+        this.enabled = enabled;
+        this.captureBinds = captureBinds;
+        this.thresholdNanos = Duration.ofMillis(thresholdMs).toNanos();
+        this.slowest = new SlowQuery[capacity];
+    }
+
+    /**
+     * @param sql the statement
+     * @param binds the bind parameters by index minus one, or <code>null</code>
+     * @param bindCount the number of bind parameters
+     * @param batchSize the number of parameter sets of a batch, 0 for a single execution
+     * @param nanos the time the execution took
+     */
+    public void record(String sql, Object[] binds, int bindCount, int batchSize, long nanos) {
+        if (nanos < thresholdNanos) {
+            return;
+        }
+
+        SlowQuery query = new SlowQuery(
+                ids.incrementAndGet(),
+                Instant.now(),
+                nanos,
+                sql,
+                binds == null ? null : Arrays.copyOf(binds, bindCount),
+                batchSize,
+                RepositoryCallSite.current(),
+                caller()
+        );
+
+        log.warn("Slow statement of {} ms from {} ({}): {}", nanos / 1_000_000,
+                query.repositoryMethod == null ? "-" : query.repositoryMethod, query.caller, sql);
+
+        synchronized (slowest) {
+            if (size < slowest.length) {
+                slowest[size++] = query;
+                return;
+            }
+
+            int fastest = 0;
+            for (int i = 1; i < size; i++) {
+                if (slowest[i].nanos < slowest[fastest].nanos) {
+                    fastest = i;
+                }
+            }
+            if (slowest[fastest].nanos < nanos) {
+                slowest[fastest] = query;
+            }
+        }
+    }
+
+    /**
+     * @return the recorded statements, slowest first
+     */
+    public List<SlowQuery> getSlowQueries() {
+        List<SlowQuery> queries;
+        synchronized (slowest) {
+            queries = new ArrayList<>(Arrays.asList(slowest).subList(0, size));
+        }
+        queries.sort(Comparator.comparingLong(SlowQuery::getNanos).reversed());
+        return queries;
+    }
+
+    /**
+     * @param id the id of a recorded statement
+     * @return the statement, or <code>null</code> if it is not or no longer recorded
+     */
+    public SlowQuery getSlowQuery(long id) {
+        synchronized (slowest) {
+            for (int i = 0; i < size; i++) {
+                if (slowest[i].id == id) {
+                    return slowest[i];
+                }
+            }
+        }
+        return null;
+    }
+
+    public void clear() {
+        synchronized (slowest) {
+            Arrays.fill(slowest, null);
+            size = 0;
+        }
+    }
+
+    /**
+     * @return the first frame of the application outside of the repositories and of the monitoring
+     */
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !frame.getClassName().startsWith(MONITORING_PACKAGE)
+                        && !frame.getClassName().startsWith(REPOSITORY_PACKAGE))
+                .findFirst()
+                .map(frame -> simpleName(frame.getClassName()) + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("-"));
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Bind parameter set with <code>setNull</code>, with the SQL type needed to replay it.
+     *
+     * @param sqlType the type from {@link java.sql.Types}
+     */
+    public record NullBind(int sqlType) {
+
+        @Override
+        public String toString() {
+            return "null";
+        }
+
+    }
+
+    @Getter
+    public static final class SlowQuery {
+
+        private final long id;
+        private final Instant executedAt;
+        private final long nanos;
+        private final String sql;
+        private final Object[] binds;
+        private final int batchSize;
+        private final String repositoryMethod;
+        private final String caller;
+        private volatile String plan;
+
+        private SlowQuery(long id, Instant executedAt, long nanos, String sql, Object[] binds, int batchSize,
+                          String repositoryMethod, String caller) {
+            this.id = id;
+            this.executedAt = executedAt;
+            this.nanos = nanos;
+            this.sql = sql;
+            this.binds = binds;
+            this.batchSize = batchSize;
+            this.repositoryMethod = repositoryMethod;
+            this.caller = caller;
+        }
+
+        void setPlan(String plan) {
+            this.plan = plan;
+        }
+
+        public SlowQueryDto toDto() {
+            List<String> bindValues = null;
+            if (binds != null) {
+                bindValues = new ArrayList<>(binds.length);
+                for (Object bind : binds) {
+                    String value = bind instanceof Object[] array ? Arrays.toString(array) : String.valueOf(bind);
+                    bindValues.add(value.length() > MAX_BIND_LENGTH ? value.substring(0, MAX_BIND_LENGTH) + "..." : value);
+                }
+            }
+
+            return new SlowQueryDto(id, executedAt, nanos / 1_000_000.0, sql, bindValues, batchSize,
+                    repositoryMethod, caller, plan);
+        }
+
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.midel.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * The JSON converter of Spring MVC, replacing the default one, timing the writing of response bodies as the
+ * {@link Phase#SERIALIZATION} phase. Lazy loads triggered by the serialization also count in {@link Phase#DB}.
+ */
+@Component
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+
+        long startedAt = RequestStatistics.phaseStarted(Phase.SERIALIZATION);
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            RequestStatistics.phaseEnded(Phase.SERIALIZATION, startedAt);
+        }
+    }
+
+}
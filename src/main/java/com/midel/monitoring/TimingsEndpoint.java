@@ -0,0 +1,33 @@
+package com.midel.monitoring;
+
+import com.midel.dto.HandlerTimingsDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * <code>/actuator/timings</code>: latency percentiles of every controller method with the time spent in
+ * each {@link Phase}, and <code>/actuator/timings/{handler}</code> for one of them.
+ */
+@Component
+@Endpoint(id = "timings")
+@RequiredArgsConstructor
+public class TimingsEndpoint {
+
+    private final HandlerTimings handlerTimings;
+
+    @ReadOperation
+    public Map<String, HandlerTimingsDto> timings() {
+        return handlerTimings.snapshot();
+    }
+
+    @ReadOperation
+    public HandlerTimingsDto timings(@Selector String handler) {
+        return handlerTimings.snapshot().get(handler);
+    }
+
+}
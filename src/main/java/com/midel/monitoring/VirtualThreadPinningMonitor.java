@@ -0,0 +1,127 @@
+package com.midel.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports virtual threads pinned to their carrier thread, which happens when a virtual thread blocks inside
+ * a <code>synchronized</code> block or a native frame: the carrier cannot run other virtual threads meanwhile,
+ * and a few pinned threads can stall every request.
+ *
+ * <p>
+ * The <code>jdk.VirtualThreadPinned</code> events longer than the threshold are streamed from an in-process JFR
+ * recording and recorded in the <code>jvm.threads.virtual.pinned</code> timer, tagged with the first frame
+ * outside the JDK. Every new pinning site is logged once with its stack trace, later pinnings only count.
+ * At most {@link #MAX_SITES} sites are tagged, the rest are counted as <code>other</code>.
+ * </p>
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "monitoring.virtual-threads.pinning.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    static final int MAX_SITES = 50;
+
+    private static final int LOGGED_FRAMES = 15;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Map<String, Timer> sites = new ConcurrentHashMap<>();
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${monitoring.virtual-threads.pinning.threshold-ms:20}") long thresholdMs
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    void onPinned(RecordedEvent event) {
+        String site = site(event.getStackTrace());
+
+        Timer timer = sites.get(site);
+        if (timer == null) {
+            if (sites.size() >= MAX_SITES) {
+                site = "other";
+            } else {
+                log.warn("Virtual thread pinned for {} ms at {}:{}", event.getDuration().toMillis(), site, stackTrace(event));
+            }
+            timer = sites.computeIfAbsent(site, tag -> Timer.builder("jvm.threads.virtual.pinned")
+                    .description("Time virtual threads spent pinned to their carrier thread")
+                    .tag("site", tag)
+                    .register(meterRegistry));
+        }
+
+        timer.record(event.getDuration());
+    }
+
+    /**
+     * @return the first frame outside the JDK, which is where the application or a library pins the thread
+     */
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String className = frame.getMethod().getType().getName();
+            if (!className.startsWith("java.") && !className.startsWith("jdk.") && !className.startsWith("sun.")) {
+                return className + "." + frame.getMethod().getName();
+            }
+        }
+        return "jdk";
+    }
+
+    private static String stackTrace(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "";
+        }
+
+        StringBuilder builder = new StringBuilder();
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        for (RecordedFrame frame : frames.subList(0, Math.min(LOGGED_FRAMES, frames.size()))) {
+            builder.append(System.lineSeparator())
+                    .append("\tat ")
+                    .append(frame.getMethod().getType().getName())
+                    .append('.')
+                    .append(frame.getMethod().getName())
+                    .append(':')
+                    .append(frame.getLineNumber());
+        }
+        return builder.toString();
+    }
+
+}
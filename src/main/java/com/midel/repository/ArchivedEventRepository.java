@@ -0,0 +1,71 @@
+package com.midel.repository;
+
+import com.midel.entity.ArchivedEvent;
+import com.midel.entity.enums.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface ArchivedEventRepository extends JpaRepository<ArchivedEvent, UUID> {
+
+    /**
+     * Moves a batch of events that ended, were rejected or removed before the given time, with their allowed users,
+     * from the live tables to the archive, events without update time were closed before it was recorded.
+     * Their audience and moderation claims are dropped, and the owner gets a tombstone so that the delta sync
+     * of the owned events drops them. Events locked by a concurrent change are skipped and left for the next batch.
+     *
+     * <p>
+     * The foreign key of <code>events_allowed_users</code> is checked at the end of the statement, after both
+     * the event and its allowed users are deleted.
+     * </p>
+     *
+     * @return the archived event ids
+     */
+    @Query(value = "WITH batch AS (" +
+            "    SELECT e.id FROM events e " +
+            "    WHERE e.status IN ('ENDED', 'REJECTED', 'REMOVED') " +
+            "    AND (e.updated_at < :before OR e.updated_at IS NULL) " +
+            "    ORDER BY e.updated_at NULLS FIRST " +
+            "    LIMIT :limit " +
+            "    FOR UPDATE SKIP LOCKED" +
+            "), allowed_users AS (" +
+            "    DELETE FROM events_allowed_users u USING batch WHERE u.event_id = batch.id " +
+            "    RETURNING u.event_id, u.allowed_users_id" +
+            "), archived_allowed_users AS (" +
+            "    INSERT INTO events_archive_allowed_users (event_id, user_id) " +
+            "    SELECT event_id, allowed_users_id FROM allowed_users" +
+            "), audience AS (" +
+            "    DELETE FROM event_audience a USING batch WHERE a.event_id = batch.id" +
+            "), claims AS (" +
+            "    DELETE FROM moderation_claims c USING batch WHERE c.event_id = batch.id" +
+            "), moved AS (" +
+            "    DELETE FROM events e USING batch WHERE e.id = batch.id " +
+            "    RETURNING e.*" +
+            "), tombstones AS (" +
+            "    INSERT INTO event_tombstones (event_id, user_id, deleted_at) " +
+            "    SELECT m.id, m.owner_id, :now FROM moved m" +
+            ") " +
+            "INSERT INTO events_archive (id, title, description, visibility, status, created_at, expiration_at, " +
+            "    updated_at, archived_at, owner_id, owner_username, allowed_chat_id) " +
+            "SELECT m.id, m.title, m.description, m.visibility, m.status, m.created_at, m.expiration_at, " +
+            "    m.updated_at, :now, m.owner_id, o.username, m.allowed_chat_id " +
+            "FROM moved m LEFT JOIN users o ON o.id = m.owner_id " +
+            "RETURNING id", nativeQuery = true)
+    List<UUID> archiveBatch(LocalDateTime before, LocalDateTime now, int limit);
+
+    @Query("SELECT a FROM ArchivedEvent a " +
+            "WHERE (a.createdAt, a.id) > (:createdAt, :id) " +
+            "ORDER BY a.createdAt, a.id")
+    List<ArchivedEvent> findArchivePage(LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    @Query("SELECT a FROM ArchivedEvent a " +
+            "WHERE a.status = :status " +
+            "AND (a.createdAt, a.id) > (:createdAt, :id) " +
+            "ORDER BY a.createdAt, a.id")
+    List<ArchivedEvent> findArchivePageByStatus(Status status, LocalDateTime createdAt, UUID id, Pageable pageable);
+
+}
@@ -1,11 +1,28 @@
 package com.midel.repository;
 
+import com.midel.dto.chat.ChatSummaryResponseDto;
 import com.midel.entity.Chat;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ChatRepository extends JpaRepository<Chat, UUID> {
+
+    String SELECT_SUMMARIES = "SELECT new com.midel.dto.chat.ChatSummaryResponseDto(" +
+            "c.id, c.title, o.id, o.username, COUNT(m)) " +
+            "FROM Chat c LEFT JOIN c.owner o LEFT JOIN c.members m ";
+
+    @Query(SELECT_SUMMARIES +
+            "GROUP BY c.id, c.title, o.id, o.username")
+    List<ChatSummaryResponseDto> findAllSummaries();
+
+    @Query(SELECT_SUMMARIES +
+            "WHERE o.id = :ownerId " +
+            "GROUP BY c.id, c.title, o.id, o.username")
+    List<ChatSummaryResponseDto> findSummariesByOwnerId(Long ownerId);
+
 }
@@ -0,0 +1,179 @@
+package com.midel.repository;
+
+import com.midel.dto.user.UserResponseDto;
+import com.midel.entity.EventAudience;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface EventAudienceRepository extends JpaRepository<EventAudience, EventAudience.Key> {
+
+    /**
+     * Audience of all non-public events computed from scratch: the owner and the owner's friends
+     * for FRIENDS_ONLY, the owner and the allowed users for SELECTED_INDIVIDUALS and the chat members
+     * for SPECIFIC_CHAT.
+     */
+    String AUDIENCE = "SELECT e.owner_id AS user_id, e.id AS event_id FROM events e " +
+            "WHERE e.visibility IN ('FRIENDS_ONLY', 'SELECTED_INDIVIDUALS') " +
+            "UNION " +
+            "SELECT uf.friend_id, e.id FROM events e " +
+            "JOIN user_friends uf ON uf.user_id = e.owner_id " +
+            "WHERE e.visibility = 'FRIENDS_ONLY' " +
+            "UNION " +
+            "SELECT au.allowed_users_id, e.id FROM events e " +
+            "JOIN events_allowed_users au ON au.event_id = e.id " +
+            "WHERE e.visibility = 'SELECTED_INDIVIDUALS' " +
+            "UNION " +
+            "SELECT cm.members_id, e.id FROM events e " +
+            "JOIN chats_members cm ON cm.chat_id = e.allowed_chat_id " +
+            "WHERE e.visibility = 'SPECIFIC_CHAT'";
+
+    @Query("SELECT a.eventId AS eventId, COUNT(a) AS count FROM EventAudience a " +
+            "WHERE a.eventId IN :eventIds " +
+            "GROUP BY a.eventId")
+    List<AudienceCount> countByEventIds(Collection<UUID> eventIds);
+
+    @Query("SELECT a.eventId AS eventId, a.userId AS userId FROM EventAudience a WHERE a.eventId IN :eventIds")
+    List<AudienceMember> findMembersByEventIds(Collection<UUID> eventIds);
+
+    /**
+     * Finds the audience of the event ordered by user id, starting after the given user id.
+     */
+    @Query("SELECT new com.midel.dto.user.UserResponseDto(u.id, u.username) " +
+            "FROM EventAudience a JOIN User u ON u.id = a.userId " +
+            "WHERE a.eventId = :eventId AND a.userId > :userId " +
+            "ORDER BY a.userId")
+    List<UserResponseDto> findAudiencePage(UUID eventId, Long userId, Pageable pageable);
+
+    boolean existsByEventIdAndUserId(UUID eventId, Long userId);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM event_audience)", nativeQuery = true)
+    boolean isPopulated();
+
+    /**
+     * Brings the audience of one event in line with its visibility, allowed users and allowed chat, writing only the
+     * rows that changed. Users removed from the audience of a non-public event get a tombstone.
+     *
+     * @return the number of users added to the audience
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "WITH audience AS (" +
+            "    SELECT e.owner_id AS user_id FROM events e " +
+            "    WHERE e.id = :eventId AND e.visibility IN ('FRIENDS_ONLY', 'SELECTED_INDIVIDUALS') " +
+            "    UNION " +
+            "    SELECT uf.friend_id FROM events e " +
+            "    JOIN user_friends uf ON uf.user_id = e.owner_id " +
+            "    WHERE e.id = :eventId AND e.visibility = 'FRIENDS_ONLY' " +
+            "    UNION " +
+            "    SELECT au.allowed_users_id FROM events e " +
+            "    JOIN events_allowed_users au ON au.event_id = e.id " +
+            "    WHERE e.id = :eventId AND e.visibility = 'SELECTED_INDIVIDUALS' " +
+            "    UNION " +
+            "    SELECT cm.members_id FROM events e " +
+            "    JOIN chats_members cm ON cm.chat_id = e.allowed_chat_id " +
+            "    WHERE e.id = :eventId AND e.visibility = 'SPECIFIC_CHAT'" +
+            "), removed AS (" +
+            "    DELETE FROM event_audience a " +
+            "    WHERE a.event_id = :eventId AND NOT EXISTS (SELECT 1 FROM audience WHERE audience.user_id = a.user_id) " +
+            "    RETURNING a.user_id" +
+            "), tombstones AS (" +
+            "    INSERT INTO event_tombstones (event_id, user_id, deleted_at) " +
+            "    SELECT :eventId, removed.user_id, :now FROM removed " +
+            "    WHERE EXISTS (SELECT 1 FROM events e WHERE e.id = :eventId AND e.visibility <> 'PUBLIC')" +
+            ") " +
+            "INSERT INTO event_audience (user_id, event_id) " +
+            "SELECT audience.user_id, :eventId FROM audience " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int syncAudienceOfEvent(UUID eventId, LocalDateTime now);
+
+    @Modifying
+    @Query(value = "INSERT INTO event_audience (user_id, event_id) VALUES (:userId, :eventId) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    void insertMember(UUID eventId, Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO event_audience (user_id, event_id) " +
+            "SELECT u.id, :eventId FROM users u WHERE u.id IN (:userIds) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    void insertMembers(UUID eventId, Collection<Long> userIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO event_audience (user_id, event_id) " +
+            "SELECT :friendId, e.id FROM events e " +
+            "WHERE e.owner_id = :ownerId AND e.visibility = 'FRIENDS_ONLY' " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    void insertFriendOfOwner(Long ownerId, Long friendId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO event_audience (user_id, event_id) " +
+            "SELECT :userId, e.id FROM events e " +
+            "WHERE e.allowed_chat_id = :chatId AND e.visibility = 'SPECIFIC_CHAT' " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    void insertMemberOfChat(UUID chatId, Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM event_audience", nativeQuery = true)
+    void deleteAllRows();
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO event_audience (user_id, event_id) " + AUDIENCE, nativeQuery = true)
+    int insertAll();
+
+    /**
+     * Indexes the events of the owners with an id from the given one, whose events nobody else can be in the audience
+     * of through existing friendships or chats, as after generating data. Owners who signed up meanwhile are already
+     * indexed and skipped.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO event_audience (user_id, event_id) " +
+            "SELECT e.owner_id, e.id FROM events e " +
+            "WHERE e.owner_id >= :firstOwnerId AND e.visibility IN ('FRIENDS_ONLY', 'SELECTED_INDIVIDUALS') " +
+            "UNION " +
+            "SELECT uf.friend_id, e.id FROM events e " +
+            "JOIN user_friends uf ON uf.user_id = e.owner_id " +
+            "WHERE e.owner_id >= :firstOwnerId AND e.visibility = 'FRIENDS_ONLY' " +
+            "UNION " +
+            "SELECT au.allowed_users_id, e.id FROM events e " +
+            "JOIN events_allowed_users au ON au.event_id = e.id " +
+            "WHERE e.owner_id >= :firstOwnerId AND e.visibility = 'SELECTED_INDIVIDUALS' " +
+            "UNION " +
+            "SELECT cm.members_id, e.id FROM events e " +
+            "JOIN chats_members cm ON cm.chat_id = e.allowed_chat_id " +
+            "WHERE e.owner_id >= :firstOwnerId AND e.visibility = 'SPECIFIC_CHAT' " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertOfOwnersFrom(Long firstOwnerId);
+
+    @Query(value = "SELECT COUNT(*) FROM event_audience", nativeQuery = true)
+    long countRows();
+
+    @Query(value = "SELECT COUNT(*) FROM (" + AUDIENCE +
+            " EXCEPT SELECT user_id, event_id FROM event_audience) missing", nativeQuery = true)
+    long countMissingRows();
+
+    @Query(value = "SELECT COUNT(*) FROM (SELECT user_id, event_id FROM event_audience EXCEPT (" +
+            AUDIENCE + ")) stale", nativeQuery = true)
+    long countStaleRows();
+
+    interface AudienceCount {
+
+        UUID getEventId();
+
+        long getCount();
+
+    }
+
+    interface AudienceMember {
+
+        UUID getEventId();
+
+        Long getUserId();
+
+    }
+
+}
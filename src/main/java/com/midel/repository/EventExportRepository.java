@@ -0,0 +1,82 @@
+package com.midel.repository;
+
+import com.midel.dto.event.EventExportRowDto;
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Status;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads events for the moderator export through a forward-only JDBC cursor, so that only
+ * one fetch of rows is held in memory at a time whatever the size of the table.
+ *
+ * <p>
+ * PostgreSQL only honours the fetch size when auto-commit is off, so the callers must run inside a transaction.
+ * </p>
+ */
+@Repository
+public class EventExportRepository {
+
+    private static final String SELECT_EVENTS = "SELECT e.id, e.title, e.description, e.visibility, e.status, " +
+            "e.created_at, e.expiration_at, e.owner_id, u.username AS owner_username, e.allowed_chat_id " +
+            "FROM events e " +
+            "LEFT JOIN users u ON u.id = e.owner_id ";
+
+    private static final String ORDER_BY = "ORDER BY e.created_at, e.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EventExportRepository(
+            DataSource dataSource,
+            @Value("${export.events.fetch-size:500}") int fetchSize
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Passes every event, optionally filtered by status, to the consumer in <code>(created_at, id)</code> order.
+     *
+     * @param status the status filter, may be <code>null</code>
+     * @param consumer the consumer of the rows
+     */
+    public void forEachEvent(Status status, Consumer<EventExportRowDto> consumer) {
+        RowCallbackHandler handler = resultSet -> consumer.accept(mapRow(resultSet));
+
+        if (status == null) {
+            jdbcTemplate.query(SELECT_EVENTS + ORDER_BY, handler);
+        } else {
+            jdbcTemplate.query(SELECT_EVENTS + "WHERE e.status = ? " + ORDER_BY, handler, status.name());
+        }
+    }
+
+    private static EventExportRowDto mapRow(ResultSet resultSet) throws SQLException {
+        return new EventExportRowDto(
+                resultSet.getObject("id", UUID.class),
+                resultSet.getString("title"),
+                resultSet.getString("description"),
+                EventVisibility.valueOf(resultSet.getString("visibility")),
+                Status.valueOf(resultSet.getString("status")),
+                toLocalDateTime(resultSet.getTimestamp("created_at")),
+                toLocalDateTime(resultSet.getTimestamp("expiration_at")),
+                resultSet.getObject("owner_id", Long.class),
+                resultSet.getString("owner_username"),
+                resultSet.getObject("allowed_chat_id", UUID.class)
+        );
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.midel.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes the allowed users of an event directly, without loading the {@link com.midel.entity.Event#getSharedUsers()}
+ * collection to check for duplicates.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EventInvitationRepository {
+
+    private static final String INSERT_ALLOWED_USER = "INSERT INTO events_allowed_users (event_id, allowed_users_id) " +
+            "VALUES (?, ?) ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the allowed users with one JDBC batch, skipping the users that are already allowed.
+     *
+     * @param eventId the event id
+     * @param userIds the ids of existing users
+     * @return for every user id, in order, 1 if it was inserted and 0 if it was already allowed
+     */
+    public int[] insertAllowedUsers(UUID eventId, List<Long> userIds) {
+        return jdbcTemplate.batchUpdate(INSERT_ALLOWED_USER, userIds.stream()
+                .map(userId -> new Object[]{eventId, userId})
+                .toList());
+    }
+
+}
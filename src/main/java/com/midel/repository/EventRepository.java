@@ -1,31 +1,175 @@
 package com.midel.repository;
 
+import com.midel.dto.event.EventRowDto;
 import com.midel.entity.Event;
+import com.midel.entity.enums.EventVisibility;
 import com.midel.entity.enums.Status;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface EventRepository extends JpaRepository<Event, UUID> {
 
-    @Query("SELECT DISTINCT e FROM Event e " +
-            "LEFT JOIN FETCH e.owner u " +
-            "LEFT JOIN FETCH e.allowedUsers au " +
-            "LEFT JOIN FETCH e.allowedChat c " +
-            "LEFT JOIN u.friends uf " +
-            "LEFT JOIN c.members cm " +
+    String SELECT_ROWS = "SELECT new com.midel.dto.event.EventRowDto(" +
+            "e.id, e.title, e.description, e.visibility, e.status, e.createdAt, e.expirationAt, " +
+            "o.id, o.username, c.id, c.title, co.id, co.username) " +
+            "FROM Event e " +
+            "LEFT JOIN e.owner o " +
+            "LEFT JOIN e.allowedChat c " +
+            "LEFT JOIN c.owner co ";
+
+    /**
+     * Finds a page of the opened events visible to the user: public events and events whose precomputed
+     * audience contains the user. The owner of a SPECIFIC_CHAT event does not see it among the shared events.
+     */
+    @Query(SELECT_ROWS +
             "WHERE e.status = 'OPENED' " +
             "AND (" +
             "    e.visibility = 'PUBLIC' " +
-            "    OR (e.visibility = 'FRIENDS_ONLY' AND uf.id = :userId) " +
-            "    OR (e.visibility = 'SELECTED_INDIVIDUALS' AND au.id = :userId AND e.owner.id != :userId) " +
-            "    OR (e.visibility = 'SPECIFIC_CHAT' AND cm.id = :userId AND e.owner.id != :userId) " +
-            "    OR (e.visibility IN ('SELECTED_INDIVIDUALS', 'FRIENDS_ONLY') AND u.id = :userId)" +
-            ")")
-    List<Event> findAccessibleEvents(Long userId);
-
-    List<Event> queryEventsByStatus(Status status);
+            "    OR (e.id IN (SELECT a.eventId FROM EventAudience a WHERE a.userId = :userId) " +
+            "        AND NOT (e.visibility = 'SPECIFIC_CHAT' AND o.id = :userId))" +
+            ") " +
+            "AND (e.createdAt, e.id) > (:createdAt, :id) " +
+            "ORDER BY e.createdAt, e.id")
+    List<EventRowDto> findSharedEventsPage(Long userId, LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    /**
+     * Finds a page of the opened events visible to the user that changed within the window, or that the user
+     * gained access to within the window, ordered by id.
+     */
+    @Query(SELECT_ROWS +
+            "WHERE e.status = 'OPENED' " +
+            "AND (" +
+            "    e.visibility = 'PUBLIC' " +
+            "    OR (e.id IN (SELECT a.eventId FROM EventAudience a WHERE a.userId = :userId) " +
+            "        AND NOT (e.visibility = 'SPECIFIC_CHAT' AND o.id = :userId))" +
+            ") " +
+            "AND (" +
+            "    (e.updatedAt > :from AND e.updatedAt <= :to) " +
+            "    OR e.id IN (SELECT a.eventId FROM EventAudience a " +
+            "        WHERE a.userId = :userId AND a.addedAt > :from AND a.addedAt <= :to)" +
+            ") " +
+            "AND e.id > :afterId " +
+            "ORDER BY e.id")
+    List<EventRowDto> findSharedChanges(Long userId, LocalDateTime from, LocalDateTime to, UUID afterId, Pageable pageable);
+
+    /**
+     * Finds the events visible to the user that left the opened status within the window.
+     */
+    @Query("SELECT e.id FROM Event e " +
+            "WHERE e.updatedAt > :from AND e.updatedAt <= :to AND e.status <> 'OPENED' " +
+            "AND (e.visibility = 'PUBLIC' " +
+            "    OR e.id IN (SELECT a.eventId FROM EventAudience a WHERE a.userId = :userId))")
+    List<UUID> findClosedSharedEventIds(Long userId, LocalDateTime from, LocalDateTime to);
+
+    @Query(SELECT_ROWS +
+            "WHERE o.id = :ownerId " +
+            "AND e.updatedAt > :from AND e.updatedAt <= :to " +
+            "AND e.id > :afterId " +
+            "ORDER BY e.id")
+    List<EventRowDto> findOwnedChanges(Long ownerId, LocalDateTime from, LocalDateTime to, UUID afterId, Pageable pageable);
+
+    @Query(SELECT_ROWS +
+            "WHERE o.id = :ownerId " +
+            "AND (e.createdAt, e.id) > (:createdAt, :id) " +
+            "ORDER BY e.createdAt, e.id")
+    List<EventRowDto> findOwnedEventsPage(Long ownerId, LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    @Query(SELECT_ROWS +
+            "WHERE (e.createdAt, e.id) > (:createdAt, :id) " +
+            "ORDER BY e.createdAt, e.id")
+    List<EventRowDto> findEventsPage(LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    @Query(SELECT_ROWS +
+            "WHERE e.id IN :ids")
+    List<EventRowDto> findRowsByIds(Collection<UUID> ids);
+
+    @Query(SELECT_ROWS +
+            "WHERE e.status = :status " +
+            "AND (e.createdAt, e.id) > (:createdAt, :id) " +
+            "ORDER BY e.createdAt, e.id")
+    List<EventRowDto> findEventsPageByStatus(Status status, LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    /**
+     * Finds the opened events that expire before the given time, including the already overdue ones.
+     */
+    @Query("SELECT e.id AS id, e.expirationAt AS expirationAt FROM Event e " +
+            "WHERE e.status = 'OPENED' AND e.expirationAt <= :until")
+    List<Expiration> findExpirationsUntil(LocalDateTime until);
+
+    /**
+     * Ends the given events if they are still opened and their current expiration has passed,
+     * so that entries made stale by a later update of the expiration are ignored.
+     *
+     * @return the ended events with the expirations they were ended for
+     */
+    @Query(value = "UPDATE events SET status = 'ENDED', updated_at = :now " +
+            "WHERE id IN (:ids) AND status = 'OPENED' AND expiration_at <= :now " +
+            "RETURNING id AS id, expiration_at AS expirationAt", nativeQuery = true)
+    List<Expiration> endExpiredEvents(Collection<UUID> ids, LocalDateTime now);
+
+    /**
+     * Sets the status of the given events that do not have it yet, skipping the events another moderator
+     * holds an active claim on.
+     *
+     * @return the changed events with their expirations
+     */
+    @Query(value = "UPDATE events SET status = :status, updated_at = :now " +
+            "WHERE id IN (:ids) AND status <> :status " +
+            "AND NOT EXISTS (SELECT 1 FROM moderation_claims c " +
+            "WHERE c.event_id = events.id AND c.moderator_id <> :moderatorId AND c.expires_at > :now) " +
+            "RETURNING id AS id, expiration_at AS expirationAt", nativeQuery = true)
+    List<Expiration> updateStatusByIds(Collection<UUID> ids, String status, Long moderatorId, LocalDateTime now);
+
+    /**
+     * Sets the status of at most <code>max</code> events matching the owner and current status filters,
+     * a <code>null</code> filter matches any value. Rows locked by a concurrent change are skipped and
+     * left for the next call, events another moderator holds an active claim on are skipped altogether.
+     *
+     * @return the changed events with their expirations
+     */
+    @Query(value = "UPDATE events SET status = :status, updated_at = :now " +
+            "WHERE id IN (SELECT e.id FROM events e " +
+            "WHERE (CAST(:ownerId AS BIGINT) IS NULL OR e.owner_id = :ownerId) " +
+            "AND (CAST(:currentStatus AS VARCHAR) IS NULL OR e.status = CAST(:currentStatus AS VARCHAR)) " +
+            "AND e.status <> :status " +
+            "AND NOT EXISTS (SELECT 1 FROM moderation_claims c " +
+            "WHERE c.event_id = e.id AND c.moderator_id <> :moderatorId AND c.expires_at > :now) " +
+            "LIMIT :max FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id AS id, expiration_at AS expirationAt", nativeQuery = true)
+    List<Expiration> updateStatusByFilter(Long ownerId, String currentStatus, String status, Long moderatorId,
+                                          LocalDateTime now, int max);
+
+    @Query("SELECT e.id FROM Event e WHERE e.id IN :ids")
+    List<UUID> findExistingIds(Collection<UUID> ids);
+
+    @Query("SELECT e.id AS id, e.owner.id AS ownerId, e.visibility AS visibility, e.status AS status " +
+            "FROM Event e WHERE e.id IN :ids")
+    List<ChangeTarget> findChangeTargets(Collection<UUID> ids);
+
+    interface Expiration {
+
+        UUID getId();
+
+        LocalDateTime getExpirationAt();
+
+    }
+
+    interface ChangeTarget {
+
+        UUID getId();
+
+        Long getOwnerId();
+
+        EventVisibility getVisibility();
+
+        Status getStatus();
+
+    }
 
 }
@@ -0,0 +1,45 @@
+package com.midel.repository;
+
+import com.midel.entity.EventTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface EventTombstoneRepository extends JpaRepository<EventTombstone, Long> {
+
+    /**
+     * Finds the events the user lost access to within the window and still cannot see.
+     */
+    @Query("SELECT DISTINCT t.eventId FROM EventTombstone t " +
+            "WHERE (t.userId = :userId OR t.userId IS NULL) " +
+            "AND t.deletedAt > :from AND t.deletedAt <= :to " +
+            "AND NOT EXISTS (SELECT 1 FROM EventAudience a WHERE a.eventId = t.eventId AND a.userId = :userId) " +
+            "AND NOT EXISTS (SELECT 1 FROM Event e WHERE e.id = t.eventId " +
+            "    AND e.visibility = 'PUBLIC' AND e.status = 'OPENED')")
+    List<UUID> findLostEventIds(Long userId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Finds the events of the user archived within the window, the tombstones of events still in the live table are
+     * for a lost audience membership instead.
+     */
+    @Query("SELECT DISTINCT t.eventId FROM EventTombstone t " +
+            "WHERE t.userId = :userId " +
+            "AND t.deletedAt > :from AND t.deletedAt <= :to " +
+            "AND NOT EXISTS (SELECT 1 FROM Event e WHERE e.id = t.eventId)")
+    List<UUID> findArchivedEventIds(Long userId, LocalDateTime from, LocalDateTime to);
+
+    @Modifying
+    @Query(value = "INSERT INTO event_tombstones (event_id, user_id, deleted_at) VALUES (:eventId, NULL, :deletedAt)",
+            nativeQuery = true)
+    void insertForAllUsers(UUID eventId, LocalDateTime deletedAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM event_tombstones WHERE id IN (" +
+            "SELECT id FROM event_tombstones WHERE deleted_at < :before LIMIT :limit)", nativeQuery = true)
+    int deleteBatchBefore(LocalDateTime before, int limit);
+
+}
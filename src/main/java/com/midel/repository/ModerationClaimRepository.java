@@ -0,0 +1,69 @@
+package com.midel.repository;
+
+import com.midel.entity.ModerationClaim;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ModerationClaimRepository extends JpaRepository<ModerationClaim, UUID> {
+
+    /**
+     * Claims the oldest unverified events without an active claim. Events locked by a concurrent claim are skipped
+     * instead of waited for, and the conflict check keeps a claim committed meanwhile by another moderator.
+     *
+     * @return the claimed event ids
+     */
+    @Query(value = "WITH candidates AS (" +
+            "    SELECT e.id FROM events e " +
+            "    WHERE e.status = 'UNVERIFIED' " +
+            "    AND NOT EXISTS (SELECT 1 FROM moderation_claims c WHERE c.event_id = e.id AND c.expires_at > :now) " +
+            "    ORDER BY e.created_at, e.id " +
+            "    LIMIT :limit " +
+            "    FOR UPDATE SKIP LOCKED" +
+            ") " +
+            "INSERT INTO moderation_claims (event_id, moderator_id, claimed_at, expires_at) " +
+            "SELECT candidates.id, :moderatorId, :now, :expiresAt FROM candidates " +
+            "ON CONFLICT (event_id) DO UPDATE SET " +
+            "    moderator_id = EXCLUDED.moderator_id, claimed_at = EXCLUDED.claimed_at, expires_at = EXCLUDED.expires_at " +
+            "    WHERE moderation_claims.expires_at <= :now " +
+            "RETURNING event_id", nativeQuery = true)
+    List<UUID> claimNext(Long moderatorId, LocalDateTime now, LocalDateTime expiresAt, int limit);
+
+    @Query("SELECT c.eventId FROM ModerationClaim c " +
+            "WHERE c.eventId IN :eventIds AND c.moderatorId <> :moderatorId AND c.expiresAt > :now")
+    List<UUID> findClaimedByOther(Collection<UUID> eventIds, Long moderatorId, LocalDateTime now);
+
+    /**
+     * Finds the events matching the owner and current status filters of a bulk status change that another
+     * moderator holds an active claim on, a <code>null</code> filter matches any value.
+     *
+     * @return the claimed event ids
+     */
+    @Query(value = "SELECT c.event_id FROM moderation_claims c JOIN events e ON e.id = c.event_id " +
+            "WHERE (CAST(:ownerId AS BIGINT) IS NULL OR e.owner_id = :ownerId) " +
+            "AND (CAST(:currentStatus AS VARCHAR) IS NULL OR e.status = CAST(:currentStatus AS VARCHAR)) " +
+            "AND e.status <> :status " +
+            "AND c.moderator_id <> :moderatorId AND c.expires_at > :now " +
+            "LIMIT :max", nativeQuery = true)
+    List<UUID> findClaimedByOther(Long ownerId, String currentStatus, String status, Long moderatorId,
+                                  LocalDateTime now, int max);
+
+    /**
+     * Deletes the claims on the given events held by the moderator or already expired, the active claims
+     * of other moderators are kept.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM moderation_claims WHERE event_id IN (:eventIds) " +
+            "AND (moderator_id = :moderatorId OR expires_at <= :now)", nativeQuery = true)
+    int deleteCompleted(Collection<UUID> eventIds, Long moderatorId, LocalDateTime now);
+
+    @Modifying
+    @Query(value = "DELETE FROM moderation_claims WHERE moderator_id = :moderatorId", nativeQuery = true)
+    int deleteByModeratorId(Long moderatorId);
+
+}
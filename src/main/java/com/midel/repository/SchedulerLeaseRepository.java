@@ -0,0 +1,27 @@
+package com.midel.repository;
+
+import com.midel.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    /**
+     * Takes the lease if it is free, expired or already held by the owner, and extends it.
+     * Expirations are compared on the database clock, so the nodes do not need synchronized clocks.
+     *
+     * @return 1 if the owner holds the lease, 0 otherwise
+     */
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_leases (name, owner, expires_at) " +
+            "VALUES (:name, :owner, now() + make_interval(secs => :ttlSeconds)) " +
+            "ON CONFLICT (name) DO UPDATE SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at " +
+            "WHERE scheduler_leases.owner = EXCLUDED.owner OR scheduler_leases.expires_at < now()", nativeQuery = true)
+    int acquire(String name, String owner, long ttlSeconds);
+
+    @Modifying
+    @Query(value = "DELETE FROM scheduler_leases WHERE name = :name AND owner = :owner", nativeQuery = true)
+    int release(String name, String owner);
+
+}
@@ -1,8 +1,12 @@
 package com.midel.repository;
 
 import com.midel.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -12,4 +16,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByUsername(String username);
 
+    @EntityGraph(attributePaths = "friends")
+    @Query("SELECT u FROM User u")
+    List<User> findAllWithFriends();
+
+    @Query("SELECT f FROM User u JOIN u.friends f WHERE u.id = :userId")
+    List<User> findFriendsByUserId(Long userId);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
 }
@@ -0,0 +1,97 @@
+package com.midel.resilience;
+
+/**
+ * Concurrency limit adapted with additive increase and multiplicative decrease (AIMD) on the observed latency.
+ *
+ * <p>
+ * A request finishing within the latency threshold while at least half of the limit is in use raises the limit
+ * by one, a slower or failed request multiplies it by the backoff ratio. The limit therefore grows while the
+ * backend keeps up with the load and falls quickly when it slows down, so the requests beyond what it can take
+ * are rejected at once instead of piling up until they all time out.
+ * </p>
+ *
+ * <p>
+ * The state is guarded by the monitor of the instance, held only for a few arithmetic operations.
+ * </p>
+ */
+public class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+
+    /**
+     * @param initialLimit the limit before any request completes
+     * @param minLimit the lowest limit, at least 1 so that the recovery of the backend can be observed
+     * @param maxLimit the highest limit
+     * @param latencyThresholdNanos the latency above which a request counts as a sign of overload
+     * @param backoffRatio the factor applied to the limit on overload, between 0 and 1
+     */
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos, double backoffRatio) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("The limits must satisfy 1 <= min <= initial <= max.");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("The backoff ratio must be between 0 and 1.");
+        }
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * @return true if the request may proceed, in which case {@link #release} must be called once it completes
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * @param latencyNanos the time the request took
+     * @param failed whether the request failed on the server side
+     */
+    public synchronized void release(long latencyNanos, boolean failed) {
+        if (failed || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+
+        inFlight--;
+    }
+
+    /**
+     * Releases a request whose latency says nothing about the load, such as a handler that is slow by design, so
+     * that only its failure adjusts the limit.
+     *
+     * @param failed whether the request failed on the server side
+     */
+    public synchronized void releaseWithoutLatency(boolean failed) {
+        if (failed) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        }
+
+        inFlight--;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.midel.resilience;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded execution lane: at most <code>maxConcurrent</code> callers run at once, at most <code>maxQueued</code>
+ * more wait in arrival order, each for at most <code>maxWaitNanos</code>.
+ *
+ * <p>
+ * Requests run on virtual threads, so the lane bounds the concurrent work with permits instead of a thread pool,
+ * waiting callers only park their virtual thread.
+ * </p>
+ */
+public class Bulkhead {
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public Bulkhead(int maxConcurrent, int maxQueued, long maxWaitNanos) {
+        if (maxConcurrent < 1 || maxQueued < 0 || maxWaitNanos < 0) {
+            throw new IllegalArgumentException("A bulkhead needs at least one permit and a non negative queue and wait.");
+        }
+
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = maxWaitNanos;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * @return true if the caller may proceed, in which case {@link #release()} must be called once it is done,
+     * false if the queue is full or the wait timed out
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        // A zero timeout keeps the fairness of the semaphore, unlike the untimed tryAcquire
+        if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+            return true;
+        }
+
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            return false;
+        }
+
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.midel.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.midel.entity.enums.Role;
+import com.midel.response.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Runs each request in the {@link Lane} of its route and role, once the security filters have authenticated it:
+ * the moderation routes and every request of a moderator go to {@link Lane#MODERATION}, the rest to
+ * {@link Lane#USER}.
+ *
+ * <p>
+ * Each lane has a {@link Bulkhead} configured by the <code>resilience.bulkhead.&lt;lane&gt;.*</code> properties,
+ * requests finding its queue full or waiting longer than the maximum wait get a 503 with <code>Retry-After</code>.
+ * The lanes are exposed as the <code>http.server.bulkhead.active</code> and <code>http.server.bulkhead.queued</code>
+ * gauges, the <code>http.server.bulkhead.wait</code> timer and the <code>http.server.bulkhead.rejected</code> counter.
+ * </p>
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+    private final String retryAfterSeconds;
+    private final Map<Lane, Bulkhead> bulkheads = new EnumMap<>(Lane.class);
+    private final Map<Lane, Timer> waits = new EnumMap<>(Lane.class);
+    private final Map<Lane, Counter> rejections = new EnumMap<>(Lane.class);
+
+    public BulkheadFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            Environment environment,
+            @Value("${resilience.bulkhead.retry-after-seconds:1}") int retryAfterSeconds
+    ) {
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+
+        for (Lane lane : Lane.values()) {
+            String prefix = "resilience.bulkhead." + lane.getName() + ".";
+            Bulkhead bulkhead = new Bulkhead(
+                    environment.getProperty(prefix + "max-concurrent", Integer.class, 100),
+                    environment.getProperty(prefix + "max-queued", Integer.class, 100),
+                    Duration.ofMillis(environment.getProperty(prefix + "max-wait-ms", Long.class, 1000L)).toNanos()
+            );
+            bulkheads.put(lane, bulkhead);
+
+            Gauge.builder("http.server.bulkhead.active", bulkhead, Bulkhead::getActive)
+                    .tag("lane", lane.getName())
+                    .register(meterRegistry);
+            Gauge.builder("http.server.bulkhead.queued", bulkhead, Bulkhead::getQueued)
+                    .tag("lane", lane.getName())
+                    .register(meterRegistry);
+            waits.put(lane, Timer.builder("http.server.bulkhead.wait")
+                    .tag("lane", lane.getName())
+                    .register(meterRegistry));
+            rejections.put(lane, Counter.builder("http.server.bulkhead.rejected")
+                    .tag("lane", lane.getName())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        Lane lane = laneOf(request);
+        Bulkhead bulkhead = bulkheads.get(lane);
+
+        long startedAt = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waits.get(lane).record(Duration.ofNanos(System.nanoTime() - startedAt));
+
+        if (!acquired) {
+            rejections.get(lane).increment();
+            reject(response, lane);
+            return;
+        }
+
+        Lane previous = Lane.enter(lane);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Lane.exit(previous);
+            bulkhead.release();
+        }
+    }
+
+    Bulkhead getBulkhead(Lane lane) {
+        return bulkheads.get(lane);
+    }
+
+    static Lane laneOf(HttpServletRequest request) {
+        if (RouteGroup.of(request.getRequestURI()) == RouteGroup.MODERATION) {
+            return Lane.MODERATION;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> Role.ROLE_MODERATOR.name().equals(authority.getAuthority()))) {
+            return Lane.MODERATION;
+        }
+
+        return Lane.USER;
+    }
+
+    private void reject(HttpServletResponse response, Lane lane) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE,
+                "The " + lane.getName() + " lane is full, retry later.");
+        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.midel.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.midel.response.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sheds load per route group before the request reaches the security filters, so that a slow database only
+ * rejects the requests of the groups it slows down, early and cheaply, instead of letting every endpoint time out.
+ *
+ * <p>
+ * Each {@link RouteGroup} has its own {@link AimdLimit}, configured by the
+ * <code>resilience.concurrency.&lt;group&gt;.*</code> properties. Requests beyond the limit get a 503 with
+ * <code>Retry-After</code>. The limits are exposed as the <code>http.server.concurrency.limit</code> and
+ * <code>http.server.concurrency.in.flight</code> gauges, the rejections as the
+ * <code>http.server.concurrency.rejected</code> counter. Event streams are long-lived and limited by their
+ * own connection limits instead.
+ * </p>
+ *
+ * <p>
+ * Handlers that are slow by design, listed in <code>resilience.concurrency.latency-exempt-paths</code>, hold a
+ * permit like any request but give no latency feedback, so a few legitimate bulk changes or exports do not shrink
+ * the limit of their group. Their server errors still do.
+ * </p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String STREAM_PATH = "/events/stream";
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final String retryAfterSeconds;
+    private final Set<String> latencyExemptPaths;
+    private final Map<RouteGroup, AimdLimit> limits = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, Counter> rejections = new EnumMap<>(RouteGroup.class);
+
+    public ConcurrencyLimitFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            Environment environment,
+            @Value("${resilience.concurrency.enabled:true}") boolean enabled,
+            @Value("${resilience.concurrency.retry-after-seconds:1}") int retryAfterSeconds,
+            @Value("${resilience.concurrency.latency-exempt-paths:}") String[] latencyExemptPaths
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+        this.latencyExemptPaths = Set.of(latencyExemptPaths);
+
+        for (RouteGroup group : RouteGroup.values()) {
+            String prefix = "resilience.concurrency." + group.getName() + ".";
+            AimdLimit limit = new AimdLimit(
+                    environment.getProperty(prefix + "initial-limit", Integer.class, 20),
+                    environment.getProperty(prefix + "min-limit", Integer.class, 1),
+                    environment.getProperty(prefix + "max-limit", Integer.class, 200),
+                    Duration.ofMillis(environment.getProperty(prefix + "latency-threshold-ms", Long.class, 1000L)).toNanos(),
+                    environment.getProperty(prefix + "backoff-ratio", Double.class, 0.9)
+            );
+            limits.put(group, limit);
+
+            Gauge.builder("http.server.concurrency.limit", limit, AimdLimit::getLimit)
+                    .tag("group", group.getName())
+                    .register(meterRegistry);
+            Gauge.builder("http.server.concurrency.in.flight", limit, AimdLimit::getInFlight)
+                    .tag("group", group.getName())
+                    .register(meterRegistry);
+            rejections.put(group, Counter.builder("http.server.concurrency.rejected")
+                    .tag("group", group.getName())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || request.getRequestURI().startsWith(STREAM_PATH) || RouteGroup.of(request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        RouteGroup group = RouteGroup.of(request.getRequestURI());
+        AimdLimit limit = limits.get(group);
+
+        if (!limit.tryAcquire()) {
+            rejections.get(group).increment();
+            reject(response, group);
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            if (latencyExemptPaths.contains(request.getRequestURI())) {
+                limit.releaseWithoutLatency(failed);
+            } else {
+                limit.release(System.nanoTime() - startedAt, failed);
+            }
+        }
+    }
+
+    AimdLimit getLimit(RouteGroup group) {
+        return limits.get(group);
+    }
+
+    private void reject(HttpServletResponse response, RouteGroup group) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE,
+                "Too many concurrent " + group.getName() + " requests, retry later.");
+        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+    }
+
+}
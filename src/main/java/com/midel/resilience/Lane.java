@@ -0,0 +1,54 @@
+package com.midel.resilience;
+
+/**
+ * Execution lanes isolating the heavy moderator work from the latency-sensitive user requests.
+ *
+ * <p>
+ * Each lane has its own {@link Bulkhead} and its own connection pool, selected by {@link LaneRoutingDataSource}
+ * from the lane of the current thread. Threads outside of a request, such as the scheduled jobs, run in
+ * {@link #USER}.
+ * </p>
+ */
+public enum Lane {
+
+    USER,
+    MODERATION;
+
+    private static final ThreadLocal<Lane> CURRENT = new ThreadLocal<>();
+
+    /**
+     * @return the lane of the current thread
+     */
+    public static Lane current() {
+        Lane lane = CURRENT.get();
+        return lane == null ? USER : lane;
+    }
+
+    /**
+     * Moves the current thread to the lane until {@link #exit} is called with the returned value.
+     *
+     * @param lane the lane
+     * @return the lane the thread was in, possibly <code>null</code>
+     */
+    public static Lane enter(Lane lane) {
+        Lane previous = CURRENT.get();
+        CURRENT.set(lane);
+        return previous;
+    }
+
+    /**
+     * @param previous the value returned by the matching {@link #enter}
+     */
+    public static void exit(Lane previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public String getName() {
+        return name().toLowerCase();
+    }
+
+}
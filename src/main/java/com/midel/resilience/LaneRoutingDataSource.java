@@ -0,0 +1,31 @@
+package com.midel.resilience;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out the connections of the pool of the current {@link Lane}, so that a long moderator query cannot
+ * take the connections the user requests are waiting for.
+ *
+ * <p>
+ * The pool is chosen when a connection is acquired, at the start of a transaction, so a transaction keeps its
+ * connection even if the thread changes lanes while it runs.
+ * </p>
+ */
+public class LaneRoutingDataSource extends AbstractRoutingDataSource {
+
+    public LaneRoutingDataSource(DataSource userDataSource, DataSource moderationDataSource) {
+        setTargetDataSources(Map.of(Lane.USER, userDataSource, Lane.MODERATION, moderationDataSource));
+        setDefaultTargetDataSource(userDataSource);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Lane.current();
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.midel.resilience;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Groups of routes sharing a concurrency limit, matched on the first segment of the path.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RouteGroup {
+
+    AUTH("auth", "/auth"),
+    EVENTS("events", "/events"),
+    CHATS("chats", "/chats"),
+    MODERATION("moderation", "/moderation");
+
+    private final String name;
+    private final String pathPrefix;
+
+    /**
+     * @param path the request path
+     * @return the group of the path, or <code>null</code> if it belongs to none
+     */
+    public static RouteGroup of(String path) {
+        for (RouteGroup group : values()) {
+            if (path.startsWith(group.pathPrefix)
+                    && (path.length() == group.pathPrefix.length() || path.charAt(group.pathPrefix.length()) == '/')) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+}
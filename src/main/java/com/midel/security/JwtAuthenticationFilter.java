@@ -1,7 +1,10 @@
 package com.midel.security;
 
+import com.midel.monitoring.Phase;
+import com.midel.monitoring.RequestStatistics;
 import com.midel.service.JwtService;
 import com.midel.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +12,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -29,6 +33,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserService userService;
 
+    @Value("${token.stateless-principal.enabled:false}")
+    private boolean statelessPrincipalEnabled;
+
+    @Value("${token.stateless-principal.revalidate-after:300}")
+    private long revalidateAfterSeconds;
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -43,21 +53,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        // Trim the prefix and get the username from the token
+        // Trim the prefix and verify the token once, the claims are reused below
         String jwt = authHeader.substring(BEARER_PREFIX.length());
-        String username = jwtService.extractUserName(jwt);
+        long parseStartedAt = RequestStatistics.phaseStarted(Phase.JWT);
+        Claims claims = jwtService.extractVerifiedClaims(jwt);
+        RequestStatistics.phaseEnded(Phase.JWT, parseStartedAt);
+        String username = claims == null ? null : claims.getSubject();
 
         if (username != null
                 && !username.isEmpty()
                 && SecurityContextHolder.getContext().getAuthentication() == null) {
 
             try {
-                UserDetails userDetails = userService
-                        .userDetailsService()
-                        .loadUserByUsername(username);
+                UserDetails userDetails;
+                long lookupStartedAt = RequestStatistics.phaseStarted(Phase.USER_LOOKUP);
+                try {
+                    userDetails = statelessPrincipalEnabled
+                            ? resolveStatelessPrincipal(claims)
+                            : userService.loadUserForAuthentication(username);
+                } finally {
+                    RequestStatistics.phaseEnded(Phase.USER_LOOKUP, lookupStartedAt);
+                }
 
                 // If the token is valid, authenticate the user
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(claims, userDetails)) {
                     SecurityContext context = SecurityContextHolder.createEmptyContext();
 
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
@@ -76,4 +95,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Builds the principal from the token claims without a database call.
+     *
+     * <p>
+     * Tokens older than the revalidation period take the role and token version of the user from the principal
+     * cache, loaded at most once per user and cache ttl, so a changed role or revoked token is trusted for at most
+     * the revalidation period plus the ttl. Tokens without the id and role claims are checked against the stored user.
+     * </p>
+     *
+     * @param claims the verified token data
+     * @return the principal
+     */
+    private UserDetails resolveStatelessPrincipal(Claims claims) {
+        JwtPrincipal principal = jwtService.extractPrincipal(claims);
+
+        if (principal == null) {
+            return userService.loadUserForAuthentication(claims.getSubject());
+        }
+
+        if (jwtService.isIssuedBefore(claims, revalidateAfterSeconds)) {
+            return userService.loadPrincipal(principal.getId());
+        }
+
+        return principal;
+    }
+}
@@ -0,0 +1,54 @@
+package com.midel.security;
+
+import com.midel.entity.User;
+import com.midel.entity.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lightweight, immutable principal used instead of the {@link User} entity in the security context.
+ *
+ * <p>
+ * In the stateless principal mode it is built from the verified token claims. Otherwise, and for old tokens,
+ * it is a snapshot of the stored user built with {@link #of(User)}, which also carries the token version the
+ * token must match.
+ * </p>
+ */
+@Getter
+@AllArgsConstructor
+public class JwtPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final Role role;
+    private final Integer tokenVersion;
+
+    public JwtPrincipal(Long id, String username, Role role) {
+        this(id, username, role, null);
+    }
+
+    /**
+     * @param user the stored user
+     * @return an immutable snapshot of the user
+     */
+    public static JwtPrincipal of(User user) {
+        return new JwtPrincipal(user.getId(), user.getUsername(), user.getRole(), user.getTokenVersion());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+}
@@ -3,7 +3,9 @@ package com.midel.security;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.midel.response.ErrorResponse;
 import com.midel.service.UserService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
@@ -35,6 +37,9 @@ public class SecurityConfiguration {
     private final UserService userService;
     private final ObjectMapper objectMapper;
 
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -48,10 +53,14 @@ public class SecurityConfiguration {
                 return corsConfiguration;
             }))
             .authorizeHttpRequests(request -> request
+                    // Async dispatches of event streams were authorized when the stream was opened
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                     .requestMatchers("/auth/**").permitAll()
                     .requestMatchers("/users/**").authenticated()
                     .requestMatchers("/chats/**").authenticated()
                     .requestMatchers("/swagger-ui/**", "/swagger-resources/*", "/v3/api-docs/**").permitAll()
+                    .requestMatchers("/actuator/health").permitAll()
+                    .requestMatchers("/actuator/**").hasRole("MODERATOR")
                     .anyRequest().authenticated())
             .sessionManagement(manager -> manager.sessionCreationPolicy(STATELESS))
             .authenticationProvider(authenticationProvider())
@@ -75,7 +84,7 @@ public class SecurityConfiguration {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
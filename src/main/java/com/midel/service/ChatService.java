@@ -2,6 +2,7 @@ package com.midel.service;
 
 import com.midel.dto.chat.ChatResponseDto;
 import com.midel.dto.Mapper;
+import com.midel.dto.chat.ChatSummaryResponseDto;
 import com.midel.entity.Chat;
 import com.midel.entity.User;
 import com.midel.repository.ChatRepository;
@@ -9,6 +10,7 @@ import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 
@@ -18,11 +20,10 @@ public class ChatService {
 
     private final ChatRepository chatRepository;
     private final UserService userService;
+    private final EventAudienceService eventAudienceService;
 
-    public Collection<ChatResponseDto> getAll() {
-        return Mapper.INSTANCE.chatToChatResponse(
-                chatRepository.findAll()
-        );
+    public Collection<ChatSummaryResponseDto> getAll() {
+        return chatRepository.findAllSummaries();
     }
 
     public ChatResponseDto create(String title) {
@@ -43,11 +44,11 @@ public class ChatService {
         return Mapper.INSTANCE.chatToChatResponse(chat);
     }
 
-    public Collection<ChatResponseDto> getMy() {
+    public Collection<ChatSummaryResponseDto> getMy() {
 
         User currentUser = userService.getCurrentUser();
 
-        return Mapper.INSTANCE.chatToChatResponse(currentUser.getChatsOwns());
+        return chatRepository.findSummariesByOwnerId(currentUser.getId());
     }
 
     public Chat getAuthUserChatById(UUID chatId) {
@@ -63,6 +64,7 @@ public class ChatService {
 
     }
 
+    @Transactional
     public void addChatMember(UUID chatId, Long userId) {
 
         User userToAdd = userService.getById(userId);
@@ -81,6 +83,7 @@ public class ChatService {
         chat.getMembers().add(userToAdd);
 
         chatRepository.save(chat);
+        eventAudienceService.addChatMember(chat.getId(), userToAdd.getId());
 
     }
 
@@ -0,0 +1,164 @@
+package com.midel.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.midel.entity.User;
+import com.midel.security.JwtPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+
+/**
+ * Two-layer cache for user lookups.
+ *
+ * <p>
+ * The request layer memoizes the current user entity for the duration of an HTTP request, so repeated
+ * {@link UserService#getCurrentUser()} calls from nested services reuse the same managed entity.
+ * The optional shared layer keeps a bounded, TTL-evicting, username-keyed {@link JwtPrincipal} snapshot of
+ * users for the authentication lookup done by the security filter on every request. The snapshots are
+ * immutable, so the principal shared by concurrent requests can not be modified by any of them, and services
+ * that need the entity take a reference to it by id.
+ * </p>
+ *
+ * <p>
+ * The principal layer, always enabled, keeps the token version and role of the users by id for the
+ * revalidation of old tokens in the stateless principal mode.
+ * </p>
+ */
+@Component
+public class CurrentUserCache {
+
+    private static final String REQUEST_ATTRIBUTE = CurrentUserCache.class.getName() + ".CURRENT_USER";
+
+    private final Cache<String, JwtPrincipal> sharedCache;
+    private final Cache<Long, JwtPrincipal> principalCache;
+
+    private final Counter requestHits;
+    private final Counter requestMisses;
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+    private final Counter principalHits;
+    private final Counter principalMisses;
+
+    public CurrentUserCache(
+            MeterRegistry meterRegistry,
+            @Value("${cache.current-user.enabled:false}") boolean sharedCacheEnabled,
+            @Value("${cache.current-user.maximum-size:10000}") long maximumSize,
+            @Value("${cache.current-user.ttl-seconds:60}") long ttlSeconds,
+            @Value("${token.stateless-principal.cache-ttl-seconds:30}") long principalTtlSeconds
+    ) {
+        this.sharedCache = sharedCacheEnabled
+                ? Caffeine.newBuilder()
+                    .maximumSize(maximumSize)
+                    .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                    .build()
+                : null;
+        this.principalCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(principalTtlSeconds))
+                .build();
+
+        this.requestHits = counter(meterRegistry, "request", "hit");
+        this.requestMisses = counter(meterRegistry, "request", "miss");
+        this.sharedHits = counter(meterRegistry, "shared", "hit");
+        this.sharedMisses = counter(meterRegistry, "shared", "miss");
+        this.principalHits = counter(meterRegistry, "principal", "hit");
+        this.principalMisses = counter(meterRegistry, "principal", "miss");
+    }
+
+    /**
+     * @return the user memoized for the current request, or <code>null</code> if there is none
+     */
+    public User getFromRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+
+        User user = (User) attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        (user == null ? requestMisses : requestHits).increment();
+        return user;
+    }
+
+    /**
+     * Memoizes the user for the rest of the current request, does nothing outside a request.
+     *
+     * @param user the current user
+     */
+    public void putInRequest(User user) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(REQUEST_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * @param username the username
+     * @return the cached snapshot of the user, or <code>null</code> if it is missing or the shared layer is disabled
+     */
+    public JwtPrincipal getShared(String username) {
+        if (sharedCache == null) {
+            return null;
+        }
+
+        JwtPrincipal principal = sharedCache.getIfPresent(username);
+        (principal == null ? sharedMisses : sharedHits).increment();
+        return principal;
+    }
+
+    public void putShared(JwtPrincipal principal) {
+        if (sharedCache != null) {
+            sharedCache.put(principal.getUsername(), principal);
+        }
+    }
+
+    /**
+     * @param userId the user id
+     * @return the cached token version and role of the user, or <code>null</code> if they are missing
+     */
+    public JwtPrincipal getPrincipal(Long userId) {
+        JwtPrincipal principal = principalCache.getIfPresent(userId);
+        (principal == null ? principalMisses : principalHits).increment();
+        return principal;
+    }
+
+    public void putPrincipal(JwtPrincipal principal) {
+        principalCache.put(principal.getId(), principal);
+    }
+
+    /**
+     * Evicts the user from every layer, called by the paths that modify a user.
+     *
+     * @param user the user
+     */
+    public void invalidate(User user) {
+        String username = user.getUsername();
+        if (sharedCache != null) {
+            sharedCache.invalidate(username);
+        }
+        if (user.getId() != null) {
+            principalCache.invalidate(user.getId());
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User requestUser
+                && requestUser.getUsername().equals(username)) {
+            attributes.removeAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String layer, String result) {
+        return Counter.builder("users.current.cache")
+                .description("Lookups of the current user served by the user cache")
+                .tag("layer", layer)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+}
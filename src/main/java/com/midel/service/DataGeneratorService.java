@@ -0,0 +1,372 @@
+package com.midel.service;
+
+import com.midel.dto.DataGenerationReportDto;
+import com.midel.dto.DataGenerationRequestDto;
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Role;
+import com.midel.entity.enums.Status;
+import com.midel.entity.id.UuidV7;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Writes synthetic users, friendships, chats and events for load tests, replacing the former friend generator
+ * that took quadratic time and saved the users one by one.
+ *
+ * <p>
+ * Friendships form a Barabási–Albert graph, written in both directions, chat sizes follow a bounded power law,
+ * and events are spread over the visibilities and statuses by the given weights. Every table is streamed with
+ * a single <code>COPY</code> within one transaction. Generated users only befriend and chat with each other, so
+ * the audience index is extended once at the end with the events they own, in the same transaction, so that no
+ * generated event is ever visible without its audience.
+ * </p>
+ *
+ * <p>
+ * User ids are drawn from the sequence of the users table like the ids of sign ups, which go on during the run
+ * and may interleave with the generated ids.
+ * </p>
+ *
+ * <p>
+ * Every kind of row draws from its own random stream split from the seed, so a run on a given database is
+ * reproducible whatever the sizes of the other tables. Times are relative to the start of the day of the run. Generated users are
+ * named <code>gen&lt;id&gt;</code> and sign in with {@link #PASSWORD}.
+ * </p>
+ */
+@Service
+@Slf4j
+public class DataGeneratorService {
+
+    public static final String PASSWORD = "password1";
+
+    private static final int COPY_BUFFER_SIZE = 1 << 20;
+    private static final int ID_BATCH_SIZE = 100_000;
+    private static final int EXPIRING_PERCENT = 30;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EventAudienceService eventAudienceService;
+    private final PasswordEncoder passwordEncoder;
+
+    public DataGeneratorService(
+            DataSource dataSource,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            EventAudienceService eventAudienceService,
+            PasswordEncoder passwordEncoder
+    ) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventAudienceService = eventAudienceService;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    /**
+     * @param request the size and shape of the data
+     * @return the number of rows written per table
+     * @throws IllegalArgumentException if the request is inconsistent
+     */
+    public DataGenerationReportDto generate(DataGenerationRequestDto request) {
+        validate(request);
+        long startedAt = System.currentTimeMillis();
+
+        DataGenerationReportDto report = transactionTemplate.execute(status -> {
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            DataGenerationReportDto written;
+            try {
+                written = write(connection.unwrap(PGConnection.class).getCopyAPI(), request);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to write the generated data.", e);
+            }
+            eventAudienceService.indexNewOwners(written.getFirstUserId());
+            return written;
+        });
+
+        jdbcTemplate.execute("ANALYZE users, user_friends, chats, chats_members, events, events_allowed_users, event_audience");
+
+        report.setDurationMs(System.currentTimeMillis() - startedAt);
+        log.info("Generated data with seed {}: {}", request.getSeed(), report);
+        return report;
+    }
+
+    private DataGenerationReportDto write(CopyManager copyManager, DataGenerationRequestDto request) throws SQLException {
+
+        int users = request.getUsers();
+        long[] userIds = allocateUserIds(users);
+        long firstUserId = userIds[0];
+
+        SplittableRandom seed = new SplittableRandom(request.getSeed());
+        SplittableRandom graphRandom = seed.split();
+        SplittableRandom chatRandom = seed.split();
+        SplittableRandom memberRandom = seed.split();
+        SplittableRandom eventRandom = seed.split();
+        SplittableRandom invitationRandom = seed.split();
+        // Ids also depend on the first user id, so that runs with the same seed on one database do not collide
+        SplittableRandom idRandom = new SplittableRandom(seed.split().nextLong() ^ firstUserId);
+
+        long today = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        DataGenerationReportDto report = new DataGenerationReportDto();
+        report.setFirstUserId(firstUserId);
+
+        String hash = passwordEncoder.encode(PASSWORD);
+        try (CopyStream copy = new CopyStream(copyManager, "users (id, username, password, role, token_version)")) {
+            for (long id : userIds) {
+                copy.row(id, "gen" + id, hash, Role.ROLE_USER, 0);
+            }
+            report.setUsers(copy.getRows());
+        }
+
+        try (CopyStream copy = new CopyStream(copyManager, "user_friends (user_id, friend_id)")) {
+            SyntheticGraph.preferentialAttachment(users, request.getFriendsPerUser(), graphRandom, (from, to) -> {
+                copy.row(userIds[from], userIds[to]);
+                copy.row(userIds[to], userIds[from]);
+            });
+            report.setFriendships(copy.getRows());
+        }
+
+        int chats = request.getChats();
+        UUID[] chatIds = new UUID[chats];
+        long[] chatOwners = new long[chats];
+        try (CopyStream copy = new CopyStream(copyManager, "chats (id, title, owner_id)")) {
+            for (int i = 0; i < chats; i++) {
+                chatIds[i] = UuidV7.of(today - chatRandom.nextLong(daysInMillis(request)), idRandom.nextLong());
+                chatOwners[i] = userIds[chatRandom.nextInt(users)];
+                copy.row(chatIds[i], "Chat " + i, chatOwners[i]);
+            }
+            report.setChats(copy.getRows());
+        }
+
+        try (CopyStream copy = new CopyStream(copyManager, "chats_members (chat_id, members_id)")) {
+            for (int i = 0; i < chats; i++) {
+                int size = SyntheticGraph.boundedPowerLaw(
+                        request.getMinChatMembers(), request.getMaxChatMembers(), request.getChatSizeExponent(), memberRandom
+                );
+                for (long member : pickUsers(chatOwners[i], size, userIds, memberRandom)) {
+                    copy.row(chatIds[i], member);
+                }
+            }
+            report.setChatMembers(copy.getRows());
+        }
+
+        Weights<EventVisibility> visibilities = new Weights<>(EventVisibility.values(), request.getVisibilityWeights());
+        Weights<Status> statuses = new Weights<>(Status.values(), request.getStatusWeights());
+        List<UUID> selectedIndividualsEvents = new ArrayList<>();
+        List<Long> selectedIndividualsOwners = new ArrayList<>();
+
+        try (CopyStream copy = new CopyStream(copyManager, "events (id, title, description, visibility, status, " +
+                "created_at, expiration_at, updated_at, owner_id, allowed_chat_id)")) {
+            for (int i = 0; i < request.getEvents(); i++) {
+                long createdAt = today - eventRandom.nextLong(daysInMillis(request));
+                UUID id = UuidV7.of(createdAt, idRandom.nextLong());
+                EventVisibility visibility = visibilities.pick(eventRandom);
+                Status status = statuses.pick(eventRandom);
+
+                long owner;
+                UUID chatId = null;
+                if (visibility == EventVisibility.SPECIFIC_CHAT) {
+                    int chat = eventRandom.nextInt(chats);
+                    chatId = chatIds[chat];
+                    owner = chatOwners[chat];
+                } else {
+                    owner = userIds[eventRandom.nextInt(users)];
+                }
+
+                Long expirationAt = switch (status) {
+                    case ENDED -> createdAt + eventRandom.nextLong(today - createdAt + 1);
+                    case OPENED, UNVERIFIED -> eventRandom.nextInt(100) < EXPIRING_PERCENT
+                            ? today + eventRandom.nextLong(1, daysInMillis(request))
+                            : null;
+                    default -> null;
+                };
+
+                if (visibility == EventVisibility.SELECTED_INDIVIDUALS) {
+                    selectedIndividualsEvents.add(id);
+                    selectedIndividualsOwners.add(owner);
+                }
+
+                copy.row(id, "Event " + i, "Generated event " + i, visibility, status, time(createdAt),
+                        expirationAt == null ? null : time(expirationAt), time(createdAt), owner, chatId);
+            }
+            report.setEvents(copy.getRows());
+        }
+
+        try (CopyStream copy = new CopyStream(copyManager, "events_allowed_users (event_id, allowed_users_id)")) {
+            for (int i = 0; i < selectedIndividualsEvents.size(); i++) {
+                int size = 1 + invitationRandom.nextInt(request.getMaxSelectedUsers());
+                for (long user : pickUsers(selectedIndividualsOwners.get(i), size + 1, userIds, invitationRandom)) {
+                    if (user != selectedIndividualsOwners.get(i)) {
+                        copy.row(selectedIndividualsEvents.get(i), user);
+                    }
+                }
+            }
+            report.setAllowedUsers(copy.getRows());
+        }
+
+        return report;
+    }
+
+    /**
+     * Draws the ids of the generated users from the sequence of the users table, in ascending order. Concurrent
+     * sign ups draw from the same sequence, so they are never blocked and never collide with a generated user.
+     */
+    private long[] allocateUserIds(int users) {
+        long[] ids = new long[users];
+        int allocated = 0;
+        while (allocated < users) {
+            int batch = Math.min(ID_BATCH_SIZE, users - allocated);
+            for (Long id : jdbcTemplate.queryForList(
+                    "SELECT nextval(pg_get_serial_sequence('users', 'id')) FROM generate_series(1, ?)", Long.class, batch)) {
+                ids[allocated++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private static void validate(DataGenerationRequestDto request) {
+        if (request.getMinChatMembers() > request.getMaxChatMembers()) {
+            throw new IllegalArgumentException("The minimum chat size must not exceed the maximum chat size.");
+        }
+        if (request.getChats() == 0 && request.getEvents() > 0
+                && request.getVisibilityWeights().getOrDefault(EventVisibility.SPECIFIC_CHAT, 0) > 0) {
+            throw new IllegalArgumentException("SPECIFIC_CHAT events need at least one chat.");
+        }
+    }
+
+    /**
+     * @return distinct users, the given one first, at most all users
+     */
+    private static Collection<Long> pickUsers(long first, int size, long[] userIds, SplittableRandom random) {
+        int count = Math.min(size, userIds.length);
+        Set<Long> picked = LinkedHashSet.newLinkedHashSet(count);
+        picked.add(first);
+        while (picked.size() < count) {
+            picked.add(userIds[random.nextInt(userIds.length)]);
+        }
+        return picked;
+    }
+
+    private static long daysInMillis(DataGenerationRequestDto request) {
+        return request.getCreatedWithinDays() * 86_400_000L;
+    }
+
+    private static LocalDateTime time(long unixMillis) {
+        // COPY reads times without zone in the session zone, which the driver sets to the zone of the JVM
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(unixMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Picks values with probabilities proportional to their weights, in the declaration order of the values
+     * so that the picks do not depend on the iteration order of the map.
+     */
+    private static final class Weights<T> {
+
+        private final List<T> values = new ArrayList<>();
+        private final int[] cumulative;
+
+        Weights(T[] all, Map<T, Integer> weights) {
+            int[] sums = new int[all.length];
+            int total = 0;
+            for (T value : all) {
+                int weight = weights.getOrDefault(value, 0);
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Weights must not be negative.");
+                }
+                if (weight > 0) {
+                    total += weight;
+                    sums[values.size()] = total;
+                    values.add(value);
+                }
+            }
+            if (total == 0) {
+                throw new IllegalArgumentException("At least one weight must be positive.");
+            }
+            cumulative = Arrays.copyOf(sums, values.size());
+        }
+
+        T pick(SplittableRandom random) {
+            int ticket = random.nextInt(cumulative[cumulative.length - 1]);
+            for (int i = 0; i < cumulative.length; i++) {
+                if (ticket < cumulative[i]) {
+                    return values.get(i);
+                }
+            }
+            throw new IllegalStateException();
+        }
+
+    }
+
+    /**
+     * Rows of one table in the text format of <code>COPY</code>, sent in chunks of {@link #COPY_BUFFER_SIZE}.
+     * Only generated values are written, none of them contains tabs, new lines or backslashes.
+     */
+    private static final class CopyStream implements AutoCloseable {
+
+        private final String target;
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 1024);
+        private long rows;
+
+        CopyStream(CopyManager copyManager, String target) throws SQLException {
+            this.target = target;
+            this.copyIn = copyManager.copyIn("COPY " + target + " FROM STDIN");
+        }
+
+        void row(Object... values) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append('\t');
+                }
+                buffer.append(values[i] == null ? "\\N" : values[i]);
+            }
+            buffer.append('\n');
+            rows++;
+
+            if (buffer.length() >= COPY_BUFFER_SIZE) {
+                flush();
+            }
+        }
+
+        long getRows() {
+            return rows;
+        }
+
+        private void flush() {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            buffer.setLength(0);
+            try {
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to copy the generated rows.", e);
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+            copyIn.endCopy();
+            log.info("Copied {} rows into {}", rows, target);
+        }
+
+    }
+
+}
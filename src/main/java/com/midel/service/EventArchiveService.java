@@ -0,0 +1,164 @@
+package com.midel.service;
+
+import com.midel.dto.CursorPageDto;
+import com.midel.dto.event.ArchivedEventResponseDto;
+import com.midel.dto.user.UserResponseDto;
+import com.midel.entity.ArchivedEvent;
+import com.midel.entity.enums.Status;
+import com.midel.repository.ArchivedEventRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves the ended, rejected and removed events out of the live tables into the archive, and reads the archive.
+ *
+ * <p>
+ * Events are archived in batches by the node holding the archive lease, once they have been in their terminal
+ * status for the minimum age. The minimum age is never shorter than the tombstone retention: the delta sync of the
+ * shared events finds closed events by their update time in the live table, and sync tokens older than the retention
+ * are asked to reload anyway. The owned listing also shows closed events, so the archive leaves a tombstone for the
+ * owner that the delta sync of the owned events reports as removed.
+ * </p>
+ */
+@Service
+@Slf4j
+public class EventArchiveService {
+
+    static final String LEASE_NAME = "event-archive";
+
+    private final ArchivedEventRepository archivedEventRepository;
+    private final LeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    @Getter
+    private final Duration minAge;
+    private final Duration leaseTtl;
+    private final int batchSize;
+
+    public EventArchiveService(
+            ArchivedEventRepository archivedEventRepository,
+            LeaseService leaseService,
+            EventTombstoneService eventTombstoneService,
+            PlatformTransactionManager transactionManager,
+            @Value("${events.archive.enabled:true}") boolean enabled,
+            @Value("${events.archive.min-age-hours:720}") long minAgeHours,
+            @Value("${events.archive.lease-ttl-seconds:300}") long leaseTtlSeconds,
+            @Value("${events.archive.batch-size:1000}") int batchSize
+    ) {
+        this.archivedEventRepository = archivedEventRepository;
+        this.leaseService = leaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+
+        Duration configuredMinAge = Duration.ofHours(minAgeHours);
+        if (configuredMinAge.compareTo(eventTombstoneService.getRetention()) < 0) {
+            log.warn("Archive minimum age of {} is shorter than the tombstone retention, using {}",
+                    configuredMinAge, eventTombstoneService.getRetention());
+            configuredMinAge = eventTombstoneService.getRetention();
+        }
+        this.minAge = configuredMinAge;
+        this.leaseTtl = Duration.ofSeconds(leaseTtlSeconds);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${events.archive.interval-ms:600000}")
+    public void archive() {
+        if (!enabled || !leaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            return;
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime before = now.minus(minAge);
+            long total = 0;
+            int archived;
+            do {
+                // Every batch commits on its own, so the locks and the WAL of a run stay bounded
+                List<UUID> ids = transactionTemplate.execute(
+                        status -> archivedEventRepository.archiveBatch(before, now, batchSize)
+                );
+                archived = ids == null ? 0 : ids.size();
+                total += archived;
+            } while (archived == batchSize);
+
+            if (total > 0) {
+                log.info("Archived {} events closed before {}", total, before);
+            }
+        } finally {
+            leaseService.release(LEASE_NAME);
+        }
+    }
+
+    /**
+     * @param status the status of the events, or <code>null</code> for all archived events
+     * @param cursor the cursor of the page, may be <code>null</code> for the first page
+     * @param limit the page size
+     * @return the page of archived events ordered by creation
+     */
+    public CursorPageDto<ArchivedEventResponseDto> getArchivedEvents(Status status, String cursor, Integer limit) {
+
+        EventCursor position = EventCursor.decode(cursor);
+        int pageSize = PageCursor.limit(limit);
+        PageRequest page = PageRequest.ofSize(pageSize + 1);
+
+        List<ArchivedEvent> events = status == null
+                ? archivedEventRepository.findArchivePage(position.getCreatedAt(), position.getId(), page)
+                : archivedEventRepository.findArchivePageByStatus(status, position.getCreatedAt(), position.getId(), page);
+
+        boolean hasNext = events.size() > pageSize;
+        List<ArchivedEvent> items = hasNext ? events.subList(0, pageSize) : events;
+        ArchivedEvent last = hasNext ? items.get(items.size() - 1) : null;
+
+        return new CursorPageDto<>(
+                items.stream().map(EventArchiveService::toDto).toList(),
+                last != null ? new EventCursor(last.getCreatedAt(), last.getId()).encode() : null
+        );
+    }
+
+    /**
+     * @param eventId the event id
+     * @return the archived event with the users it was shared with
+     * @throws EntityNotFoundException if the event is not archived
+     */
+    @Transactional(readOnly = true)
+    public ArchivedEventResponseDto getArchivedEvent(UUID eventId) {
+        ArchivedEvent event = archivedEventRepository.findById(eventId)
+                .orElseThrow(() -> new EntityNotFoundException("Archived event with id=" + eventId + " not found."));
+
+        ArchivedEventResponseDto dto = toDto(event);
+        dto.setAllowedUserIds(new ArrayList<>(event.getAllowedUserIds()));
+        return dto;
+    }
+
+    private static ArchivedEventResponseDto toDto(ArchivedEvent event) {
+        ArchivedEventResponseDto dto = new ArchivedEventResponseDto();
+        dto.setId(event.getId());
+        dto.setTitle(event.getTitle());
+        dto.setDescription(event.getDescription());
+        dto.setVisibility(event.getVisibility());
+        dto.setStatus(event.getStatus());
+        dto.setCreatedAt(event.getCreatedAt());
+        dto.setExpirationAt(event.getExpirationAt());
+        dto.setOwner(new UserResponseDto(event.getOwnerId(), event.getOwnerUsername()));
+        dto.setUpdatedAt(event.getUpdatedAt());
+        dto.setArchivedAt(event.getArchivedAt());
+        dto.setAllowedChatId(event.getAllowedChatId());
+        return dto;
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.midel.service;
+
+import com.midel.dto.event.EventAudienceReportDto;
+import com.midel.dto.user.UserResponseDto;
+import com.midel.entity.Event;
+import com.midel.entity.enums.EventVisibility;
+import com.midel.repository.EventAudienceRepository;
+import com.midel.repository.EventTombstoneRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maintains the event audience index incrementally on every change of who can see an event.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class EventAudienceService {
+
+    private final EventAudienceRepository eventAudienceRepository;
+    private final EventTombstoneRepository eventTombstoneRepository;
+
+    /**
+     * Computes the audience of a new event.
+     *
+     * @param event the saved event
+     */
+    @Transactional
+    public void refresh(Event event) {
+        refresh(event, null);
+    }
+
+    /**
+     * Recomputes the audience of the event, called after its visibility, allowed users or allowed chat changed.
+     * Users who lose access get a tombstone for the delta sync, everyone does when a public event becomes restricted.
+     *
+     * @param event the saved event
+     * @param previousVisibility the visibility before the change, <code>null</code> for a new event
+     */
+    @Transactional
+    public void refresh(Event event, EventVisibility previousVisibility) {
+        LocalDateTime now = LocalDateTime.now();
+        eventAudienceRepository.syncAudienceOfEvent(event.getId(), now);
+
+        if (previousVisibility == EventVisibility.PUBLIC && event.getVisibility() != EventVisibility.PUBLIC) {
+            eventTombstoneRepository.insertForAllUsers(event.getId(), now);
+        }
+    }
+
+    /**
+     * Counts the audiences of many events with one query.
+     *
+     * @param eventIds the event ids
+     * @return the audience size by event id, events without audience are missing
+     */
+    public Map<UUID, Long> countAudiences(Collection<UUID> eventIds) {
+        Map<UUID, Long> counts = new HashMap<>();
+        if (!eventIds.isEmpty()) {
+            for (EventAudienceRepository.AudienceCount count : eventAudienceRepository.countByEventIds(eventIds)) {
+                counts.put(count.getEventId(), count.getCount());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @param eventId the event id
+     * @param afterUserId the last user id of the previous page, 0 for the first page
+     * @param limit the maximum number of users
+     * @return the audience of the event ordered by user id
+     */
+    public List<UserResponseDto> getAudiencePage(UUID eventId, long afterUserId, int limit) {
+        return eventAudienceRepository.findAudiencePage(eventId, afterUserId, PageRequest.ofSize(limit));
+    }
+
+    /**
+     * @param eventId the event id
+     * @param userId the user id
+     * @return whether the user is in the audience of the event
+     */
+    public boolean isInAudience(UUID eventId, Long userId) {
+        return eventAudienceRepository.existsByEventIdAndUserId(eventId, userId);
+    }
+
+    @Transactional
+    public void addAllowedUser(UUID eventId, Long userId) {
+        eventAudienceRepository.insertMember(eventId, userId);
+    }
+
+    @Transactional
+    public void addAllowedUsers(UUID eventId, Collection<Long> userIds) {
+        eventAudienceRepository.insertMembers(eventId, userIds);
+    }
+
+    @Transactional
+    public void addFriend(Long userId, Long friendId) {
+        eventAudienceRepository.insertFriendOfOwner(userId, friendId);
+    }
+
+    @Transactional
+    public void addChatMember(UUID chatId, Long userId) {
+        eventAudienceRepository.insertMemberOfChat(chatId, userId);
+    }
+
+    /**
+     * Replaces the whole index with the audience computed from scratch.
+     */
+    @Transactional
+    public void rebuild() {
+        eventAudienceRepository.deleteAllRows();
+        int rows = eventAudienceRepository.insertAll();
+
+        log.info("Event audience index rebuilt with {} rows", rows);
+    }
+
+    /**
+     * Indexes the events of new owners, whose friends and chats are new as well.
+     *
+     * @param firstOwnerId the smallest id of the new owners
+     */
+    @Transactional
+    public void indexNewOwners(Long firstOwnerId) {
+        int rows = eventAudienceRepository.insertOfOwnersFrom(firstOwnerId);
+
+        log.info("Event audience index extended with {} rows", rows);
+    }
+
+    /**
+     * Compares the live index with the audience computed from scratch.
+     *
+     * @return the number of live rows, rows missing from the index and stale rows that should not be there
+     */
+    @Transactional(readOnly = true)
+    public EventAudienceReportDto verify() {
+        return new EventAudienceReportDto(
+                eventAudienceRepository.countRows(),
+                eventAudienceRepository.countMissingRows(),
+                eventAudienceRepository.countStaleRows()
+        );
+    }
+
+    /**
+     * Builds the index on the first start against an existing database.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (!eventAudienceRepository.isPopulated()) {
+            rebuild();
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.midel.service;
+
+import com.midel.dto.event.EventRowDto;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+/**
+ * Position in the event listings, which are ordered by <code>(created_at, id)</code>.
+ */
+@Getter
+@RequiredArgsConstructor
+public class EventCursor {
+
+    /**
+     * Position before the first event.
+     */
+    public static final EventCursor FIRST = new EventCursor(LocalDateTime.of(1970, 1, 1, 0, 0), new UUID(0, 0));
+
+    private final LocalDateTime createdAt;
+    private final UUID id;
+
+    public static EventCursor of(EventRowDto event) {
+        return new EventCursor(event.getCreatedAt(), event.getId());
+    }
+
+    /**
+     * @param cursor the cursor, may be <code>null</code> for the first page
+     * @return the position
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static EventCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return FIRST;
+        }
+
+        String[] keys = PageCursor.decode(cursor, 2);
+        try {
+            return new EventCursor(LocalDateTime.parse(keys[0]), UUID.fromString(keys[1]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+
+    public String encode() {
+        return PageCursor.encode(createdAt, id);
+    }
+
+}
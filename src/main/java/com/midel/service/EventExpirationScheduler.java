@@ -0,0 +1,255 @@
+package com.midel.service;
+
+import com.midel.entity.Event;
+import com.midel.entity.enums.EventChangeType;
+import com.midel.repository.EventRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Moves opened events to {@link com.midel.entity.enums.Status#ENDED} once their expiration passes.
+ *
+ * <p>
+ * Expirations within the horizon are kept in a min-heap keyed on the expiration time. The heap is loaded from
+ * the database when the node becomes the leader and reloaded periodically, which also picks up events created
+ * on other nodes, and it is updated right after the transactions that create or update an event commit.
+ * Every tick the due entries are popped and ended with batched UPDATEs.
+ * </p>
+ *
+ * <p>
+ * Only the node holding the database lease ends events. Entries made stale by a later change of the expiration
+ * are skipped lazily, and the UPDATE itself re-checks the status and the current expiration, so a stale entry
+ * or two nodes briefly overlapping during a lease takeover can never end an event early.
+ * </p>
+ */
+@Component
+@Slf4j
+public class EventExpirationScheduler {
+
+    static final String LEASE_NAME = "event-expiration";
+
+    private record Entry(UUID eventId, LocalDateTime expirationAt) {
+    }
+
+    private final EventRepository eventRepository;
+    private final LeaseService leaseService;
+    private final EventStreamService eventStreamService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final Duration horizon;
+    private final Duration reloadInterval;
+    private final Duration leaseTtl;
+    private final int batchSize;
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparing(Entry::expirationAt));
+    private final Map<UUID, LocalDateTime> scheduled = new HashMap<>();
+
+    private final Timer lagTimer;
+    private final DistributionSummary batchSizeSummary;
+
+    private boolean leader;
+    private long leaseRenewedAt;
+    private LocalDateTime reloadedAt;
+
+    public EventExpirationScheduler(
+            EventRepository eventRepository,
+            LeaseService leaseService,
+            EventStreamService eventStreamService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${events.expiration.enabled:true}") boolean enabled,
+            @Value("${events.expiration.horizon-seconds:3600}") long horizonSeconds,
+            @Value("${events.expiration.reload-interval-seconds:60}") long reloadIntervalSeconds,
+            @Value("${events.expiration.lease-ttl-seconds:30}") long leaseTtlSeconds,
+            @Value("${events.expiration.batch-size:500}") int batchSize
+    ) {
+        this.eventRepository = eventRepository;
+        this.leaseService = leaseService;
+        this.eventStreamService = eventStreamService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.horizon = Duration.ofSeconds(horizonSeconds);
+        this.reloadInterval = Duration.ofSeconds(reloadIntervalSeconds);
+        this.leaseTtl = Duration.ofSeconds(leaseTtlSeconds);
+        this.batchSize = batchSize;
+
+        this.lagTimer = Timer.builder("events.expiration.lag")
+                .description("Delay between the expiration of an event and the moment it was ended")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("events.expiration.batch.size")
+                .description("Events ended by one batched UPDATE")
+                .register(meterRegistry);
+        Gauge.builder("events.expiration.scheduled", this, EventExpirationScheduler::scheduledCount)
+                .description("Expirations waiting in the scheduler heap")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedules the current expiration of the event once the surrounding transaction commits,
+     * called after an event is created or its expiration or status changes.
+     *
+     * @param event the saved event
+     */
+    public void schedule(Event event) {
+        schedule(event.getId(), event.getExpirationAt());
+    }
+
+    /**
+     * Schedules the expiration of the event once the surrounding transaction commits.
+     *
+     * @param eventId the event id
+     * @param expirationAt the current expiration of the event, may be <code>null</code>
+     */
+    public void schedule(UUID eventId, LocalDateTime expirationAt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(eventId, expirationAt);
+                }
+            });
+        } else {
+            add(eventId, expirationAt);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${events.expiration.tick-ms:1000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        if (!holdLease()) {
+            // The leader loads these from the database, the local heap only has to stay bounded
+            pollDue(now);
+            return;
+        }
+
+        if (reloadedAt == null || !now.isBefore(reloadedAt.plus(reloadInterval))) {
+            reload(now);
+        }
+
+        List<Entry> due = pollDue(now);
+        for (int from = 0; from < due.size(); from += batchSize) {
+            end(due.subList(from, Math.min(from + batchSize, due.size())), now);
+        }
+    }
+
+    @PreDestroy
+    public void releaseLease() {
+        if (leader) {
+            leaseService.release(LEASE_NAME);
+            leader = false;
+        }
+    }
+
+    synchronized int scheduledCount() {
+        return scheduled.size();
+    }
+
+    private synchronized void add(UUID eventId, LocalDateTime expirationAt) {
+        if (expirationAt == null || expirationAt.isAfter(LocalDateTime.now().plus(horizon))) {
+            // Expirations beyond the horizon are loaded by a later reload
+            scheduled.remove(eventId);
+            return;
+        }
+
+        if (!expirationAt.equals(scheduled.put(eventId, expirationAt))) {
+            queue.add(new Entry(eventId, expirationAt));
+        }
+    }
+
+    private synchronized List<Entry> pollDue(LocalDateTime now) {
+        List<Entry> due = new ArrayList<>();
+
+        while (!queue.isEmpty() && !queue.peek().expirationAt().isAfter(now)) {
+            Entry entry = queue.poll();
+
+            // Entries superseded by a later schedule of the same event are skipped
+            if (entry.expirationAt().equals(scheduled.get(entry.eventId()))) {
+                scheduled.remove(entry.eventId());
+                due.add(entry);
+            }
+        }
+
+        return due;
+    }
+
+    private void reload(LocalDateTime now) {
+        List<EventRepository.Expiration> expirations = eventRepository.findExpirationsUntil(now.plus(horizon));
+        for (EventRepository.Expiration expiration : expirations) {
+            add(expiration.getId(), expiration.getExpirationAt());
+        }
+
+        reloadedAt = now;
+        log.debug("Loaded {} event expirations within {}", expirations.size(), horizon);
+    }
+
+    private void end(List<Entry> batch, LocalDateTime now) {
+        List<UUID> eventIds = batch.stream()
+                .map(Entry::eventId)
+                .toList();
+
+        List<EventRepository.Expiration> ended = transactionTemplate.execute(
+                status -> eventRepository.endExpiredEvents(eventIds, now)
+        );
+        if (ended == null) {
+            return;
+        }
+
+        batchSizeSummary.record(ended.size());
+
+        LocalDateTime endedAt = LocalDateTime.now();
+        List<UUID> endedIds = new ArrayList<>(ended.size());
+        for (EventRepository.Expiration expiration : ended) {
+            lagTimer.record(Duration.between(expiration.getExpirationAt(), endedAt));
+            endedIds.add(expiration.getId());
+        }
+        eventStreamService.publish(EventChangeType.EXPIRED, endedIds);
+    }
+
+    /**
+     * Acquires the lease, or renews it once a third of its lifetime has passed.
+     *
+     * @return true if this node is the leader
+     */
+    private boolean holdLease() {
+        long now = System.nanoTime();
+        if (leader && now - leaseRenewedAt < leaseTtl.toNanos() / 3) {
+            return true;
+        }
+
+        boolean acquired = leaseService.tryAcquire(LEASE_NAME, leaseTtl);
+        if (acquired) {
+            leaseRenewedAt = now;
+            if (!leader) {
+                log.info("Acquired the {} lease as {}", LEASE_NAME, leaseService.getOwner());
+                reloadedAt = null;
+            }
+        } else if (leader) {
+            log.info("Lost the {} lease", LEASE_NAME);
+        }
+
+        leader = acquired;
+        return acquired;
+    }
+
+}
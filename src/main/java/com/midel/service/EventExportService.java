@@ -0,0 +1,147 @@
+package com.midel.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.midel.dto.event.EventExportRowDto;
+import com.midel.entity.enums.Status;
+import com.midel.repository.EventExportRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Streams all events to moderators as NDJSON or CSV without materializing them.
+ */
+@Service
+public class EventExportService {
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+    }
+
+    private static final String CSV_HEADER = "id,title,description,visibility,status,createdAt,expirationAt," +
+            "ownerId,ownerUsername,allowedChatId";
+
+    private final EventExportRepository eventExportRepository;
+    private final ObjectWriter rowWriter;
+    private final int flushRows;
+
+    public EventExportService(
+            EventExportRepository eventExportRepository,
+            ObjectMapper objectMapper,
+            @Value("${export.events.flush-rows:500}") int flushRows
+    ) {
+        this.eventExportRepository = eventExportRepository;
+        this.rowWriter = objectMapper.writerFor(EventExportRowDto.class)
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.flushRows = flushRows;
+    }
+
+    /**
+     * Writes the events to the output stream, flushing every <code>export.events.flush-rows</code> rows,
+     * so the client starts receiving data right away and the heap use does not depend on the table size.
+     *
+     * @param status the status filter, may be <code>null</code>
+     * @param format the output format
+     * @param outputStream the output stream, it is flushed but not closed
+     */
+    @Transactional(readOnly = true)
+    public void export(Status status, Format format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        JsonGenerator generator = format == Format.NDJSON
+                ? rowWriter.createGenerator(writer).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                : null;
+
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        int[] rows = {0};
+        try {
+            eventExportRepository.forEachEvent(status, row -> {
+                try {
+                    if (generator != null) {
+                        rowWriter.writeValue(generator, row);
+                        generator.writeRaw('\n');
+                    } else {
+                        writeCsvRow(writer, row);
+                    }
+
+                    if (++rows[0] % flushRows == 0) {
+                        if (generator != null) {
+                            generator.flush();
+                        }
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (generator != null) {
+            generator.flush();
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvRow(Writer writer, EventExportRowDto row) throws IOException {
+        writer.write(Objects.toString(row.getId(), ""));
+        writer.write(',');
+        writer.write(escapeCsv(row.getTitle()));
+        writer.write(',');
+        writer.write(escapeCsv(row.getDescription()));
+        writer.write(',');
+        writer.write(Objects.toString(row.getVisibility(), ""));
+        writer.write(',');
+        writer.write(Objects.toString(row.getStatus(), ""));
+        writer.write(',');
+        writer.write(Objects.toString(row.getCreatedAt(), ""));
+        writer.write(',');
+        writer.write(Objects.toString(row.getExpirationAt(), ""));
+        writer.write(',');
+        writer.write(Objects.toString(row.getOwnerId(), ""));
+        writer.write(',');
+        writer.write(escapeCsv(row.getOwnerUsername()));
+        writer.write(',');
+        writer.write(Objects.toString(row.getAllowedChatId(), ""));
+        writer.write('\n');
+    }
+
+    /**
+     * Quotes the value as described in RFC 4180 when it contains a separator, a quote or a line break.
+     *
+     * @param value the value, may be <code>null</code>
+     * @return the CSV field
+     */
+    static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+}
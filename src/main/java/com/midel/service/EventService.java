@@ -1,51 +1,84 @@
 package com.midel.service;
 
+import com.midel.dto.CursorPageDto;
 import com.midel.dto.Mapper;
+import com.midel.dto.event.EventBulkStatusRequestDto;
+import com.midel.dto.event.EventBulkStatusResponseDto;
 import com.midel.dto.event.EventCreateRequestDto;
+import com.midel.dto.event.EventDeltaDto;
+import com.midel.dto.event.EventInviteBatchResponseDto;
 import com.midel.dto.event.EventResponseDto;
+import com.midel.dto.event.EventRowDto;
+import com.midel.dto.event.EventSummaryResponseDto;
 import com.midel.dto.event.EventUpdateRequestDto;
+import com.midel.dto.user.UserBatchRequestDto;
 import com.midel.dto.user.UserRequestDto;
+import com.midel.dto.user.UserResponseDto;
 import com.midel.entity.Chat;
 import com.midel.entity.Event;
 import com.midel.entity.User;
+import com.midel.entity.enums.EventChangeType;
 import com.midel.entity.enums.EventVisibility;
 import com.midel.entity.enums.Role;
+import com.midel.exception.ConflictException;
 import com.midel.entity.enums.Status;
+import com.midel.monitoring.Phase;
+import com.midel.monitoring.RequestStatistics;
+import com.midel.repository.EventInvitationRepository;
 import com.midel.repository.EventRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Collection;
-import java.util.Set;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 public class EventService {
     
     private final EventRepository eventRepository;
+    private final EventInvitationRepository eventInvitationRepository;
     private final UserService userService;
     private final ChatService chatService;
+    private final EventAudienceService eventAudienceService;
+    private final EventExpirationScheduler eventExpirationScheduler;
+    private final EventStreamService eventStreamService;
+    private final EventTombstoneService eventTombstoneService;
+    private final ModerationQueueService moderationQueueService;
 
-    public Set<EventResponseDto> getAll() {
+    @Value("${events.listing.parallel-threshold:0}")
+    private int parallelMappingThreshold;
 
-        return eventRepository.findAll()
-                .stream()
-                .map(this::getEventDtoFunction)
-                .collect(Collectors.toSet());
+    @Value("${events.sync.lag-ms:2000}")
+    private long syncLagMs;
+
+    public CursorPageDto<EventSummaryResponseDto> getAll(String cursor, Integer limit) {
+
+        EventCursor position = EventCursor.decode(cursor);
+        int pageSize = PageCursor.limit(limit);
+
+        return toPage(
+                eventRepository.findEventsPage(position.getCreatedAt(), position.getId(), PageRequest.ofSize(pageSize + 1)),
+                pageSize
+        );
 
     }
 
-    public Set<EventResponseDto> getAllByStatus(Status status) {
+    public CursorPageDto<EventSummaryResponseDto> getAllByStatus(Status status, String cursor, Integer limit) {
 
-        return eventRepository.queryEventsByStatus(status)
-                .stream()
-                .map(this::getEventDtoFunction)
-                .collect(Collectors.toSet());
+        EventCursor position = EventCursor.decode(cursor);
+        int pageSize = PageCursor.limit(limit);
+
+        return toPage(
+                eventRepository.findEventsPageByStatus(status, position.getCreatedAt(), position.getId(), PageRequest.ofSize(pageSize + 1)),
+                pageSize
+        );
 
     }
 
@@ -72,19 +105,64 @@ public class EventService {
             event.addAllowedUser(currentUser);
         }
         event = eventRepository.save(event);
+        eventAudienceService.refresh(event);
+        eventExpirationScheduler.schedule(event);
+        eventStreamService.publish(EventChangeType.CREATED, event.getId());
 
         return getEventDtoFunction(event);
     }
 
 
-    public Collection<EventResponseDto> getMyEvents() {
+    public CursorPageDto<EventSummaryResponseDto> getMyEvents(String cursor, Integer limit) {
+
+        EventCursor position = EventCursor.decode(cursor);
+        int pageSize = PageCursor.limit(limit);
+        User currentUser = userService.getCurrentUser();
+        String syncToken = cursor == null ? startSyncToken() : null;
+
+        CursorPageDto<EventSummaryResponseDto> page = toPage(
+                eventRepository.findOwnedEventsPage(currentUser.getId(), position.getCreatedAt(), position.getId(), PageRequest.ofSize(pageSize + 1)),
+                pageSize
+        );
+        page.setSyncToken(syncToken);
+        return page;
+    }
+
+    /**
+     * Returns the events of the current user created or changed since the sync token, and the events moved
+     * to the archive, which leave the listing.
+     *
+     * @param since the token from the first page of the listing or from the previous delta
+     * @param limit the page size
+     * @return the changes, or a resync request if the token is older than the tombstone retention
+     */
+    public EventDeltaDto getMyChanges(String since, Integer limit) {
+
+        SyncToken token = SyncToken.decode(since);
+        int pageSize = PageCursor.limit(limit);
+
+        if (eventTombstoneService.isExpired(token, LocalDateTime.now())) {
+            return new EventDeltaDto(List.of(), List.of(), startSyncToken(), false, true);
+        }
+
+        LocalDateTime to = windowEnd(token);
+        if (!to.isAfter(token.getFrom())) {
+            return new EventDeltaDto(List.of(), List.of(), token.encode(), false, false);
+        }
 
         User currentUser = userService.getCurrentUser();
 
-        return currentUser.getCreatedEvents()
-                .stream()
-                .map(this::getEventDtoFunction)
-                .collect(Collectors.toSet());
+        List<UUID> removed = token.isFirstPage()
+                ? eventTombstoneService.findArchivedEventIds(currentUser.getId(), token.getFrom(), to)
+                : List.of();
+
+        return toDelta(
+                token,
+                to,
+                eventRepository.findOwnedChanges(currentUser.getId(), token.getFrom(), to, afterId(token), PageRequest.ofSize(pageSize + 1)),
+                removed,
+                pageSize
+        );
     }
 
     public Event getEvent(UUID eventId) {
@@ -126,6 +204,7 @@ public class EventService {
         Event event = getAuthUserEventById(eventId);
         event.setStatus(Status.REMOVED);
         eventRepository.save(event);
+        eventStreamService.publish(EventChangeType.REMOVED, event.getId());
 
     }
 
@@ -133,6 +212,7 @@ public class EventService {
     public EventResponseDto updateEvent(UUID eventId, EventUpdateRequestDto eventUpdateRequestDto) {
 
         Event event = getAuthUserEventById(eventId);
+        EventVisibility previousVisibility = event.getVisibility();
         Chat allowedChat = event.getAllowedChat();
 
         if (event.getAllowedChat() != null
@@ -161,6 +241,9 @@ public class EventService {
         }
 
         eventRepository.save(event);
+        eventAudienceService.refresh(event, previousVisibility);
+        eventExpirationScheduler.schedule(event);
+        eventStreamService.publish(EventChangeType.UPDATED, event.getId());
 
         return getEventDtoFunction(event);
 
@@ -170,6 +253,7 @@ public class EventService {
     public EventResponseDto partiallyUpdateEvent(UUID eventId, EventUpdateRequestDto eventUpdateRequestDto) {
 
         Event event = getAuthUserEventById(eventId);
+        EventVisibility previousVisibility = event.getVisibility();
         Chat allowedChat = event.getAllowedChat();
 
         if (event.getAllowedChat() != null
@@ -202,11 +286,15 @@ public class EventService {
         }
 
         eventRepository.save(event);
+        eventAudienceService.refresh(event, previousVisibility);
+        eventExpirationScheduler.schedule(event);
+        eventStreamService.publish(EventChangeType.UPDATED, event.getId());
 
         return getEventDtoFunction(event);
 
     }
 
+    @Transactional
     public void inviteUser(UUID eventId, UserRequestDto userRequestDto) {
 
         Event event = getAuthUserEventById(eventId);
@@ -214,17 +302,185 @@ public class EventService {
 
         event.addAllowedUser(user);
         eventRepository.save(event);
+        eventAudienceService.addAllowedUser(event.getId(), user.getId());
+        eventStreamService.publish(EventChangeType.UPDATED, event.getId());
     }
 
-    public Set<EventResponseDto> getSharedEvents() {
+    /**
+     * Invites many users to a SELECTED_INDIVIDUALS event without loading its allowed users: the users are
+     * checked for existence with one query and inserted with one JDBC batch that skips already invited users.
+     *
+     * @param eventId the event id
+     * @param userBatchRequestDto the ids of the users to invite
+     * @return the outcome for every requested user
+     */
+    @Transactional
+    public EventInviteBatchResponseDto inviteUsers(UUID eventId, UserBatchRequestDto userBatchRequestDto) {
+
+        Event event = getAuthUserEventById(eventId);
+
+        if (!event.getVisibility().equals(EventVisibility.SELECTED_INDIVIDUALS)) {
+            throw new IllegalArgumentException("Cannot add allowed users unless the event visibility is set to SELECTED_INDIVIDUALS.");
+        }
+
+        List<Long> userIds = userBatchRequestDto.getUserIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Set<Long> existingIds = new HashSet<>(userService.getExistingIds(userIds));
+
+        List<Long> found = new ArrayList<>(existingIds.size());
+        List<Long> notFound = new ArrayList<>();
+        for (Long userId : userIds) {
+            if (existingIds.contains(userId)) {
+                found.add(userId);
+            } else {
+                notFound.add(userId);
+            }
+        }
+
+        List<Long> added = new ArrayList<>();
+        List<Long> alreadyInvited = new ArrayList<>();
+        if (!found.isEmpty()) {
+            int[] insertedRows = eventInvitationRepository.insertAllowedUsers(event.getId(), found);
+            for (int i = 0; i < found.size(); i++) {
+                if (insertedRows[i] > 0) {
+                    added.add(found.get(i));
+                } else {
+                    alreadyInvited.add(found.get(i));
+                }
+            }
+        }
+
+        if (!added.isEmpty()) {
+            eventAudienceService.addAllowedUsers(event.getId(), added);
+            eventStreamService.publish(EventChangeType.UPDATED, event.getId());
+        }
+
+        return new EventInviteBatchResponseDto(added, alreadyInvited, notFound);
+    }
+
+    public CursorPageDto<EventSummaryResponseDto> getSharedEvents(String cursor, Integer limit) {
+
+        EventCursor position = EventCursor.decode(cursor);
+        int pageSize = PageCursor.limit(limit);
+        User user = userService.getCurrentUser();
+        String syncToken = cursor == null ? startSyncToken() : null;
+
+        CursorPageDto<EventSummaryResponseDto> page = toPage(
+                eventRepository.findSharedEventsPage(user.getId(), position.getCreatedAt(), position.getId(), PageRequest.ofSize(pageSize + 1)),
+                pageSize
+        );
+        page.setSyncToken(syncToken);
+        return page;
+    }
+
+    /**
+     * Returns what changed among the shared events since the sync token: the events created, changed or made
+     * visible to the current user, and the events that are no longer visible, either because they left the
+     * opened status or because the user lost access to them.
+     *
+     * <p>
+     * The changes of a window are paged by event id. A window ends <code>events.sync.lag-ms</code> in the past,
+     * so that transactions still running at the time of the call are picked up by the next sync.
+     * </p>
+     *
+     * @param since the token from the first page of the listing or from the previous delta
+     * @param limit the page size
+     * @return the changes, or a resync request if the token is older than the tombstone retention
+     */
+    public EventDeltaDto getSharedChanges(String since, Integer limit) {
+
+        SyncToken token = SyncToken.decode(since);
+        int pageSize = PageCursor.limit(limit);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (eventTombstoneService.isExpired(token, now)) {
+            return new EventDeltaDto(List.of(), List.of(), startSyncToken(), false, true);
+        }
+
+        LocalDateTime to = windowEnd(token);
+        if (!to.isAfter(token.getFrom())) {
+            return new EventDeltaDto(List.of(), List.of(), token.encode(), false, false);
+        }
 
         User user = userService.getCurrentUser();
 
-        return eventRepository.findAccessibleEvents(user.getId()).stream()
-                .map(this::getEventDtoFunction)
-                .collect(Collectors.toSet());
+        List<UUID> removed = List.of();
+        if (token.isFirstPage()) {
+            Set<UUID> removedIds = new LinkedHashSet<>(eventRepository.findClosedSharedEventIds(user.getId(), token.getFrom(), to));
+            removedIds.addAll(eventTombstoneService.findLostEventIds(user.getId(), token.getFrom(), to));
+            removed = new ArrayList<>(removedIds);
+        }
+
+        return toDelta(
+                token,
+                to,
+                eventRepository.findSharedChanges(user.getId(), token.getFrom(), to, afterId(token), PageRequest.ofSize(pageSize + 1)),
+                removed,
+                pageSize
+        );
+    }
+
+    /**
+     * Opens a stream of the changes of the events the current user owns or can see, replacing the polling
+     * of {@link #getSharedEvents(String, Integer)}.
+     *
+     * @return the emitter of the stream
+     */
+    public SseEmitter subscribeToChanges() {
+        return eventStreamService.subscribe(userService.getCurrentUser().getId());
     }
 
+    /**
+     * Pages through the users who can see a non-public event, ordered by user id. Only the owner, the users in the
+     * audience and moderators can list it.
+     *
+     * @param eventId the event id
+     * @param cursor the cursor of the previous page, <code>null</code> for the first page
+     * @param limit the page size
+     * @return the page of users
+     * @throws EntityNotFoundException if the event does not exist or the current user can not see its audience
+     */
+    public CursorPageDto<UserResponseDto> getAudience(UUID eventId, String cursor, Integer limit) {
+
+        long afterUserId = decodeUserCursor(cursor);
+        int pageSize = PageCursor.limit(limit);
+        Event event = getAuthUserEventById(eventId);
+        User currentUser = userService.getCurrentUser();
+
+        // Only the users who can see the event learn who else can, to everyone else it does not exist
+        if (!event.getOwner().getId().equals(currentUser.getId())
+                && !Role.ROLE_MODERATOR.equals(currentUser.getRole())
+                && !eventAudienceService.isInAudience(eventId, currentUser.getId())
+        ) {
+            throw new EntityNotFoundException("Event with id=" + eventId + " not found.");
+        }
+
+        if (event.getVisibility() == EventVisibility.PUBLIC) {
+            throw new IllegalArgumentException("Public events are visible to everyone and have no audience.");
+        }
+
+        List<UserResponseDto> users = eventAudienceService.getAudiencePage(eventId, afterUserId, pageSize + 1);
+
+        boolean hasNext = users.size() > pageSize;
+        List<UserResponseDto> page = hasNext ? users.subList(0, pageSize) : users;
+
+        return new CursorPageDto<>(
+                page,
+                hasNext ? PageCursor.encode(page.get(page.size() - 1).getId()) : null
+        );
+    }
+
+    /**
+     * Sets the status of the event as a moderator, which also completes the moderation claim on it.
+     *
+     * @param eventId the event id
+     * @param status the new status
+     * @throws IllegalArgumentException if the event already has the status
+     * @throws ConflictException if another moderator claimed the event or changed its status meanwhile
+     */
+    @Transactional
     public void changeEventStatus(UUID eventId, Status status) {
 
         Event event = getEvent(eventId);
@@ -232,18 +488,186 @@ public class EventService {
         if (event.getStatus().equals(status)) {
             throw new IllegalArgumentException("Current status match the provided status.");
         }
+        Long moderatorId = userService.getCurrentUser().getId();
 
-        event.setStatus(status);
-        eventRepository.save(event);
+        // The same claim-guarded UPDATE as the bulk change, a claim taken after the event was read still wins
+        List<EventRepository.Expiration> changed = eventRepository.updateStatusByIds(
+                List.of(eventId), status.name(), moderatorId, LocalDateTime.now());
+        if (changed.isEmpty()) {
+            throw new ConflictException("Event with id=" + eventId + " is claimed by another moderator or already has the status.");
+        }
+
+        moderationQueueService.complete(List.of(eventId), moderatorId);
+        eventExpirationScheduler.schedule(eventId, changed.get(0).getExpirationAt());
+        eventStreamService.publish(EventChangeType.of(status), eventId);
+
+    }
+
+    /**
+     * Sets the status of many events with a single UPDATE, with the same outcome as calling
+     * {@link #changeEventStatus(UUID, Status)} for each of them except that events which already
+     * have the status or that another moderator claimed are reported instead of failing the whole call.
+     * A filter changes at most {@link EventBulkStatusRequestDto#MAX_EVENTS} events per call, like a
+     * selection by id.
+     *
+     * @param request the event ids, or the owner and current status filter
+     * @param status the new status
+     * @return the outcome for every selected event
+     */
+    @Transactional
+    public EventBulkStatusResponseDto changeEventsStatus(EventBulkStatusRequestDto request, Status status) {
+
+        boolean byIds = request.getEventIds() != null && !request.getEventIds().isEmpty();
+        boolean byFilter = request.getOwnerId() != null || request.getStatus() != null;
+
+        if (byIds == byFilter) {
+            throw new IllegalArgumentException("Either 'eventIds' or a filter by 'ownerId' and 'status' must be provided.");
+        }
+
+        Long moderatorId = userService.getCurrentUser().getId();
+        List<UUID> eventIds = byIds ? request.getEventIds().stream().distinct().toList() : List.of();
+        List<EventRepository.Expiration> changed = byIds
+                ? eventRepository.updateStatusByIds(eventIds, status.name(), moderatorId, LocalDateTime.now())
+                : eventRepository.updateStatusByFilter(
+                        request.getOwnerId(),
+                        request.getStatus() == null ? null : request.getStatus().name(),
+                        status.name(),
+                        moderatorId,
+                        LocalDateTime.now(),
+                        EventBulkStatusRequestDto.MAX_EVENTS
+                );
+
+        List<UUID> updated = new ArrayList<>(changed.size());
+        for (EventRepository.Expiration expiration : changed) {
+            updated.add(expiration.getId());
+            if (status == Status.OPENED) {
+                eventExpirationScheduler.schedule(expiration.getId(), expiration.getExpirationAt());
+            }
+        }
+        moderationQueueService.complete(updated, moderatorId);
+        eventStreamService.publish(EventChangeType.of(status), updated);
+
+        if (!byIds) {
+            List<UUID> claimed = moderationQueueService.findClaimedByOther(
+                    request.getOwnerId(), request.getStatus(), status, moderatorId, EventBulkStatusRequestDto.MAX_EVENTS);
+            return new EventBulkStatusResponseDto(updated, List.of(), List.of(), claimed,
+                    updated.size() == EventBulkStatusRequestDto.MAX_EVENTS);
+        }
+
+        Set<UUID> updatedIds = new HashSet<>(updated);
+        List<UUID> remaining = eventIds.stream()
+                .filter(eventId -> !updatedIds.contains(eventId))
+                .toList();
+        Set<UUID> existingIds = remaining.isEmpty()
+                ? Set.of()
+                : new HashSet<>(eventRepository.findExistingIds(remaining));
+        Set<UUID> claimedIds = new HashSet<>(moderationQueueService.findClaimedByOther(remaining, moderatorId));
+
+        List<UUID> unchanged = new ArrayList<>();
+        List<UUID> notFound = new ArrayList<>();
+        List<UUID> claimed = new ArrayList<>();
+        for (UUID eventId : remaining) {
+            if (claimedIds.contains(eventId)) {
+                claimed.add(eventId);
+            } else if (existingIds.contains(eventId)) {
+                unchanged.add(eventId);
+            } else {
+                notFound.add(eventId);
+            }
+        }
 
+        return new EventBulkStatusResponseDto(updated, unchanged, notFound, claimed, false);
     }
 
     public EventResponseDto getEventDtoFunction(Event event) {
-        return switch (event.getVisibility()) {
-            case PUBLIC -> Mapper.INSTANCE.eventToPublicEventResponse(event);
-            case FRIENDS_ONLY -> Mapper.INSTANCE.eventToFriendsEventResponse(event);
-            case SELECTED_INDIVIDUALS-> Mapper.INSTANCE.eventToIndividualEventResponse(event);
-            case SPECIFIC_CHAT -> Mapper.INSTANCE.eventToChatEventResponse(event);
-        };
+        long startedAt = RequestStatistics.phaseStarted(Phase.MAPPING);
+        try {
+            return switch (event.getVisibility()) {
+                case PUBLIC -> Mapper.INSTANCE.eventToPublicEventResponse(event);
+                case FRIENDS_ONLY -> Mapper.INSTANCE.eventToFriendsEventResponse(event);
+                case SELECTED_INDIVIDUALS-> Mapper.INSTANCE.eventToIndividualEventResponse(event);
+                case SPECIFIC_CHAT -> Mapper.INSTANCE.eventToChatEventResponse(event);
+            };
+        } finally {
+            RequestStatistics.phaseEnded(Phase.MAPPING, startedAt);
+        }
+    }
+
+    private static long decodeUserCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return Long.parseLong(PageCursor.decode(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+
+    /**
+     * Maps a keyset page fetched with one extra row, the extra row only tells that there is a next page.
+     *
+     * @param events the events of the page plus at most one extra event
+     * @param limit the page size
+     * @return the page with the cursor of its last event, if there are more events
+     */
+    private CursorPageDto<EventSummaryResponseDto> toPage(List<EventRowDto> events, int limit) {
+
+        boolean hasNext = events.size() > limit;
+        List<EventRowDto> page = hasNext ? events.subList(0, limit) : events;
+
+        return new CursorPageDto<>(
+                toSummaries(page),
+                hasNext ? EventCursor.of(page.get(page.size() - 1)).encode() : null
+        );
+    }
+
+    private EventDeltaDto toDelta(SyncToken token, LocalDateTime to, List<EventRowDto> events, List<UUID> removed, int limit) {
+
+        boolean hasMore = events.size() > limit;
+        List<EventRowDto> page = hasMore ? events.subList(0, limit) : events;
+
+        SyncToken next = hasMore
+                ? new SyncToken(token.getFrom(), to, page.get(page.size() - 1).getId())
+                : SyncToken.since(to);
+
+        return new EventDeltaDto(toSummaries(page), removed, next.encode(), hasMore, false);
+    }
+
+    /**
+     * @return the token of a sync starting now, taken before the listing is read so that no change is missed
+     */
+    private String startSyncToken() {
+        return SyncToken.since(LocalDateTime.now().minus(Duration.ofMillis(syncLagMs))).encode();
+    }
+
+    private LocalDateTime windowEnd(SyncToken token) {
+        return token.getTo() != null
+                ? token.getTo()
+                : LocalDateTime.now().minus(Duration.ofMillis(syncLagMs));
+    }
+
+    private static UUID afterId(SyncToken token) {
+        return token.getAfterId() == null ? EventCursor.FIRST.getId() : token.getAfterId();
+    }
+
+    /**
+     * Maps event rows to summaries, the audience sizes of the non-public events are counted with one query
+     * on the audience index, so the work depends on the number of events, not on the size of their audiences.
+     *
+     * @param events the event rows
+     * @return the summaries in the same order, once per event
+     */
+    private List<EventSummaryResponseDto> toSummaries(List<EventRowDto> events) {
+
+        List<EventRowDto> distinct = EventSummaries.distinctById(events);
+        Map<UUID, Long> audienceCounts = eventAudienceService.countAudiences(EventSummaries.restrictedEventIds(distinct));
+
+        return EventSummaries.map(
+                distinct,
+                audienceCounts,
+                parallelMappingThreshold > 0 && distinct.size() >= parallelMappingThreshold
+        );
     }
 }
@@ -0,0 +1,285 @@
+package com.midel.service;
+
+import com.midel.dto.event.EventChangeDto;
+import com.midel.entity.enums.EventChangeType;
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Status;
+import com.midel.repository.EventAudienceRepository;
+import com.midel.repository.EventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes changes of events to the users who can see them over Server-Sent Events, so that clients do not have
+ * to poll <code>/events/shared</code>.
+ *
+ * <p>
+ * A stream is an async request that holds no servlet thread while idle. Changes are published once the
+ * transaction making them commits and dispatched on virtual threads: the recipients are resolved with one query
+ * for the events and one for their precomputed audience, and every recipient gets the change in its own bounded
+ * queue, see {@link EventStreamSubscriber}. Nothing is queried while nobody is subscribed.
+ * </p>
+ *
+ * <p>
+ * The owner receives every change of an event. Other users receive the changes of opened events they can see,
+ * everyone for public events and the audience otherwise, and the change that hides an event from them. Users
+ * who lose access through a change of visibility are not notified, they drop the event on their next resync.
+ * Subscribers are local to the node, which receives the changes made on it only.
+ * </p>
+ */
+@Service
+@Slf4j
+public class EventStreamService {
+
+    private final EventRepository eventRepository;
+    private final EventAudienceRepository eventAudienceRepository;
+
+    private final long timeoutMs;
+    private final int queueCapacity;
+    private final int maxConnections;
+    private final int maxConnectionsPerUser;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, Set<EventStreamSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final Counter resyncCounter;
+
+    public EventStreamService(
+            EventRepository eventRepository,
+            EventAudienceRepository eventAudienceRepository,
+            MeterRegistry meterRegistry,
+            @Value("${events.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${events.stream.queue-capacity:256}") int queueCapacity,
+            @Value("${events.stream.max-connections:20000}") int maxConnections,
+            @Value("${events.stream.max-connections-per-user:5}") int maxConnectionsPerUser
+    ) {
+        this.eventRepository = eventRepository;
+        this.eventAudienceRepository = eventAudienceRepository;
+        this.timeoutMs = timeoutMs;
+        this.queueCapacity = queueCapacity;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+
+        this.resyncCounter = Counter.builder("events.stream.resyncs")
+                .description("Queues of slow subscribers dropped in favor of a resync")
+                .register(meterRegistry);
+        Gauge.builder("events.stream.connections", connections, AtomicInteger::get)
+                .description("Open event streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the changes visible to the user.
+     *
+     * @param userId the user id
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(Long userId) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new IllegalStateException("Too many open event streams, try again later.");
+        }
+
+        SseEmitter emitter = createEmitter(timeoutMs);
+        EventStreamSubscriber subscriber = new EventStreamSubscriber(userId, emitter, queueCapacity);
+
+        try {
+            subscribers.compute(userId, (id, userSubscribers) -> {
+                if (userSubscribers == null) {
+                    userSubscribers = ConcurrentHashMap.newKeySet();
+                } else if (userSubscribers.size() >= maxConnectionsPerUser) {
+                    throw new IllegalStateException("At most " + maxConnectionsPerUser + " event streams can be open per user.");
+                }
+                userSubscribers.add(subscriber);
+                return userSubscribers;
+            });
+        } catch (IllegalStateException e) {
+            connections.decrementAndGet();
+            throw e;
+        }
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> {
+            unsubscribe(subscriber);
+            emitter.complete();
+        });
+
+        return emitter;
+    }
+
+    /**
+     * Publishes a change of the event once the surrounding transaction commits.
+     *
+     * @param type the change
+     * @param eventId the event id
+     */
+    public void publish(EventChangeType type, UUID eventId) {
+        publish(type, List.of(eventId));
+    }
+
+    /**
+     * Publishes the same change of many events once the surrounding transaction commits.
+     *
+     * @param type the change
+     * @param eventIds the event ids
+     */
+    public void publish(EventChangeType type, Collection<UUID> eventIds) {
+        if (eventIds.isEmpty() || subscribers.isEmpty()) {
+            return;
+        }
+
+        List<UUID> ids = List.copyOf(eventIds);
+        LocalDateTime occurredAt = LocalDateTime.now();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executor.execute(() -> dispatch(type, ids, occurredAt));
+                }
+            });
+        } else {
+            executor.execute(() -> dispatch(type, ids, occurredAt));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${events.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Set<EventStreamSubscriber> userSubscribers : subscribers.values()) {
+            for (EventStreamSubscriber subscriber : userSubscribers) {
+                subscriber.heartbeat();
+                drain(subscriber);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Set<EventStreamSubscriber> userSubscribers : subscribers.values()) {
+            for (EventStreamSubscriber subscriber : userSubscribers) {
+                unsubscribe(subscriber);
+                subscriber.getEmitter().complete();
+            }
+        }
+        executor.shutdownNow();
+    }
+
+    SseEmitter createEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    int connectionCount() {
+        return connections.get();
+    }
+
+    void dispatch(EventChangeType type, List<UUID> eventIds, LocalDateTime occurredAt) {
+        try {
+            List<EventRepository.ChangeTarget> targets = eventRepository.findChangeTargets(eventIds);
+
+            List<UUID> restricted = new ArrayList<>();
+            for (EventRepository.ChangeTarget target : targets) {
+                if (target.getVisibility() != EventVisibility.PUBLIC && reachesAudience(type, target)) {
+                    restricted.add(target.getId());
+                }
+            }
+
+            Map<UUID, List<Long>> audiences = new HashMap<>();
+            if (!restricted.isEmpty()) {
+                for (EventAudienceRepository.AudienceMember member : eventAudienceRepository.findMembersByEventIds(restricted)) {
+                    audiences.computeIfAbsent(member.getEventId(), id -> new ArrayList<>()).add(member.getUserId());
+                }
+            }
+
+            for (EventRepository.ChangeTarget target : targets) {
+                EventChangeDto change = new EventChangeDto(
+                        type, target.getId(), target.getVisibility(), target.getStatus(), occurredAt
+                );
+                deliver(target.getOwnerId(), change);
+
+                if (!reachesAudience(type, target)) {
+                    continue;
+                }
+
+                Collection<Long> recipients = target.getVisibility() == EventVisibility.PUBLIC
+                        ? subscribers.keySet()
+                        : audiences.getOrDefault(target.getId(), List.of());
+                for (Long userId : recipients) {
+                    if (!userId.equals(target.getOwnerId())) {
+                        deliver(userId, change);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not dispatch {} of events {}", type, eventIds, e);
+        }
+    }
+
+    /**
+     * Only the owner sees events that are not opened, the others are told when an event disappears.
+     */
+    private static boolean reachesAudience(EventChangeType type, EventRepository.ChangeTarget target) {
+        return target.getStatus() == Status.OPENED || type.hidesEvent();
+    }
+
+    private void deliver(Long userId, EventChangeDto change) {
+        Set<EventStreamSubscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+
+        for (EventStreamSubscriber subscriber : userSubscribers) {
+            if (!subscriber.offer(change)) {
+                resyncCounter.increment();
+            }
+            drain(subscriber);
+        }
+    }
+
+    private void drain(EventStreamSubscriber subscriber) {
+        if (!subscriber.startDrain()) {
+            return;
+        }
+
+        executor.execute(() -> {
+            try {
+                subscriber.drain();
+            } catch (IOException | IllegalStateException e) {
+                // The client is gone or the emitter completed, the container completes the request
+                log.debug("Closing the event stream of user {}: {}", subscriber.getUserId(), e.getMessage());
+                unsubscribe(subscriber);
+            }
+        });
+    }
+
+    private void unsubscribe(EventStreamSubscriber subscriber) {
+        if (!subscriber.close()) {
+            return;
+        }
+
+        connections.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.getUserId(), (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.midel.service;
+
+import com.midel.dto.event.EventChangeDto;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Open event stream of one user with its bounded queue of changes waiting to be sent.
+ *
+ * <p>
+ * Changes are offered by the dispatcher and sent by {@link #drain()}, which runs on at most one thread at a time.
+ * When a slow client lets the queue fill up, the pending changes are dropped and a <code>resync</code> event
+ * is sent instead, telling the client to reload <code>/events/shared</code>, so a subscriber never holds more
+ * than the queue capacity.
+ * </p>
+ */
+final class EventStreamSubscriber {
+
+    static final String CHANGE_EVENT = "change";
+    static final String RESYNC_EVENT = "resync";
+
+    @Getter
+    private final Long userId;
+    @Getter
+    private final SseEmitter emitter;
+
+    private final BlockingQueue<EventChangeDto> queue;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private volatile boolean resync;
+    private volatile boolean heartbeat;
+
+    EventStreamSubscriber(Long userId, SseEmitter emitter, int capacity) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * @param change the change to send
+     * @return false if the queue was full and its changes were replaced by a resync
+     */
+    boolean offer(EventChangeDto change) {
+        if (queue.offer(change)) {
+            return true;
+        }
+
+        queue.clear();
+        resync = true;
+        return false;
+    }
+
+    /**
+     * Asks for a heartbeat comment unless changes are already waiting, which keep the connection alive as well.
+     */
+    void heartbeat() {
+        if (queue.isEmpty()) {
+            heartbeat = true;
+        }
+    }
+
+    /**
+     * @return true if the caller has to run {@link #drain()}, false if another thread already drains
+     */
+    boolean startDrain() {
+        return !closed.get() && draining.compareAndSet(false, true);
+    }
+
+    /**
+     * Sends everything pending, rechecking after releasing the drain so that a change offered meanwhile
+     * is never left behind.
+     *
+     * @throws IOException if the client is gone
+     */
+    void drain() throws IOException {
+        try {
+            do {
+                if (resync) {
+                    resync = false;
+                    emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(""));
+                }
+
+                EventChangeDto change;
+                while ((change = queue.poll()) != null) {
+                    emitter.send(SseEmitter.event().name(CHANGE_EVENT).data(change, MediaType.APPLICATION_JSON));
+                }
+
+                if (heartbeat) {
+                    heartbeat = false;
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+
+                draining.set(false);
+            } while (hasPending() && startDrain());
+        } catch (IOException | RuntimeException e) {
+            draining.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * @return true the first time only
+     */
+    boolean close() {
+        queue.clear();
+        return closed.compareAndSet(false, true);
+    }
+
+    int pending() {
+        return queue.size();
+    }
+
+    private boolean hasPending() {
+        return resync || heartbeat || !queue.isEmpty();
+    }
+
+}
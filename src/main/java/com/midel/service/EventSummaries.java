@@ -0,0 +1,122 @@
+package com.midel.service;
+
+import com.midel.dto.chat.ChatSummaryResponseDto;
+import com.midel.dto.event.EventRowDto;
+import com.midel.dto.event.EventSummaryResponseDto;
+import com.midel.dto.user.UserResponseDto;
+import com.midel.entity.enums.EventVisibility;
+import com.midel.monitoring.Phase;
+import com.midel.monitoring.RequestStatistics;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Mapping of event listing rows to summaries, kept free of repositories so that it can be benchmarked.
+ *
+ * <p>
+ * The listings keep the order of the query and deduplicate by event id only, so no DTO is ever hashed.
+ * </p>
+ */
+public final class EventSummaries {
+
+    private EventSummaries() {
+    }
+
+    /**
+     * @param rows the rows in query order
+     * @return the rows without later rows repeating an event id, the list itself if there are none
+     */
+    public static List<EventRowDto> distinctById(List<EventRowDto> rows) {
+        Set<UUID> seen = HashSet.newHashSet(rows.size());
+        List<EventRowDto> distinct = null;
+
+        for (int i = 0; i < rows.size(); i++) {
+            EventRowDto row = rows.get(i);
+            if (!seen.add(row.getId())) {
+                if (distinct == null) {
+                    distinct = new ArrayList<>(rows.subList(0, i));
+                }
+            } else if (distinct != null) {
+                distinct.add(row);
+            }
+        }
+
+        return distinct == null ? rows : distinct;
+    }
+
+    /**
+     * @param rows the rows
+     * @return the ids of the non-public events, the only ones with an audience
+     */
+    public static List<UUID> restrictedEventIds(List<EventRowDto> rows) {
+        List<UUID> ids = new ArrayList<>(rows.size());
+        for (EventRowDto row : rows) {
+            if (row.getVisibility() != EventVisibility.PUBLIC) {
+                ids.add(row.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Maps the rows in order.
+     *
+     * @param rows the distinct rows
+     * @param audienceCounts the audience size by event id, events without audience may be missing
+     * @param parallel whether to map on the common fork join pool, only worth it for long lists
+     * @return the summaries in the order of the rows
+     */
+    public static List<EventSummaryResponseDto> map(List<EventRowDto> rows, Map<UUID, Long> audienceCounts, boolean parallel) {
+        long startedAt = RequestStatistics.phaseStarted(Phase.MAPPING);
+        try {
+            if (parallel) {
+                return rows.parallelStream()
+                        .map(row -> map(row, audienceCounts))
+                        .toList();
+            }
+
+            List<EventSummaryResponseDto> summaries = new ArrayList<>(rows.size());
+            for (EventRowDto row : rows) {
+                summaries.add(map(row, audienceCounts));
+            }
+            return summaries;
+        } finally {
+            RequestStatistics.phaseEnded(Phase.MAPPING, startedAt);
+        }
+    }
+
+    private static EventSummaryResponseDto map(EventRowDto event, Map<UUID, Long> audienceCounts) {
+        EventSummaryResponseDto summary = new EventSummaryResponseDto();
+        summary.setId(event.getId());
+        summary.setTitle(event.getTitle());
+        summary.setDescription(event.getDescription());
+        summary.setVisibility(event.getVisibility());
+        summary.setStatus(event.getStatus());
+        summary.setCreatedAt(event.getCreatedAt());
+        summary.setExpirationAt(event.getExpirationAt());
+        summary.setOwner(new UserResponseDto(event.getOwnerId(), event.getOwnerUsername()));
+
+        if (event.getVisibility() != EventVisibility.PUBLIC) {
+            summary.setAudienceCount(audienceCounts.getOrDefault(event.getId(), 0L));
+        }
+
+        // The audience of a SPECIFIC_CHAT event is made of the chat members
+        if (event.getVisibility() == EventVisibility.SPECIFIC_CHAT && event.getAllowedChatId() != null) {
+            summary.setSharedChat(new ChatSummaryResponseDto(
+                    event.getAllowedChatId(),
+                    event.getAllowedChatTitle(),
+                    event.getAllowedChatOwnerId(),
+                    event.getAllowedChatOwnerUsername(),
+                    summary.getAudienceCount()
+            ));
+        }
+
+        return summary;
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.midel.service;
+
+import com.midel.repository.EventTombstoneRepository;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads the tombstones of the delta sync and compacts them.
+ *
+ * <p>
+ * Tombstones are kept for the retention only, deleted in batches by the node holding the compaction lease.
+ * Sync tokens older than the retention can miss tombstones, so clients presenting one are asked to reload
+ * the whole listing instead.
+ * </p>
+ */
+@Service
+@Slf4j
+public class EventTombstoneService {
+
+    static final String LEASE_NAME = "event-tombstone-compaction";
+
+    private final EventTombstoneRepository eventTombstoneRepository;
+    private final LeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Getter
+    private final Duration retention;
+    private final Duration leaseTtl;
+    private final int batchSize;
+
+    public EventTombstoneService(
+            EventTombstoneRepository eventTombstoneRepository,
+            LeaseService leaseService,
+            PlatformTransactionManager transactionManager,
+            @Value("${events.sync.tombstone-retention-hours:720}") long retentionHours,
+            @Value("${events.sync.compaction-lease-ttl-seconds:300}") long leaseTtlSeconds,
+            @Value("${events.sync.compaction-batch-size:10000}") int batchSize
+    ) {
+        this.eventTombstoneRepository = eventTombstoneRepository;
+        this.leaseService = leaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = Duration.ofHours(retentionHours);
+        this.leaseTtl = Duration.ofSeconds(leaseTtlSeconds);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param userId the user id
+     * @param from the start of the window, exclusive
+     * @param to the end of the window, inclusive
+     * @return the events the user lost access to within the window and still cannot see
+     */
+    public List<UUID> findLostEventIds(Long userId, LocalDateTime from, LocalDateTime to) {
+        return eventTombstoneRepository.findLostEventIds(userId, from, to);
+    }
+
+    /**
+     * @param userId the owner id
+     * @param from the start of the window, exclusive
+     * @param to the end of the window, inclusive
+     * @return the events of the owner moved to the archive within the window
+     */
+    public List<UUID> findArchivedEventIds(Long userId, LocalDateTime from, LocalDateTime to) {
+        return eventTombstoneRepository.findArchivedEventIds(userId, from, to);
+    }
+
+    /**
+     * @param token the sync token
+     * @param now the current time
+     * @return true if tombstones the token needs may already be compacted
+     */
+    public boolean isExpired(SyncToken token, LocalDateTime now) {
+        return token.getFrom().isBefore(now.minus(retention));
+    }
+
+    @Scheduled(fixedDelayString = "${events.sync.compaction-interval-ms:3600000}")
+    public void compact() {
+        if (!leaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            return;
+        }
+
+        try {
+            LocalDateTime before = LocalDateTime.now().minus(retention);
+            long total = 0;
+            Integer deleted;
+            do {
+                deleted = transactionTemplate.execute(
+                        status -> eventTombstoneRepository.deleteBatchBefore(before, batchSize)
+                );
+                total += deleted == null ? 0 : deleted;
+            } while (deleted != null && deleted == batchSize);
+
+            if (total > 0) {
+                log.info("Compacted {} event tombstones older than {}", total, before);
+            }
+        } finally {
+            leaseService.release(LEASE_NAME);
+        }
+    }
+
+}
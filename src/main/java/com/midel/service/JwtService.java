@@ -1,8 +1,11 @@
 package com.midel.service;
 
 import com.midel.entity.User;
+import com.midel.entity.enums.Role;
+import com.midel.security.JwtPrincipal;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -11,20 +14,38 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
 @Service
 @Slf4j
 public class JwtService {
-    @Value("${token.signing.key}")
-    private String jwtSigningKey;
 
-    @Value("${token.token-lifetime}")
-    private int tokenLifetimeInSeconds;
+    public static final String ID_CLAIM = "id";
+    public static final String ROLE_CLAIM = "role";
+    public static final String VERSION_CLAIM = "ver";
+
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+    private final int tokenLifetimeInSeconds;
+
+    /**
+     * Decodes the signing key and builds the token parser once, so that every request
+     * reuses them instead of rebuilding both for each parse.
+     *
+     * @param jwtSigningKey the Base64 encoded signing key
+     * @param tokenLifetimeInSeconds the token lifetime
+     */
+    public JwtService(
+            @Value("${token.signing.key}") String jwtSigningKey,
+            @Value("${token.token-lifetime}") int tokenLifetimeInSeconds
+    ) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSigningKey));
+        this.jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        this.tokenLifetimeInSeconds = tokenLifetimeInSeconds;
+    }
 
     /**
      * Extracts the username from the token.
@@ -33,7 +54,28 @@ public class JwtService {
      * @return the username
      */
     public String extractUserName(String token) {
-        return extractClaim(token, Claims::getSubject);
+        Claims claims = extractVerifiedClaims(token);
+        return claims == null ? null : claims.getSubject();
+    }
+
+    /**
+     * Verifies the signature of the token and extracts its data.
+     *
+     * <p>
+     * The returned claims are immutable and can be passed to {@link #isTokenValid(Claims, UserDetails)}
+     * so that the token is parsed only once per request.
+     * </p>
+     *
+     * @param token the token
+     * @return the verified data, or <code>null</code> if the token is expired
+     */
+    public Claims extractVerifiedClaims(String token) {
+        try {
+            return jwtParser.parseSignedClaims(token).getPayload();
+        } catch (ExpiredJwtException expiredJwtException) {
+            log.warn("{}", expiredJwtException.getMessage());
+            return null;
+        }
     }
 
     /**
@@ -45,8 +87,9 @@ public class JwtService {
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
         if (userDetails instanceof User customUserDetails) {
-            claims.put("id", customUserDetails.getId());
-            claims.put("role", customUserDetails.getRole());
+            claims.put(ID_CLAIM, customUserDetails.getId());
+            claims.put(ROLE_CLAIM, customUserDetails.getRole());
+            claims.put(VERSION_CLAIM, customUserDetails.getTokenVersion());
         }
         return generateToken(claims, userDetails);
     }
@@ -59,26 +102,55 @@ public class JwtService {
      * @return true if the token is valid
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String userName = extractUserName(token);
-        return (userName.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractVerifiedClaims(token), userDetails);
     }
 
     /**
-     * Extracts data from the token.
+     * Checks if the already verified token data belongs to the user and is not expired.
      *
-     * @param token the token
-     * @param claimsResolvers the function to extract data
-     * @param <T> the type of data
-     * @return the data
+     * <p>
+     * When the user details are a {@link User} entity or a snapshot of it, the token version must also match the
+     * current version of the user, so tokens issued before {@link UserService#revokeTokens(Long)} are rejected.
+     * </p>
+     *
+     * @param claims the verified token data
+     * @param userDetails the user details
+     * @return true if the token is valid
      */
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolvers) {
-        try {
-            final Claims claims = extractAllClaims(token);
-            return claimsResolvers.apply(claims);
-        } catch (ExpiredJwtException expiredJwtException) {
-            log.warn("{}", expiredJwtException.getMessage());
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims != null
+                && userDetails.getUsername().equals(claims.getSubject())
+                && !isTokenExpired(claims)
+                && isCurrentVersion(claims, userDetails);
+    }
+
+    /**
+     * Builds a principal from the verified token data without loading the user.
+     *
+     * @param claims the verified token data
+     * @return the principal, or <code>null</code> if the token does not carry the user id and role
+     */
+    public JwtPrincipal extractPrincipal(Claims claims) {
+        Object id = claims.get(ID_CLAIM);
+        Object role = claims.get(ROLE_CLAIM);
+
+        if (!(id instanceof Number number) || role == null) {
             return null;
         }
+
+        return new JwtPrincipal(number.longValue(), claims.getSubject(), Role.valueOf(role.toString()));
+    }
+
+    /**
+     * Checks if the token was issued more than the given number of seconds ago.
+     *
+     * @param claims the verified token data
+     * @param seconds the age in seconds
+     * @return true if the token is older than the given age or has no issue date
+     */
+    public boolean isIssuedBefore(Claims claims, long seconds) {
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null || issuedAt.getTime() < System.currentTimeMillis() - 1000L * seconds;
     }
 
     /**
@@ -94,50 +166,42 @@ public class JwtService {
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + 1000L * tokenLifetimeInSeconds))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     /**
-     * Checks if the token is expired.
+     * Extracts the token version, tokens issued before versioning are treated as version 0.
      *
-     * @param token the token
-     * @return true if the token is expired
-     */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    /**
-     * Extracts the expiration date from the token.
-     *
-     * @param token the token
-     * @return the expiration date
+     * @param claims the verified token data
+     * @return the token version
      */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private int extractTokenVersion(Claims claims) {
+        return claims.get(VERSION_CLAIM) instanceof Number version ? version.intValue() : 0;
     }
 
     /**
-     * Extracts all data from the token.
-     *
-     * @param token the token
-     * @return the data
+     * @param claims the verified token data
+     * @param userDetails the user details
+     * @return true if the user details do not carry a token version or it matches the one of the token
      */
-    @SuppressWarnings("deprecation")
-    private Claims extractAllClaims(String token) throws ExpiredJwtException {
-        return Jwts.parser().setSigningKey(getSigningKey()).build().parseClaimsJws(token)
-                .getBody();
+    private boolean isCurrentVersion(Claims claims, UserDetails userDetails) {
+        Integer version = switch (userDetails) {
+            case User user -> user.getTokenVersion();
+            case JwtPrincipal principal -> principal.getTokenVersion();
+            default -> null;
+        };
+        return version == null || extractTokenVersion(claims) == version;
     }
 
     /**
-     * Gets the signing key for the token.
+     * Checks if the token is expired.
      *
-     * @return the key
+     * @param claims the verified token data
+     * @return true if the token is expired
      */
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSigningKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package com.midel.service;
+
+import com.midel.repository.SchedulerLeaseRepository;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Database-backed leases that let exactly one node of the cluster run a background job at a time.
+ */
+@Service
+@Slf4j
+public class LeaseService {
+
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+
+    /**
+     * Identity of this node, unique per application start.
+     */
+    @Getter
+    private final String owner;
+
+    public LeaseService(SchedulerLeaseRepository schedulerLeaseRepository) {
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        this.owner = hostName() + "/" + UUID.randomUUID();
+    }
+
+    /**
+     * Acquires or renews the lease for this node.
+     *
+     * @param name the name of the job
+     * @param ttl how long the lease stays valid without renewal
+     * @return true if this node holds the lease
+     */
+    @Transactional
+    public boolean tryAcquire(String name, Duration ttl) {
+        return schedulerLeaseRepository.acquire(name, owner, ttl.toSeconds()) == 1;
+    }
+
+    /**
+     * Gives up the lease so another node can take it over without waiting for the expiration.
+     *
+     * @param name the name of the job
+     */
+    @Transactional
+    public void release(String name) {
+        schedulerLeaseRepository.release(name, owner);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            log.warn("Could not resolve the host name for lease ownership", e);
+            return "unknown";
+        }
+    }
+
+}
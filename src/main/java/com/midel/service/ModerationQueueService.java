@@ -0,0 +1,138 @@
+package com.midel.service;
+
+import com.midel.dto.event.EventRowDto;
+import com.midel.dto.event.EventSummaryResponseDto;
+import com.midel.dto.event.ModerationClaimResponseDto;
+import com.midel.entity.enums.Status;
+import com.midel.repository.EventRepository;
+import com.midel.repository.ModerationClaimRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Work queue of the unverified events shared by the moderators.
+ *
+ * <p>
+ * A moderator claims the next batch of unverified events, which nobody else gets until the claims expire or
+ * the events are approved or rejected. The claim is a single statement locking its candidates with
+ * <code>SKIP LOCKED</code>, so concurrent moderators never wait for each other nor review the same event.
+ * </p>
+ */
+@Service
+@Slf4j
+public class ModerationQueueService {
+
+    private final ModerationClaimRepository moderationClaimRepository;
+    private final EventRepository eventRepository;
+    private final EventAudienceService eventAudienceService;
+    private final UserService userService;
+
+    private final Duration leaseDuration;
+
+    public ModerationQueueService(
+            ModerationClaimRepository moderationClaimRepository,
+            EventRepository eventRepository,
+            EventAudienceService eventAudienceService,
+            UserService userService,
+            @Value("${moderation.queue.lease-seconds:300}") long leaseSeconds
+    ) {
+        this.moderationClaimRepository = moderationClaimRepository;
+        this.eventRepository = eventRepository;
+        this.eventAudienceService = eventAudienceService;
+        this.userService = userService;
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+    }
+
+    /**
+     * Claims the oldest unverified events that nobody has claimed for the current moderator.
+     *
+     * @param limit the number of events to claim
+     * @return the claimed events, oldest first
+     */
+    @Transactional
+    public ModerationClaimResponseDto claim(Integer limit) {
+
+        int batchSize = PageCursor.limit(limit);
+        Long moderatorId = userService.getCurrentUser().getId();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(leaseDuration);
+
+        List<UUID> claimed = moderationClaimRepository.claimNext(moderatorId, now, expiresAt, batchSize);
+        if (claimed.isEmpty()) {
+            return new ModerationClaimResponseDto(List.of(), expiresAt);
+        }
+
+        List<EventRowDto> rows = new ArrayList<>(eventRepository.findRowsByIds(claimed));
+        rows.sort(Comparator.comparing(EventRowDto::getCreatedAt).thenComparing(EventRowDto::getId));
+
+        List<EventSummaryResponseDto> events = EventSummaries.map(
+                rows,
+                eventAudienceService.countAudiences(EventSummaries.restrictedEventIds(rows)),
+                false
+        );
+
+        log.debug("Moderator {} claimed {} events until {}", moderatorId, events.size(), expiresAt);
+        return new ModerationClaimResponseDto(events, expiresAt);
+    }
+
+    /**
+     * Gives back all events claimed by the current moderator.
+     *
+     * @return the number of released claims
+     */
+    @Transactional
+    public int releaseClaims() {
+        return moderationClaimRepository.deleteByModeratorId(userService.getCurrentUser().getId());
+    }
+
+    /**
+     * @param eventIds the event ids
+     * @param moderatorId the moderator about to change the event statuses
+     * @return the events another moderator holds an active claim on
+     */
+    public List<UUID> findClaimedByOther(Collection<UUID> eventIds, Long moderatorId) {
+        return eventIds.isEmpty()
+                ? List.of()
+                : moderationClaimRepository.findClaimedByOther(eventIds, moderatorId, LocalDateTime.now());
+    }
+
+    /**
+     * @param ownerId the owner filter of a bulk status change, <code>null</code> for any owner
+     * @param currentStatus the current status filter, <code>null</code> for any status
+     * @param status the new status
+     * @param moderatorId the moderator about to change the event statuses
+     * @param max the maximum number of events to return
+     * @return the matching events another moderator holds an active claim on
+     */
+    public List<UUID> findClaimedByOther(Long ownerId, Status currentStatus, Status status, Long moderatorId, int max) {
+        return moderationClaimRepository.findClaimedByOther(
+                ownerId,
+                currentStatus == null ? null : currentStatus.name(),
+                status.name(),
+                moderatorId,
+                LocalDateTime.now(),
+                max
+        );
+    }
+
+    /**
+     * Ends the claims of events whose status was changed by the moderator. Only the claims of the moderator
+     * and the expired ones are ended, an active claim of another moderator is left for them to complete.
+     *
+     * @param eventIds the event ids
+     * @param moderatorId the moderator who changed the event statuses
+     */
+    @Transactional
+    public void complete(Collection<UUID> eventIds, Long moderatorId) {
+        if (!eventIds.isEmpty()) {
+            moderationClaimRepository.deleteCompleted(eventIds, moderatorId, LocalDateTime.now());
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.midel.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encoding of opaque keyset pagination cursors and validation of page sizes.
+ */
+public final class PageCursor {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final String SEPARATOR = "|";
+
+    private PageCursor() {
+    }
+
+    /**
+     * Encodes the sort keys of the last returned row into an opaque cursor.
+     *
+     * @param keys the sort keys
+     * @return the cursor
+     */
+    public static String encode(Object... keys) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                builder.append(SEPARATOR);
+            }
+            builder.append(keys[i]);
+        }
+
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes the sort keys from a cursor created by {@link #encode(Object...)}.
+     *
+     * @param cursor the cursor
+     * @param keyCount the expected number of keys
+     * @return the keys
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static String[] decode(String cursor, int keyCount) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] keys = decoded.split("\\|", -1);
+
+            if (keys.length != keyCount) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+
+    /**
+     * @param limit the requested page size, may be <code>null</code>
+     * @return the page size
+     * @throws IllegalArgumentException if the page size is out of range
+     */
+    public static int limit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+
+        return limit;
+    }
+
+}
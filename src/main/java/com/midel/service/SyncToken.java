@@ -0,0 +1,63 @@
+package com.midel.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+/**
+ * Position of a client in the delta sync of an event listing.
+ *
+ * <p>
+ * The client has seen every change up to <code>from</code>. While the changes of a window are paged,
+ * the token also carries the end of the window and the last returned event id, the changes are ordered by id.
+ * </p>
+ */
+@Getter
+@RequiredArgsConstructor
+public class SyncToken {
+
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final UUID afterId;
+
+    public static SyncToken since(LocalDateTime from) {
+        return new SyncToken(from, null, null);
+    }
+
+    /**
+     * @param token the token
+     * @return the position
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static SyncToken decode(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("Invalid sync token.");
+        }
+
+        String[] keys = PageCursor.decode(token, 3);
+        try {
+            return new SyncToken(
+                    LocalDateTime.parse(keys[0]),
+                    keys[1].isEmpty() ? null : LocalDateTime.parse(keys[1]),
+                    keys[2].isEmpty() ? null : UUID.fromString(keys[2])
+            );
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid sync token.");
+        }
+    }
+
+    /**
+     * @return true on the first page of a window, which also reports the removed events
+     */
+    public boolean isFirstPage() {
+        return afterId == null;
+    }
+
+    public String encode() {
+        return PageCursor.encode(from, to == null ? "" : to, afterId == null ? "" : afterId);
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.midel.service;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random graphs and distributions for the synthetic data, kept free of the database so that runs with the same
+ * seed can be checked to be identical.
+ */
+public final class SyntheticGraph {
+
+    /**
+     * Receives the edges of a generated graph.
+     */
+    @FunctionalInterface
+    public interface EdgeConsumer {
+        void accept(int from, int to);
+    }
+
+    private SyntheticGraph() {
+    }
+
+    /**
+     * Generates an undirected Barabási–Albert graph, whose degrees follow a power law like real friend graphs:
+     * a few hubs with many friends and a long tail of users with only a few.
+     *
+     * <p>
+     * The first <code>edgesPerNode + 1</code> nodes form a clique, every later node is linked to
+     * <code>edgesPerNode</code> distinct earlier nodes picked with a probability proportional to their degree.
+     * Picking a uniform entry of the list of all edge endpoints so far gives exactly that probability, so
+     * the whole graph takes linear time and one <code>int</code> array of twice the number of edges.
+     * </p>
+     *
+     * @param nodes the number of nodes
+     * @param edgesPerNode the number of edges each new node brings
+     * @param random the source of randomness, a given seed always gives the same edges in the same order
+     * @param consumer receives every edge once, with <code>from</code> greater than <code>to</code>
+     * @return the number of edges
+     */
+    public static long preferentialAttachment(int nodes, int edgesPerNode, SplittableRandom random, EdgeConsumer consumer) {
+        int seedNodes = Math.min(nodes, edgesPerNode + 1);
+        if (edgesPerNode == 0 || seedNodes < 2) {
+            return 0;
+        }
+
+        long edgeCount = (long) seedNodes * (seedNodes - 1) / 2 + (long) (nodes - seedNodes) * edgesPerNode;
+        if (edgeCount * 2 > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("The graph has too many edges: " + edgeCount + ".");
+        }
+
+        int[] endpoints = new int[(int) (edgeCount * 2)];
+        int size = 0;
+
+        for (int from = 1; from < seedNodes; from++) {
+            for (int to = 0; to < from; to++) {
+                consumer.accept(from, to);
+                endpoints[size++] = from;
+                endpoints[size++] = to;
+            }
+        }
+
+        int[] targets = new int[edgesPerNode];
+        for (int from = seedNodes; from < nodes; from++) {
+            int picked = 0;
+            while (picked < edgesPerNode) {
+                int to = endpoints[random.nextInt(size)];
+                if (!contains(targets, picked, to)) {
+                    targets[picked++] = to;
+                }
+            }
+
+            for (int i = 0; i < edgesPerNode; i++) {
+                consumer.accept(from, targets[i]);
+                endpoints[size++] = from;
+                endpoints[size++] = targets[i];
+            }
+        }
+
+        return edgeCount;
+    }
+
+    /**
+     * Samples a bounded power law with inverse transform sampling, small values being the most frequent.
+     *
+     * @param min the smallest value
+     * @param max the largest value
+     * @param exponent the exponent of the density, 0 for a uniform distribution
+     * @param random the source of randomness
+     * @return a value between <code>min</code> and <code>max</code>, both inclusive
+     */
+    public static int boundedPowerLaw(int min, int max, double exponent, SplittableRandom random) {
+        if (min >= max) {
+            return min;
+        }
+
+        double u = random.nextDouble();
+        double low = min;
+        double high = max + 1.0;
+        double value;
+
+        if (exponent == 0) {
+            value = low + u * (high - low);
+        } else if (exponent == 1) {
+            value = low * Math.pow(high / low, u);
+        } else {
+            double a = 1 - exponent;
+            double lowA = Math.pow(low, a);
+            value = Math.pow(lowA + u * (Math.pow(high, a) - lowA), 1 / a);
+        }
+
+        return (int) Math.min(max, Math.max(min, Math.floor(value)));
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -4,13 +4,18 @@ import com.midel.dto.Mapper;
 import com.midel.dto.user.UserResponseDto;
 import com.midel.dto.user.UserWithFriendsResponseDto;
 import com.midel.entity.User;
+import com.midel.monitoring.Phase;
+import com.midel.monitoring.RequestStatistics;
 import com.midel.repository.UserRepository;
+import com.midel.security.JwtPrincipal;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 
@@ -19,6 +24,8 @@ import java.util.*;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final CurrentUserCache currentUserCache;
+    private final EventAudienceService eventAudienceService;
 
     public User save(User user) {
         return userRepository.save(user);
@@ -29,6 +36,7 @@ public class UserService {
             throw new EntityExistsException("A user with this username already exists");
         }
 
+        currentUserCache.invalidate(user);
         return save(user);
     }
 
@@ -37,21 +45,43 @@ public class UserService {
                 .orElseThrow(() -> new EntityNotFoundException(("User with id=" + userId + " not found.")));
     }
 
+    /**
+     * @param userIds the user ids
+     * @return the ids of the users that exist, with a single query
+     */
+    public List<Long> getExistingIds(Collection<Long> userIds) {
+        return userIds.isEmpty() ? List.of() : userRepository.findExistingIds(userIds);
+    }
+
     public User getByUsername(String username) {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new EntityNotFoundException("User with username=" + username + " not found."));
     }
 
     public Collection<UserWithFriendsResponseDto> getAll() {
-        return Mapper.INSTANCE.userToUserWithFriendsResponse(userRepository.findAll());
+        List<User> users = userRepository.findAllWithFriends();
+
+        long startedAt = RequestStatistics.phaseStarted(Phase.MAPPING);
+        try {
+            return Mapper.INSTANCE.userToUserWithFriendsResponse(users);
+        } finally {
+            RequestStatistics.phaseEnded(Phase.MAPPING, startedAt);
+        }
     }
 
     public Collection<UserResponseDto> getFriends() {
         User user = getCurrentUser();
+        List<User> friends = userRepository.findFriendsByUserId(user.getId());
 
-        return Mapper.INSTANCE.userToUserResponse(user.getFriends());
+        long startedAt = RequestStatistics.phaseStarted(Phase.MAPPING);
+        try {
+            return Mapper.INSTANCE.userToUserResponse(friends);
+        } finally {
+            RequestStatistics.phaseEnded(Phase.MAPPING, startedAt);
+        }
     }
 
+    @Transactional
     public void addFriend(Long friendId) {
         User user = getCurrentUser();
 
@@ -63,34 +93,89 @@ public class UserService {
         }
 
         userRepository.save(user);
+        eventAudienceService.addFriend(user.getId(), friend.getId());
+        currentUserCache.invalidate(user);
     }
 
 
+    /**
+     * Invalidates all tokens issued to the user so far by bumping the token version.
+     *
+     * @param userId the user id
+     */
+    public void revokeTokens(Long userId) {
+        User user = getById(userId);
+        user.setTokenVersion(user.getTokenVersion() + 1);
+
+        userRepository.save(user);
+        currentUserCache.invalidate(user);
+    }
+
     public UserDetailsService userDetailsService() {
         return this::getByUsername;
     }
 
     /**
-     * @return current user from the Spring Security context
+     * Loads the user for token authentication, served from the shared user cache when it is enabled.
+     *
+     * @param username the username from the token
+     * @return an immutable snapshot of the user
      */
-    public User getCurrentUser() {
-        var username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return getByUsername(username);
+    public JwtPrincipal loadUserForAuthentication(String username) {
+        JwtPrincipal principal = currentUserCache.getShared(username);
+
+        if (principal == null) {
+            principal = JwtPrincipal.of(getByUsername(username));
+            currentUserCache.putShared(principal);
+        }
+
+        return principal;
+    }
+
+    /**
+     * Loads the token version and role of the user for the revalidation of an old token in the stateless
+     * principal mode, served from the principal cache for its short ttl.
+     *
+     * @param userId the user id from the token
+     * @return a snapshot of the user
+     */
+    public JwtPrincipal loadPrincipal(Long userId) {
+        JwtPrincipal principal = currentUserCache.getPrincipal(userId);
+
+        if (principal == null) {
+            principal = JwtPrincipal.of(getById(userId));
+            currentUserCache.putPrincipal(principal);
+        }
+
+        return principal;
     }
 
-    @Deprecated
-    public void generateFriends() {
-        List<User> userList = userRepository.findAll();
-
-        for(User user : userRepository.findAll()) {
-            int friendCount = new Random().nextInt(0, userList.size()-1);
-            Collections.shuffle(userList);
-            for (int i = 0; i < friendCount; i++) {
-                if (!userList.get(i).getId().equals(user.getId())) {
-                    user.getFriends().add(userList.get(i));
-                }
-            }
-            userRepository.save(user);
+    /**
+     * Resolves the current user from the Spring Security context.
+     *
+     * <p>
+     * The user is memoized for the rest of the request. When the principal already carries the user id,
+     * as the {@link JwtPrincipal} set by the security filter does, a lazy reference is returned instead of
+     * querying the user by username again.
+     * </p>
+     *
+     * @return current user from the Spring Security context
+     */
+    public User getCurrentUser() {
+        User user = currentUserCache.getFromRequest();
+        if (user != null) {
+            return user;
         }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        user = switch (authentication.getPrincipal()) {
+            case JwtPrincipal principal -> userRepository.getReferenceById(principal.getId());
+            case User principal when principal.getId() != null -> userRepository.getReferenceById(principal.getId());
+            default -> getByUsername(authentication.getName());
+        };
+
+        currentUserCache.putInRequest(user);
+        return user;
     }
 }
@@ -2,6 +2,7 @@ package com.midel.controller;
 
 import com.midel.dto.chat.ChatCreateRequestDto;
 import com.midel.dto.chat.ChatResponseDto;
+import com.midel.dto.chat.ChatSummaryResponseDto;
 import com.midel.dto.user.UserRequestDto;
 import com.midel.dto.user.UserResponseDto;
 import com.midel.entity.Chat;
@@ -70,12 +71,14 @@ class ChatControllerTest {
 
     @Test
     void getMyChats_ReturnsUserChats() {
-        when(chatService.getMy()).thenReturn(Set.of(chatResponseDto));
+        ChatSummaryResponseDto chatSummaryResponseDto = new ChatSummaryResponseDto(
+                chatResponseDto.getId(), chatResponseDto.getTitle(), chatResponseDto.getOwner(), 1);
+        when(chatService.getMy()).thenReturn(Set.of(chatSummaryResponseDto));
 
         ResponseEntity<?> response = chatController.getMyChats();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(Set.of(chatResponseDto), ((RestResponse) response.getBody()).getData());
+        assertEquals(Set.of(chatSummaryResponseDto), ((RestResponse) response.getBody()).getData());
     }
 
     @Test
@@ -1,9 +1,15 @@
 package com.midel.controller;
 
+import com.midel.dto.CursorPageDto;
 import com.midel.dto.event.EventCreateRequestDto;
+import com.midel.dto.event.EventDeltaDto;
+import com.midel.dto.event.EventInviteBatchResponseDto;
 import com.midel.dto.event.EventResponseDto;
+import com.midel.dto.event.EventSummaryResponseDto;
 import com.midel.dto.event.EventUpdateRequestDto;
+import com.midel.dto.user.UserBatchRequestDto;
 import com.midel.dto.user.UserRequestDto;
+import com.midel.dto.user.UserResponseDto;
 import com.midel.entity.Event;
 import com.midel.entity.enums.EventVisibility;
 import com.midel.response.RestResponse;
@@ -18,7 +24,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.time.LocalDateTime;
-import java.util.Set;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -59,13 +65,13 @@ class EventControllerTest {
 
     @Test
     void testGetMyEvents() {
-        Set<EventResponseDto> events = Set.of(new EventResponseDto());
-        when(eventService.getMyEvents()).thenReturn(events);
+        CursorPageDto<EventSummaryResponseDto> events = new CursorPageDto<>(List.of(new EventSummaryResponseDto()), null);
+        when(eventService.getMyEvents(null, null)).thenReturn(events);
 
-        ResponseEntity<?> response = eventController.getMyEvents();
+        ResponseEntity<?> response = eventController.getMyEvents(null, null, null);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(events, ((RestResponse)response.getBody()).getData());
-        verify(eventService).getMyEvents();
+        verify(eventService).getMyEvents(null, null);
     }
 
     @Test
@@ -132,12 +138,45 @@ class EventControllerTest {
 
     @Test
     void testGetSharedEvents() {
-        Set<EventResponseDto> events = Set.of(new EventResponseDto());
-        when(eventService.getSharedEvents()).thenReturn(events);
+        CursorPageDto<EventSummaryResponseDto> events = new CursorPageDto<>(List.of(new EventSummaryResponseDto()), null);
+        when(eventService.getSharedEvents(null, null)).thenReturn(events);
 
-        ResponseEntity<?> response = eventController.getSharedEvents();
+        ResponseEntity<?> response = eventController.getSharedEvents(null, null, null);
         assertEquals(HttpStatus.OK.value(), ((RestResponse)response.getBody()).getStatus());
         assertEquals(events, ((RestResponse)response.getBody()).getData());
-        verify(eventService).getSharedEvents();
+        verify(eventService).getSharedEvents(null, null);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetSharedEvents_Since() {
+        EventDeltaDto delta = new EventDeltaDto(List.of(), List.of(UUID.randomUUID()), "token", false, false);
+        when(eventService.getSharedChanges("since", null)).thenReturn(delta);
+
+        ResponseEntity<?> response = eventController.getSharedEvents(null, "since", null);
+        assertEquals(delta, ((RestResponse)response.getBody()).getData());
+        verify(eventService, never()).getSharedEvents(any(), any());
+    }
+
+    @Test
+    void testInviteUsers() {
+        UUID eventId = UUID.randomUUID();
+        UserBatchRequestDto requestDto = new UserBatchRequestDto(List.of(1L, 2L));
+        EventInviteBatchResponseDto responseDto = new EventInviteBatchResponseDto(List.of(1L), List.of(2L), List.of());
+        when(eventService.inviteUsers(eventId, requestDto)).thenReturn(responseDto);
+
+        ResponseEntity<?> response = eventController.inviteUsers(eventId, requestDto);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(responseDto, ((RestResponse)response.getBody()).getData());
+    }
+
+    @Test
+    void testGetEventAudience() {
+        UUID eventId = UUID.randomUUID();
+        CursorPageDto<UserResponseDto> users = new CursorPageDto<>(List.of(new UserResponseDto(1L, "testuser")), null);
+        when(eventService.getAudience(eventId, null, 50)).thenReturn(users);
+
+        ResponseEntity<?> response = eventController.getEventAudience(eventId, null, 50);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(users, ((RestResponse)response.getBody()).getData());
+    }
+}
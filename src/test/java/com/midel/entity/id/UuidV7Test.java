@@ -0,0 +1,71 @@
+package com.midel.entity.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void testNext_Layout() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7.next();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertTrue(UuidV7.timestamp(uuid) >= before);
+        assertTrue(UuidV7.timestamp(uuid) <= System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    void testNext_MonotonicWithinThread() {
+        UUID previous = UuidV7.next();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7.next();
+            assertTrue(compareUnsigned(previous, next) < 0, previous + " >= " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void testNext_UniqueAcrossThreads() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<UUID> ids = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(UuidV7.next());
+                    }
+                    return ids;
+                }));
+            }
+
+            Set<Long> timeAndCounters = new HashSet<>();
+            for (Future<List<UUID>> future : futures) {
+                for (UUID uuid : future.get()) {
+                    // The time and counter bits alone are unique, the random bits are not needed for it
+                    assertTrue(timeAndCounters.add(uuid.getMostSignificantBits()));
+                }
+            }
+            assertEquals(threads * perThread, timeAndCounters.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Byte order of the ids, which is also the order PostgreSQL sorts the uuid type in.
+     */
+    private static int compareUnsigned(UUID a, UUID b) {
+        int result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return result != 0 ? result : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+}
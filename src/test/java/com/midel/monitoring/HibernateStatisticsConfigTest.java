@@ -0,0 +1,97 @@
+package com.midel.monitoring;
+
+import com.midel.entity.User;
+import com.midel.entity.enums.Role;
+import com.midel.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the hooks of {@link HibernateStatisticsConfig} through a real Hibernate session on an in-memory database.
+ */
+@DataJpaTest(showSql = false)
+@Import(HibernateStatisticsConfig.class)
+class HibernateStatisticsConfigTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User friend = entityManager.persist(user("friend"));
+        User user = user("user");
+        user.setFriends(Set.of(friend));
+        userId = entityManager.persist(user).getId();
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testCountsStatements() {
+        try (RequestStatistics statistics = RequestStatistics.open(RequestStatistics.UNLIMITED, RequestStatistics.UNLIMITED, false)) {
+            userRepository.findByUsername("user");
+            userRepository.existsByUsername("friend");
+
+            assertEquals(2, statistics.getStatements());
+            assertEquals(0, statistics.getLazyLoads());
+        }
+    }
+
+    @Test
+    void testCountsLazyLoads() {
+        try (RequestStatistics statistics = RequestStatistics.open(RequestStatistics.UNLIMITED, RequestStatistics.UNLIMITED, false)) {
+            User user = entityManager.find(User.class, userId);
+            assertEquals(1, user.getFriends().size());
+
+            // The find and the initialization of the friends
+            assertEquals(2, statistics.getStatements());
+            assertEquals(1, statistics.getLazyLoads());
+        }
+    }
+
+    @Test
+    void testBudget_FailsOnCrossingStatement() {
+        try (RequestStatistics statistics = RequestStatistics.open(1, RequestStatistics.UNLIMITED, true)) {
+            userRepository.findByUsername("user");
+
+            // The repository proxy translates the exception thrown from within Hibernate
+            Exception exception = assertThrows(InvalidDataAccessApiUsageException.class,
+                    () -> userRepository.findByUsername("friend"));
+            assertInstanceOf(QueryBudgetExceededException.class, exception.getCause());
+            assertTrue(statistics.isBudgetExceeded());
+        }
+    }
+
+    @Test
+    void testBudget_FailsOnLazyLoad() {
+        try (RequestStatistics ignored = RequestStatistics.open(RequestStatistics.UNLIMITED, 0, true)) {
+            User user = entityManager.find(User.class, userId);
+
+            assertThrows(QueryBudgetExceededException.class, () -> user.getFriends().size());
+        }
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole(Role.ROLE_USER);
+        return user;
+    }
+
+}
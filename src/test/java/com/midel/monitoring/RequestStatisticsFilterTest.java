@@ -0,0 +1,151 @@
+package com.midel.monitoring;
+
+import com.midel.dto.HandlerTimingsDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestStatisticsFilterTest {
+
+    private MeterRegistry meterRegistry;
+    private HandlerTimings handlerTimings;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        handlerTimings = new HandlerTimings(meterRegistry);
+        request = new MockHttpServletRequest("GET", "/events");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void testCountsAndServerTiming() throws Exception {
+        RequestStatisticsFilter filter = filter(-1, false);
+
+        filter.doFilter(request, response, chain(3, 2));
+
+        assertEquals("sql;desc=\"statements=3\", lazy;desc=\"collections=2\"", response.getHeader("Server-Timing"));
+        assertEquals(3, meterRegistry.get("http.server.requests.statements").tag("uri", "/events").summary().totalAmount());
+        assertEquals(2, meterRegistry.get("http.server.requests.lazy.loads").tag("uri", "/events").summary().totalAmount());
+        assertNull(RequestStatistics.current());
+    }
+
+    @Test
+    void testBudget_Reported() throws Exception {
+        RequestStatisticsFilter filter = filter(2, false);
+
+        filter.doFilter(request, response, chain(3, 0));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(1, meterRegistry.get("http.server.requests.budget.exceeded").counter().count());
+    }
+
+    @Test
+    void testBudget_Fail() {
+        RequestStatisticsFilter filter = filter(2, true);
+
+        QueryBudgetExceededException exception = assertThrows(QueryBudgetExceededException.class,
+                () -> filter.doFilter(request, response, chain(5, 0)));
+
+        assertEquals("Budget of 2 SQL statements exceeded by: select 3", exception.getMessage());
+        assertNull(RequestStatistics.current());
+    }
+
+    @Test
+    void testPhasesAndHandlerTimings() throws Exception {
+        RequestStatisticsFilter filter = filter(-1, false);
+
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handlerMethod());
+                RequestStatistics.phaseEnded(Phase.DB, System.nanoTime() - 2_000_000);
+                RequestStatistics.phaseStarted(Phase.SERIALIZATION);
+                response.getWriter().write("{}");
+                response.flushBuffer();
+            }
+        }));
+
+        String header = response.getHeader("Server-Timing");
+        assertTrue(header.startsWith("sql;desc=\"statements=0\", lazy;desc=\"collections=0\", db;dur=2."), header);
+        assertFalse(header.contains("mapping"));
+
+        HandlerTimingsDto timings = handlerTimings.snapshot().get("RequestStatisticsFilterTest.getEvents");
+        assertEquals(1, timings.getCount());
+        assertTrue(timings.getPhases().get("db").getMaxMs() >= 2);
+        assertTrue(timings.getPhases().containsKey("json"));
+        assertFalse(timings.getPhases().containsKey("jwt"));
+    }
+
+    @Test
+    void testNestedScopes() {
+        try (RequestStatistics outer = RequestStatistics.open(RequestStatistics.UNLIMITED, RequestStatistics.UNLIMITED, false)) {
+            RequestStatistics.statementPrepared("select 1");
+
+            try (RequestStatistics inner = RequestStatistics.open(0, 0, true)) {
+                assertThrows(QueryBudgetExceededException.class, () -> RequestStatistics.collectionLoaded("User.friends"));
+                assertEquals(1, inner.getLazyLoads());
+            }
+
+            assertSame(outer, RequestStatistics.current());
+            assertEquals(1, outer.getStatements());
+            assertEquals(1, outer.getLazyLoads());
+        }
+
+        assertNull(RequestStatistics.current());
+    }
+
+    private HandlerMethod handlerMethod() {
+        try {
+            return new HandlerMethod(this, getClass().getMethod("getEvents"));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private RequestStatisticsFilter filter(int statementBudget, boolean failOnBudget) {
+        return new RequestStatisticsFilter(meterRegistry, handlerTimings, true, 1.0, true, statementBudget, -1, failOnBudget);
+    }
+
+    /**
+     * Stands for the controller method of the request.
+     */
+    public void getEvents() {
+    }
+
+    /**
+     * Chain standing for a handler that runs queries and then serializes a body, loading collections.
+     */
+    private static MockFilterChain chain(int statements, int lazyLoads) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/events");
+                for (int i = 1; i <= statements; i++) {
+                    RequestStatistics.statementPrepared("select " + i);
+                }
+                for (int i = 0; i < lazyLoads; i++) {
+                    RequestStatistics.collectionLoaded("Event.allowedUsers");
+                }
+                response.getWriter().write("{}");
+                response.flushBuffer();
+            }
+        });
+    }
+
+}
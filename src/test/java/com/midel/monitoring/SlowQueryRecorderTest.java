@@ -0,0 +1,88 @@
+package com.midel.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SlowQueryRecorderTest {
+
+    private static final long SLOW = Duration.ofMillis(150).toNanos();
+
+    @Test
+    void testRecord_KeepsSlowest() {
+        SlowQueryRecorder recorder = new SlowQueryRecorder(true, 100, 2, true);
+
+        recorder.record("select 1", null, 0, 0, Duration.ofMillis(10).toNanos());
+        recorder.record("select 2", null, 0, 0, SLOW);
+        recorder.record("select 3", null, 0, 0, SLOW * 3);
+        recorder.record("select 4", null, 0, 0, SLOW * 2);
+        recorder.record("select 5", null, 0, 0, SLOW);
+
+        List<SlowQueryRecorder.SlowQuery> queries = recorder.getSlowQueries();
+        assertEquals(List.of("select 3", "select 4"), queries.stream().map(SlowQueryRecorder.SlowQuery::getSql).toList());
+        assertSame(queries.get(1), recorder.getSlowQuery(queries.get(1).getId()));
+
+        recorder.clear();
+        assertTrue(recorder.getSlowQueries().isEmpty());
+    }
+
+    @Test
+    void testDataSource_TimesStatementsWithBinds() throws Exception {
+        SlowQueryRecorder recorder = new SlowQueryRecorder(true, 0, 10, true);
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(mock(ResultSet.class));
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        try (Connection wrapped = new SlowQueryDataSource(dataSource, recorder).getConnection();
+             PreparedStatement prepared = wrapped.prepareStatement("select * from events where owner_id = ? and status = ?")) {
+            prepared.setLong(1, 42L);
+            prepared.setNull(2, Types.VARCHAR);
+            prepared.executeQuery();
+
+            assertSame(wrapped, prepared.getConnection());
+        }
+
+        SlowQueryRecorder.SlowQuery query = recorder.getSlowQueries().get(0);
+        assertEquals("select * from events where owner_id = ? and status = ?", query.getSql());
+        assertArrayEquals(new Object[]{42L, new SlowQueryRecorder.NullBind(Types.VARCHAR)}, query.getBinds());
+        assertEquals(List.of("42", "null"), query.toDto().getBinds());
+        verify(statement).setLong(1, 42L);
+        verify(connection).close();
+    }
+
+    @Test
+    void testExplain_ReplaysTypedNulls() throws Exception {
+        SlowQueryRecorder recorder = new SlowQueryRecorder(true, 0, 10, true);
+        recorder.record("select * from events where owner_id = ? and status = ?",
+                new Object[]{42L, new SlowQueryRecorder.NullBind(Types.VARCHAR)}, 2, 0, SLOW);
+        SlowQueryRecorder.SlowQuery query = recorder.getSlowQueries().get(0);
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(mock(ResultSet.class));
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement("EXPLAIN " + query.getSql())).thenReturn(statement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        new SlowQueriesEndpoint(recorder, dataSource).explain(query.getId());
+
+        verify(statement).setObject(1, 42L);
+        verify(statement).setNull(2, Types.VARCHAR);
+        verify(connection).rollback();
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.midel.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+
+    @Test
+    void testReportsPinnedThread() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, 10);
+        monitor.start();
+
+        try {
+            Thread.ofVirtual().start(this::sleepWhileHoldingLock).join();
+
+            // The recording stream flushes about once per second
+            Timer timer = null;
+            for (int i = 0; i < 100 && timer == null; i++) {
+                Thread.sleep(100);
+                timer = meterRegistry.find("jvm.threads.virtual.pinned")
+                        .tag("site", VirtualThreadPinningMonitorTest.class.getName() + ".sleepWhileHoldingLock")
+                        .timer();
+            }
+
+            assertNotNull(timer);
+            assertEquals(1, timer.count());
+        } finally {
+            monitor.stop();
+        }
+    }
+
+    private void sleepWhileHoldingLock() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+}
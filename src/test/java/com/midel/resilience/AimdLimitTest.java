@@ -0,0 +1,89 @@
+package com.midel.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AimdLimitTest {
+
+    private static final long THRESHOLD = Duration.ofMillis(100).toNanos();
+
+    @Test
+    void testTryAcquire_RejectsBeyondLimit() {
+        AimdLimit limit = new AimdLimit(2, 1, 10, THRESHOLD, 0.5);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+
+        limit.release(Duration.ofMillis(10).toNanos(), false);
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void testRelease_AdditiveIncreaseMultiplicativeDecrease() {
+        AimdLimit limit = new AimdLimit(4, 1, 5, THRESHOLD, 0.5);
+
+        // Fast requests with the limit in use raise it up to the maximum
+        fill(limit);
+        drain(limit);
+        assertEquals(5, limit.getLimit());
+
+        // A fast request on an idle limit proves nothing about the capacity
+        limit.tryAcquire();
+        limit.release(Duration.ofMillis(10).toNanos(), false);
+        assertEquals(5, limit.getLimit());
+
+        limit.tryAcquire();
+        limit.release(Duration.ofMillis(500).toNanos(), false);
+        assertEquals(2, limit.getLimit());
+
+        limit.tryAcquire();
+        limit.release(Duration.ofMillis(10).toNanos(), true);
+        assertEquals(1, limit.getLimit());
+
+        limit.tryAcquire();
+        limit.release(Duration.ofMillis(500).toNanos(), false);
+        assertEquals(1, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void testReleaseWithoutLatency_OnlyFailuresDecrease() {
+        AimdLimit limit = new AimdLimit(4, 1, 5, THRESHOLD, 0.5);
+
+        fill(limit);
+        for (int i = 0; i < 4; i++) {
+            limit.releaseWithoutLatency(false);
+        }
+        assertEquals(4, limit.getLimit());
+
+        limit.tryAcquire();
+        limit.releaseWithoutLatency(true);
+        assertEquals(2, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void testConstructor_InvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new AimdLimit(1, 2, 10, THRESHOLD, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new AimdLimit(2, 0, 10, THRESHOLD, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new AimdLimit(2, 1, 10, THRESHOLD, 1.0));
+    }
+
+    private static void fill(AimdLimit limit) {
+        while (limit.tryAcquire()) {
+            // Acquire every permit
+        }
+    }
+
+    private static void drain(AimdLimit limit) {
+        while (limit.getInFlight() > 0) {
+            limit.release(Duration.ofMillis(10).toNanos(), false);
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.midel.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadFilterTest {
+
+    private MeterRegistry meterRegistry;
+    private BulkheadFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("resilience.bulkhead.moderation.max-concurrent", "1")
+                .withProperty("resilience.bulkhead.moderation.max-queued", "0");
+        filter = new BulkheadFilter(new ObjectMapper(), meterRegistry, environment, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testLaneOf() {
+        assertEquals(Lane.MODERATION, BulkheadFilter.laneOf(new MockHttpServletRequest("GET", "/moderation/events")));
+        assertEquals(Lane.USER, BulkheadFilter.laneOf(new MockHttpServletRequest("GET", "/events")));
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "mod", null, List.of(new SimpleGrantedAuthority("ROLE_MODERATOR"))));
+        assertEquals(Lane.MODERATION, BulkheadFilter.laneOf(new MockHttpServletRequest("GET", "/events")));
+    }
+
+    @Test
+    void testModerationLaneFull_UserLaneServed() throws Exception {
+        List<Lane> lanes = new ArrayList<>();
+        MockHttpServletResponse moderation = new MockHttpServletResponse();
+        MockHttpServletResponse user = new MockHttpServletResponse();
+
+        // While a moderation request holds the only permit, the next one is rejected and user requests still run
+        filter.doFilter(new MockHttpServletRequest("GET", "/moderation/users"), new MockHttpServletResponse(), chain(lanes, () -> {
+            filter.doFilter(new MockHttpServletRequest("GET", "/moderation/chats"), moderation, new MockFilterChain());
+            filter.doFilter(new MockHttpServletRequest("GET", "/events"), user, chain(lanes, () -> {
+            }));
+        }));
+
+        assertEquals(List.of(Lane.MODERATION, Lane.USER), lanes);
+        assertEquals(503, moderation.getStatus());
+        assertEquals("2", moderation.getHeader("Retry-After"));
+        assertEquals(200, user.getStatus());
+        assertEquals(1, meterRegistry.get("http.server.bulkhead.rejected").tag("lane", "moderation").counter().count());
+        assertEquals(0, filter.getBulkhead(Lane.MODERATION).getActive());
+        assertEquals(Lane.USER, Lane.current());
+    }
+
+    private interface Body {
+        void run() throws Exception;
+    }
+
+    /**
+     * Chain standing for a handler recording the lane it runs in before running the body.
+     */
+    private static MockFilterChain chain(List<Lane> lanes, Body body) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                lanes.add(Lane.current());
+                try {
+                    body.run();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+    }
+
+}
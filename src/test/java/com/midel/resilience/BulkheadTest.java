@@ -0,0 +1,67 @@
+package com.midel.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    @Test
+    void testTryAcquire_QueuesThenRejects() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 1, Duration.ofSeconds(10).toNanos());
+        assertTrue(bulkhead.tryAcquire());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Boolean> queued = executor.submit(bulkhead::tryAcquire);
+            while (bulkhead.getQueued() == 0) {
+                Thread.onSpinWait();
+            }
+
+            // The only queue slot is taken
+            assertFalse(bulkhead.tryAcquire());
+
+            bulkhead.release();
+            assertTrue(queued.get());
+            assertEquals(1, bulkhead.getActive());
+            assertEquals(0, bulkhead.getQueued());
+        }
+    }
+
+    @Test
+    void testTryAcquire_WaitTimesOut() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 10, Duration.ofMillis(10).toNanos());
+        assertTrue(bulkhead.tryAcquire());
+
+        assertFalse(bulkhead.tryAcquire());
+        assertEquals(0, bulkhead.getQueued());
+
+        bulkhead.release();
+        assertTrue(bulkhead.tryAcquire());
+    }
+
+    @Test
+    void testLane_RestoredAfterExit() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        Lane previous = Lane.enter(Lane.MODERATION);
+        try {
+            assertEquals(Lane.MODERATION, Lane.current());
+            Thread.ofVirtual().start(() -> {
+                // Threads outside of a request run in the user lane
+                assertEquals(Lane.USER, Lane.current());
+                done.countDown();
+            });
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            Lane.exit(previous);
+        }
+        assertEquals(Lane.USER, Lane.current());
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.midel.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private MeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("resilience.concurrency.events.initial-limit", "1")
+                .withProperty("resilience.concurrency.events.min-limit", "1")
+                // Every request is slow
+                .withProperty("resilience.concurrency.moderation.latency-threshold-ms", "0");
+        filter = new ConcurrencyLimitFilter(new ObjectMapper(), meterRegistry, environment, true, 3,
+                new String[]{"/moderation/events/approve", "/moderation/generate"});
+    }
+
+    @Test
+    void testRejectsBeyondLimit() throws Exception {
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+
+        // The nested request arrives while the outer one holds the only permit of the group
+        filter.doFilter(new MockHttpServletRequest("GET", "/events"), new MockHttpServletResponse(), chain(() ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/events/shared"), nested, new MockFilterChain())));
+
+        assertEquals(503, nested.getStatus());
+        assertEquals("3", nested.getHeader("Retry-After"));
+        assertTrue(nested.getContentAsString().contains("Too many concurrent events requests"));
+        assertEquals(1, meterRegistry.get("http.server.concurrency.rejected").tag("group", "events").counter().count());
+        assertEquals(0, filter.getLimit(RouteGroup.EVENTS).getInFlight());
+    }
+
+    @Test
+    void testGroupsAreIndependent() throws Exception {
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/events"), new MockHttpServletResponse(), chain(() ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/chats"), nested, new MockFilterChain())));
+
+        assertEquals(200, nested.getStatus());
+    }
+
+    @Test
+    void testServerErrorDecreasesLimit() throws Exception {
+        AimdLimit limit = filter.getLimit(RouteGroup.CHATS);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/chats"), new MockHttpServletResponse(),
+                chain(() -> {
+                    throw new IllegalStateException("Failure");
+                }, 500));
+
+        assertEquals(18, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void testSlowExemptRequestsKeepLimit() throws Exception {
+        AimdLimit limit = filter.getLimit(RouteGroup.MODERATION);
+
+        for (int i = 0; i < 100; i++) {
+            filter.doFilter(new MockHttpServletRequest("POST", "/moderation/events/approve"), new MockHttpServletResponse(),
+                    chain(() -> Thread.sleep(1)));
+        }
+        assertEquals(20, limit.getLimit());
+
+        // The same slow requests elsewhere in the group are a sign of overload
+        for (int i = 0; i < 100; i++) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/moderation/events"), new MockHttpServletResponse(),
+                    chain(() -> Thread.sleep(1)));
+        }
+        assertEquals(1, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void testServerErrorOfExemptRequestDecreasesLimit() throws Exception {
+        AimdLimit limit = filter.getLimit(RouteGroup.MODERATION);
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/moderation/generate"), new MockHttpServletResponse(),
+                chain(() -> {
+                    throw new IllegalStateException("Failure");
+                }, 500));
+
+        assertEquals(18, limit.getLimit());
+    }
+
+    @Test
+    void testUngroupedAndStreamRequestsPass() throws Exception {
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/events/stream")));
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/users/1")));
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/eventsfeed")));
+        assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/auth/signin")));
+    }
+
+    private interface Body {
+        void run() throws Exception;
+    }
+
+    private static MockFilterChain chain(Body body) {
+        return chain(body, 200);
+    }
+
+    /**
+     * Chain standing for a handler running the body, any exception is turned into the given status.
+     */
+    private static MockFilterChain chain(Body body, int errorStatus) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                try {
+                    body.run();
+                } catch (Exception e) {
+                    response.setStatus(errorStatus);
+                }
+            }
+        });
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.midel.security;
+
+import com.midel.entity.User;
+import com.midel.entity.enums.Role;
+import com.midel.repository.UserRepository;
+import com.midel.service.CurrentUserCache;
+import com.midel.service.EventAudienceService;
+import com.midel.service.JwtService;
+import com.midel.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String SIGNING_KEY = "SZHFXEYNJSEU1J79AUTONR61TARZZSRJR0TFUTWONS4ASHF4DFQIK6CNG4AM1GLE";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EventAudienceService eventAudienceService;
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SIGNING_KEY, 3600);
+        CurrentUserCache currentUserCache = new CurrentUserCache(new SimpleMeterRegistry(), false, 100, 60, 30);
+        UserService userService = new UserService(userRepository, currentUserCache, eventAudienceService);
+
+        filter = new JwtAuthenticationFilter(jwtService, userService);
+        ReflectionTestUtils.setField(filter, "statelessPrincipalEnabled", true);
+        // Every token is old enough to be revalidated
+        ReflectionTestUtils.setField(filter, "revalidateAfterSeconds", -1L);
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        user.setRole(Role.ROLE_USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testStatelessPrincipal_OldTokenRevalidatedFromCache() throws Exception {
+        String token = jwtService.generateToken(user);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        for (int i = 0; i < 3; i++) {
+            Authentication authentication = authenticate(token);
+
+            assertNotNull(authentication);
+            JwtPrincipal principal = assertInstanceOf(JwtPrincipal.class, authentication.getPrincipal());
+            assertEquals(0, principal.getTokenVersion());
+        }
+
+        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    void testStatelessPrincipal_RevokedTokenRejected() throws Exception {
+        String token = jwtService.generateToken(user);
+        user.setTokenVersion(1);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertNull(authenticate(token));
+    }
+
+    @Test
+    void testStoredPrincipal_IsSnapshotOfUser() throws Exception {
+        ReflectionTestUtils.setField(filter, "statelessPrincipalEnabled", false);
+        String token = jwtService.generateToken(user);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+
+        Authentication authentication = authenticate(token);
+        user.setRole(Role.ROLE_MODERATOR);
+
+        assertNotNull(authentication);
+        JwtPrincipal principal = assertInstanceOf(JwtPrincipal.class, authentication.getPrincipal());
+        assertEquals(1L, principal.getId());
+        assertEquals(Role.ROLE_USER, principal.getRole());
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/events");
+        request.addHeader(JwtAuthenticationFilter.HEADER_NAME, JwtAuthenticationFilter.BEARER_PREFIX + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.midel.service;
 
 import com.midel.dto.chat.ChatResponseDto;
+import com.midel.dto.chat.ChatSummaryResponseDto;
 import com.midel.entity.Chat;
 import com.midel.entity.User;
 import com.midel.repository.ChatRepository;
@@ -28,6 +29,9 @@ class ChatServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private EventAudienceService eventAudienceService;
+
     @InjectMocks
     private ChatService chatService;
 
@@ -54,13 +58,13 @@ class ChatServiceTest {
 
     @Test
     void testGetAll() {
-        List<Chat> allChats = Collections.singletonList(chat);
-        when(chatRepository.findAll()).thenReturn(allChats);
+        List<ChatSummaryResponseDto> allChats = Collections.singletonList(summary(chat));
+        when(chatRepository.findAllSummaries()).thenReturn(allChats);
 
-        Collection<ChatResponseDto> result = chatService.getAll();
+        Collection<ChatSummaryResponseDto> result = chatService.getAll();
 
         assertEquals(1, result.size());
-        ChatResponseDto dto = result.iterator().next();
+        ChatSummaryResponseDto dto = result.iterator().next();
         assertEquals(chat.getId(), dto.getId());
         assertEquals(chat.getTitle(), dto.getTitle());
         assertEquals(chat.getOwner().getId(), dto.getOwner().getId());
@@ -81,18 +85,17 @@ class ChatServiceTest {
 
     @Test
     void testGetMy() {
-        Set<Chat> currentUserChats = Collections.singleton(chat);
-
         when(userService.getCurrentUser()).thenReturn(currentUser);
-        currentUser.setChatsOwns(currentUserChats);
+        when(chatRepository.findSummariesByOwnerId(currentUser.getId())).thenReturn(List.of(summary(chat)));
 
-        Collection<ChatResponseDto> result = chatService.getMy();
+        Collection<ChatSummaryResponseDto> result = chatService.getMy();
 
         assertEquals(1, result.size());
-        ChatResponseDto dto = result.iterator().next();
+        ChatSummaryResponseDto dto = result.iterator().next();
         assertEquals(chat.getId(), dto.getId());
         assertEquals(chat.getTitle(), dto.getTitle());
         assertEquals(chat.getOwner().getId(), dto.getOwner().getId());
+        assertEquals(1, dto.getMemberCount());
     }
 
     @Test
@@ -143,6 +146,7 @@ class ChatServiceTest {
 
         assertDoesNotThrow(() -> chatService.addChatMember(chat.getId(), userId));
         assertTrue(chat.getMembers().contains(userToAdd));
+        verify(eventAudienceService).addChatMember(chat.getId(), userId);
     }
 
     @Test
@@ -166,4 +170,9 @@ class ChatServiceTest {
 
         assertEquals("The user with the id=" + userId + " is already in this chat", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    private static ChatSummaryResponseDto summary(Chat chat) {
+        return new ChatSummaryResponseDto(chat.getId(), chat.getTitle(),
+                chat.getOwner().getId(), chat.getOwner().getUsername(), (long) chat.getMembers().size());
+    }
+}
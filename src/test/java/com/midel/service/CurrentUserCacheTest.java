@@ -0,0 +1,92 @@
+package com.midel.service;
+
+import com.midel.entity.User;
+import com.midel.security.JwtPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrentUserCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private CurrentUserCache currentUserCache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        currentUserCache = new CurrentUserCache(meterRegistry, true, 100, 60, 30);
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testRequestLayer() {
+        assertNull(currentUserCache.getFromRequest());
+
+        currentUserCache.putInRequest(user);
+
+        assertSame(user, currentUserCache.getFromRequest());
+        assertEquals(1, count("request", "hit"));
+        assertEquals(1, count("request", "miss"));
+    }
+
+    @Test
+    void testRequestLayer_OutsideRequest() {
+        RequestContextHolder.resetRequestAttributes();
+
+        currentUserCache.putInRequest(user);
+
+        assertNull(currentUserCache.getFromRequest());
+    }
+
+    @Test
+    void testSharedLayer_Invalidate() {
+        JwtPrincipal principal = JwtPrincipal.of(user);
+        currentUserCache.putShared(principal);
+        currentUserCache.putInRequest(user);
+
+        assertSame(principal, currentUserCache.getShared("testuser"));
+
+        currentUserCache.invalidate(user);
+
+        assertNull(currentUserCache.getShared("testuser"));
+        assertNull(currentUserCache.getFromRequest());
+        assertEquals(1, count("shared", "hit"));
+        assertEquals(1, count("shared", "miss"));
+    }
+
+    @Test
+    void testSharedLayer_Disabled() {
+        CurrentUserCache disabledCache = new CurrentUserCache(meterRegistry, false, 100, 60, 30);
+
+        disabledCache.putShared(JwtPrincipal.of(user));
+
+        assertNull(disabledCache.getShared("testuser"));
+    }
+
+    private double count(String layer, String result) {
+        return meterRegistry.get("users.current.cache")
+                .tag("layer", layer)
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+}
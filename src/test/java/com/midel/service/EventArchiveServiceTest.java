@@ -0,0 +1,98 @@
+package com.midel.service;
+
+import com.midel.dto.CursorPageDto;
+import com.midel.dto.event.ArchivedEventResponseDto;
+import com.midel.entity.ArchivedEvent;
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Status;
+import com.midel.repository.ArchivedEventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventArchiveServiceTest {
+
+    @Mock
+    private ArchivedEventRepository archivedEventRepository;
+
+    @Mock
+    private LeaseService leaseService;
+
+    @Mock
+    private EventTombstoneService eventTombstoneService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testArchive_InBatches() {
+        EventArchiveService service = service(true, 1000);
+        when(leaseService.tryAcquire(eq(EventArchiveService.LEASE_NAME), any(Duration.class))).thenReturn(true);
+        when(archivedEventRepository.archiveBatch(any(LocalDateTime.class), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(UUID.randomUUID(), UUID.randomUUID()), List.of(UUID.randomUUID()));
+
+        service.archive();
+
+        verify(archivedEventRepository, times(2)).archiveBatch(
+                argThat(before -> before.isBefore(LocalDateTime.now().minusHours(999))), any(LocalDateTime.class), eq(2));
+        verify(leaseService).release(EventArchiveService.LEASE_NAME);
+    }
+
+    @Test
+    void testArchive_Disabled() {
+        EventArchiveService service = service(false, 1000);
+
+        service.archive();
+
+        verifyNoInteractions(leaseService, archivedEventRepository);
+    }
+
+    @Test
+    void testMinAge_NotShorterThanTombstoneRetention() {
+        assertEquals(Duration.ofHours(24), service(true, 1).getMinAge());
+        assertEquals(Duration.ofHours(1000), service(true, 1000).getMinAge());
+    }
+
+    @Test
+    void testGetArchivedEvents() {
+        EventArchiveService service = service(true, 1000);
+        ArchivedEvent first = archivedEvent(LocalDateTime.of(2024, 1, 1, 10, 0));
+        ArchivedEvent second = archivedEvent(LocalDateTime.of(2024, 1, 1, 11, 0));
+        when(archivedEventRepository.findArchivePageByStatus(eq(Status.REMOVED), any(LocalDateTime.class), any(UUID.class), any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+
+        CursorPageDto<ArchivedEventResponseDto> page = service.getArchivedEvents(Status.REMOVED, null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(first.getId(), page.getItems().get(0).getId());
+        assertEquals("owner", page.getItems().get(0).getOwner().getUsername());
+        assertNull(page.getItems().get(0).getAllowedUserIds());
+        assertEquals(first.getId(), EventCursor.decode(page.getNextCursor()).getId());
+    }
+
+    private EventArchiveService service(boolean enabled, long minAgeHours) {
+        lenient().when(eventTombstoneService.getRetention()).thenReturn(Duration.ofHours(24));
+        return new EventArchiveService(archivedEventRepository, leaseService, eventTombstoneService, transactionManager,
+                enabled, minAgeHours, 300, 2);
+    }
+
+    private static ArchivedEvent archivedEvent(LocalDateTime createdAt) {
+        return new ArchivedEvent(UUID.randomUUID(), "Event", null, EventVisibility.PUBLIC, Status.REMOVED, createdAt,
+                null, createdAt, createdAt.plusDays(40), 1L, "owner", null, Set.of());
+    }
+
+}
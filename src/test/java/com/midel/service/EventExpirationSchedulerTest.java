@@ -0,0 +1,141 @@
+package com.midel.service;
+
+import com.midel.entity.Event;
+import com.midel.entity.enums.EventChangeType;
+import com.midel.repository.EventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventExpirationSchedulerTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private LeaseService leaseService;
+
+    @Mock
+    private EventStreamService eventStreamService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+    private EventExpirationScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new EventExpirationScheduler(eventRepository, leaseService, eventStreamService, transactionManager,
+                meterRegistry, true, 3600, 60, 30, 2);
+    }
+
+    @Test
+    void testTick_EndsDueEventsInBatches() {
+        when(leaseService.tryAcquire(eq(EventExpirationScheduler.LEASE_NAME), any(Duration.class))).thenReturn(true);
+        when(eventRepository.findExpirationsUntil(any(LocalDateTime.class))).thenReturn(List.of());
+        when(eventRepository.endExpiredEvents(anyCollection(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).stream()
+                        .map(eventId -> expiration((UUID) eventId, LocalDateTime.now().minusSeconds(1)))
+                        .toList());
+
+        Event future = event(LocalDateTime.now().plusMinutes(10));
+        scheduler.schedule(future);
+        for (int i = 0; i < 3; i++) {
+            scheduler.schedule(event(LocalDateTime.now().minusSeconds(1)));
+        }
+
+        scheduler.tick();
+
+        verify(eventRepository, times(2)).endExpiredEvents(anyCollection(), any(LocalDateTime.class));
+        verify(eventRepository, never()).endExpiredEvents(argThat(ids -> ids.contains(future.getId())), any());
+        verify(eventStreamService, times(2)).publish(eq(EventChangeType.EXPIRED), anyCollection());
+        assertEquals(3, meterRegistry.get("events.expiration.batch.size").summary().totalAmount());
+        assertEquals(3, meterRegistry.get("events.expiration.lag").timer().count());
+        assertEquals(1, meterRegistry.get("events.expiration.scheduled").gauge().value());
+    }
+
+    @Test
+    void testTick_SkipsSupersededExpiration() {
+        when(leaseService.tryAcquire(eq(EventExpirationScheduler.LEASE_NAME), any(Duration.class))).thenReturn(true);
+        when(eventRepository.findExpirationsUntil(any(LocalDateTime.class))).thenReturn(List.of());
+
+        Event event = event(LocalDateTime.now().minusSeconds(1));
+        scheduler.schedule(event);
+        event.setExpirationAt(LocalDateTime.now().plusMinutes(10));
+        scheduler.schedule(event);
+
+        scheduler.tick();
+
+        verify(eventRepository, never()).endExpiredEvents(anyCollection(), any());
+        assertEquals(1, meterRegistry.get("events.expiration.scheduled").gauge().value());
+    }
+
+    @Test
+    void testTick_LoadsExpirationsWhenLeaseIsAcquired() {
+        UUID eventId = UUID.randomUUID();
+        LocalDateTime expirationAt = LocalDateTime.now().minusMinutes(5);
+        EventRepository.Expiration expiration = expiration(eventId, expirationAt);
+
+        when(leaseService.tryAcquire(eq(EventExpirationScheduler.LEASE_NAME), any(Duration.class))).thenReturn(true);
+        when(eventRepository.findExpirationsUntil(any(LocalDateTime.class))).thenReturn(List.of(expiration));
+        when(eventRepository.endExpiredEvents(anyCollection(), any(LocalDateTime.class))).thenReturn(List.of(expiration));
+
+        scheduler.tick();
+
+        verify(eventRepository).endExpiredEvents(eq(List.of(eventId)), any(LocalDateTime.class));
+        assertTrue(meterRegistry.get("events.expiration.lag").timer().totalTime(TimeUnit.MINUTES) >= 5);
+    }
+
+    @Test
+    void testTick_WithoutLease() {
+        when(leaseService.tryAcquire(eq(EventExpirationScheduler.LEASE_NAME), any(Duration.class))).thenReturn(false);
+
+        scheduler.schedule(event(LocalDateTime.now().minusSeconds(1)));
+        scheduler.tick();
+
+        verify(eventRepository, never()).findExpirationsUntil(any());
+        verify(eventRepository, never()).endExpiredEvents(anyCollection(), any());
+        assertEquals(0, meterRegistry.get("events.expiration.scheduled").gauge().value());
+    }
+
+    private static EventRepository.Expiration expiration(UUID eventId, LocalDateTime expirationAt) {
+        return new EventRepository.Expiration() {
+            @Override
+            public UUID getId() {
+                return eventId;
+            }
+
+            @Override
+            public LocalDateTime getExpirationAt() {
+                return expirationAt;
+            }
+        };
+    }
+
+    private static Event event(LocalDateTime expirationAt) {
+        Event event = new Event();
+        event.setId(UUID.randomUUID());
+        event.setExpirationAt(expirationAt);
+        return event;
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.midel.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.midel.dto.event.EventExportRowDto;
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Status;
+import com.midel.repository.EventExportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class EventExportServiceTest {
+
+    @Mock
+    private EventExportRepository eventExportRepository;
+
+    private EventExportService eventExportService;
+    private EventExportRowDto row1;
+    private EventExportRowDto row2;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        eventExportService = new EventExportService(eventExportRepository, objectMapper, 1);
+
+        row1 = new EventExportRowDto(UUID.randomUUID(), "Event 1", "Plain description",
+                EventVisibility.PUBLIC, Status.OPENED, LocalDateTime.of(2024, 1, 1, 12, 0), null,
+                1L, "testuser", null);
+        row2 = new EventExportRowDto(UUID.randomUUID(), "Event, 2", "Says \"hi\"\ntwice",
+                EventVisibility.SPECIFIC_CHAT, Status.OPENED, LocalDateTime.of(2024, 1, 2, 12, 0), null,
+                1L, "testuser", UUID.randomUUID());
+
+        doAnswer(invocation -> {
+            Consumer<EventExportRowDto> consumer = invocation.getArgument(1);
+            consumer.accept(row1);
+            consumer.accept(row2);
+            return null;
+        }).when(eventExportRepository).forEachEvent(eq(Status.OPENED), any());
+    }
+
+    @Test
+    void testExport_Ndjson() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        eventExportService.export(Status.OPENED, EventExportService.Format.NDJSON, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":\"" + row1.getId() + "\",\"title\":\"Event 1\""));
+        assertTrue(lines[0].contains("\"createdAt\":\"2024-01-01T12:00:00\""));
+        assertTrue(lines[1].startsWith("{\"id\":\"" + row2.getId() + "\""));
+        assertTrue(lines[1].contains("\"description\":\"Says \\\"hi\\\"\\ntwice\""));
+    }
+
+    @Test
+    void testExport_Csv() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        eventExportService.export(Status.OPENED, EventExportService.Format.CSV, outputStream);
+
+        String csv = outputStream.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("id,title,description,visibility,status,createdAt,expirationAt,ownerId,ownerUsername,allowedChatId\n"));
+        assertTrue(csv.contains(row1.getId() + ",Event 1,Plain description,PUBLIC,OPENED,2024-01-01T12:00,,1,testuser,\n"));
+        assertTrue(csv.contains(row2.getId() + ",\"Event, 2\",\"Says \"\"hi\"\"\ntwice\",SPECIFIC_CHAT,OPENED,"));
+    }
+
+}
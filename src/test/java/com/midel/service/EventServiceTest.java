@@ -1,16 +1,25 @@
 package com.midel.service;
 
+import com.midel.dto.CursorPageDto;
 import com.midel.dto.event.*;
+import com.midel.dto.user.UserBatchRequestDto;
 import com.midel.dto.user.UserRequestDto;
+import com.midel.dto.user.UserResponseDto;
 import com.midel.entity.*;
 import com.midel.entity.enums.*;
+import com.midel.exception.ConflictException;
+import com.midel.repository.EventInvitationRepository;
 import com.midel.repository.EventRepository;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -25,9 +34,30 @@ class EventServiceTest {
     @Mock
     private EventRepository eventRepository;
 
+    @Mock
+    private EventInvitationRepository eventInvitationRepository;
+
     @Mock
     private UserService userService;
 
+    @Mock
+    private ChatService chatService;
+
+    @Mock
+    private EventAudienceService eventAudienceService;
+
+    @Mock
+    private EventExpirationScheduler eventExpirationScheduler;
+
+    @Mock
+    private EventStreamService eventStreamService;
+
+    @Mock
+    private EventTombstoneService eventTombstoneService;
+
+    @Mock
+    private ModerationQueueService moderationQueueService;
+
     @InjectMocks
     private EventService eventService;
 
@@ -54,12 +84,14 @@ class EventServiceTest {
     @Test
     void testGetAll() {
         // Mock repository response
-        when(eventRepository.findAll()).thenReturn(Collections.singletonList(event));
+        when(eventRepository.findEventsPage(any(LocalDateTime.class), any(UUID.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(row(event)));
 
-        Set<EventResponseDto> result = eventService.getAll();
+        CursorPageDto<EventSummaryResponseDto> result = eventService.getAll(null, null);
 
-        assertEquals(1, result.size());
-        EventResponseDto dto = result.iterator().next();
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+        EventResponseDto dto = result.getItems().get(0);
         assertEquals(event.getId(), dto.getId());
         assertEquals(event.getTitle(), dto.getTitle());
         assertEquals(event.getDescription(), dto.getDescription());
@@ -70,12 +102,13 @@ class EventServiceTest {
     @Test
     void testGetAllByStatus() {
         // Mock repository response
-        when(eventRepository.queryEventsByStatus(Status.OPENED)).thenReturn(Collections.singletonList(event));
+        when(eventRepository.findEventsPageByStatus(eq(Status.OPENED), any(LocalDateTime.class), any(UUID.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(row(event)));
 
-        Set<EventResponseDto> result = eventService.getAllByStatus(Status.OPENED);
+        CursorPageDto<EventSummaryResponseDto> result = eventService.getAllByStatus(Status.OPENED, null, null);
 
-        assertEquals(1, result.size());
-        EventResponseDto dto = result.iterator().next();
+        assertEquals(1, result.getItems().size());
+        EventResponseDto dto = result.getItems().get(0);
         assertEquals(event.getId(), dto.getId());
         assertEquals(event.getTitle(), dto.getTitle());
         assertEquals(event.getDescription(), dto.getDescription());
@@ -83,6 +116,45 @@ class EventServiceTest {
         assertEquals(event.getVisibility(), dto.getVisibility());
     }
 
+    @Test
+    void testGetAll_NextPage() {
+        Event event2 = new Event();
+        event2.setId(UUID.randomUUID());
+        event2.setTitle("Event 2");
+        event2.setDescription("Description for Event 2");
+        event2.setOwner(currentUser);
+        event2.changeVisibility(EventVisibility.PUBLIC);
+        ReflectionTestUtils.setField(event, "createdAt", LocalDateTime.of(2024, 1, 1, 12, 0));
+
+        // The repository returns one row more than the limit when there is a next page
+        when(eventRepository.findEventsPage(any(LocalDateTime.class), any(UUID.class), any(Pageable.class)))
+                .thenReturn(List.of(row(event), row(event2)));
+
+        CursorPageDto<EventSummaryResponseDto> result = eventService.getAll(null, 1);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(event.getId(), result.getItems().get(0).getId());
+        assertNotNull(result.getNextCursor());
+
+        // The cursor continues after the last returned event
+        eventService.getAll(result.getNextCursor(), 1);
+
+        verify(eventRepository).findEventsPage(EventCursor.FIRST.getCreatedAt(), EventCursor.FIRST.getId(), PageRequest.ofSize(2));
+        verify(eventRepository).findEventsPage(event.getCreatedAt(), event.getId(), PageRequest.ofSize(2));
+    }
+
+    @Test
+    void testGetAll_InvalidCursorAndLimit() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> eventService.getAll("not a cursor", null));
+        assertEquals("Invalid cursor.", exception.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> eventService.getAll(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> eventService.getAll(null, PageCursor.MAX_LIMIT + 1));
+
+        verifyNoInteractions(eventRepository);
+    }
+
     @Test
     void testCreateEvent_PublicVisibility() {
         EventCreateRequestDto requestDto = new EventCreateRequestDto();
@@ -101,6 +173,8 @@ class EventServiceTest {
         assertEquals(event.getDescription(), result.getDescription());
         assertEquals(event.getOwner().getId(), result.getOwner().getId());
         assertEquals(event.getVisibility(), result.getVisibility());
+        verify(eventAudienceService).refresh(event);
+        verify(eventExpirationScheduler).schedule(event);
     }
 
     @Test
@@ -139,12 +213,10 @@ class EventServiceTest {
         event2.changeVisibility(EventVisibility.FRIENDS_ONLY);
         event2.setOwner(currentUser);
 
-        currentUser.getCreatedEvents().add(event1);
-        currentUser.getCreatedEvents().add(event2);
-
-        currentUser.getCreatedEvents().addAll(Set.of(event1, event2));
+        when(eventRepository.findOwnedEventsPage(eq(currentUser.getId()), any(LocalDateTime.class), any(UUID.class), any(Pageable.class)))
+                .thenReturn(List.of(row(event1), row(event2)));
 
-        Collection<EventResponseDto> result = eventService.getMyEvents();
+        List<EventSummaryResponseDto> result = eventService.getMyEvents(null, null).getItems();
 
         assertNotNull(result);
         assertEquals(2, result.size());
@@ -294,6 +366,7 @@ class EventServiceTest {
         // Verify repository method call
         verify(eventRepository).findById(eventId);
         verify(eventRepository).save(existingEvent);
+        verify(eventAudienceService).refresh(existingEvent, EventVisibility.PUBLIC);
     }
 
     @Test
@@ -377,6 +450,7 @@ class EventServiceTest {
         // Verify repository method call
         verify(eventRepository).findById(eventId);
         verify(eventRepository).save(event);
+        verify(eventAudienceService).addAllowedUser(eventId, userId);
     }
 
     @Test
@@ -406,23 +480,121 @@ class EventServiceTest {
         event2.changeVisibility(EventVisibility.FRIENDS_ONLY);
         event2.setOwner(currentUser);
 
-        List<Event> events = Arrays.asList(event1, event2);
+        List<EventRowDto> events = Arrays.asList(row(event1), row(event2));
 
         // Mock UserService behavior
         when(userService.getCurrentUser()).thenReturn(currentUser);
 
         // Mock EventRepository behavior
-        when(eventRepository.findAccessibleEvents(currentUser.getId())).thenReturn(events);
+        when(eventRepository.findSharedEventsPage(eq(currentUser.getId()), any(LocalDateTime.class), any(UUID.class), any(Pageable.class)))
+                .thenReturn(events);
 
         // Call service method
-        Set<EventResponseDto> sharedEvents = eventService.getSharedEvents();
+        List<EventSummaryResponseDto> sharedEvents = eventService.getSharedEvents(null, null).getItems();
 
         // Assertions
         assertNotNull(sharedEvents);
         assertEquals(2, sharedEvents.size());
 
         // Verify repository method call
-        verify(eventRepository).findAccessibleEvents(currentUser.getId());
+        verify(eventRepository).findSharedEventsPage(currentUser.getId(), EventCursor.FIRST.getCreatedAt(), EventCursor.FIRST.getId(), PageRequest.ofSize(PageCursor.DEFAULT_LIMIT + 1));
+    }
+
+    @Test
+    void testGetSharedChanges() {
+        User currentUser = new User();
+        currentUser.setId(1L);
+        UUID closedId = UUID.randomUUID();
+        UUID lostId = UUID.randomUUID();
+        LocalDateTime from = LocalDateTime.now().minusHours(1);
+
+        Event event1 = new Event();
+        event1.setId(UUID.randomUUID());
+        event1.setTitle("Event 1");
+        event1.setStatus(Status.OPENED);
+        event1.changeVisibility(EventVisibility.PUBLIC);
+        event1.setOwner(currentUser);
+
+        Event event2 = new Event();
+        event2.setId(UUID.randomUUID());
+        event2.setTitle("Event 2");
+        event2.setStatus(Status.OPENED);
+        event2.changeVisibility(EventVisibility.PUBLIC);
+        event2.setOwner(currentUser);
+
+        when(userService.getCurrentUser()).thenReturn(currentUser);
+        when(eventRepository.findSharedChanges(eq(1L), eq(from), any(LocalDateTime.class), eq(EventCursor.FIRST.getId()), eq(PageRequest.ofSize(2))))
+                .thenReturn(List.of(row(event1), row(event2)));
+        when(eventRepository.findClosedSharedEventIds(eq(1L), eq(from), any(LocalDateTime.class))).thenReturn(List.of(closedId));
+        when(eventTombstoneService.findLostEventIds(eq(1L), eq(from), any(LocalDateTime.class))).thenReturn(List.of(lostId, closedId));
+
+        EventDeltaDto delta = eventService.getSharedChanges(SyncToken.since(from).encode(), 1);
+
+        assertEquals(1, delta.getChanged().size());
+        assertEquals(List.of(closedId, lostId), delta.getRemoved());
+        assertTrue(delta.isHasMore());
+
+        SyncToken next = SyncToken.decode(delta.getSyncToken());
+        assertEquals(from, next.getFrom());
+        assertEquals(event1.getId(), next.getAfterId());
+        assertNotNull(next.getTo());
+
+        when(eventRepository.findSharedChanges(1L, from, next.getTo(), event1.getId(), PageRequest.ofSize(2)))
+                .thenReturn(List.of(row(event2)));
+
+        delta = eventService.getSharedChanges(delta.getSyncToken(), 1);
+
+        assertEquals(event2.getId(), delta.getChanged().get(0).getId());
+        assertTrue(delta.getRemoved().isEmpty());
+        assertFalse(delta.isHasMore());
+        assertEquals(SyncToken.since(next.getTo()).encode(), delta.getSyncToken());
+        verify(eventRepository, times(1)).findClosedSharedEventIds(any(), any(), any());
+    }
+
+    @Test
+    void testGetSharedChanges_ExpiredToken() {
+        when(eventTombstoneService.isExpired(any(SyncToken.class), any(LocalDateTime.class))).thenReturn(true);
+
+        EventDeltaDto delta = eventService.getSharedChanges(SyncToken.since(LocalDateTime.now().minusDays(90)).encode(), null);
+
+        assertTrue(delta.isResyncRequired());
+        assertTrue(delta.getChanged().isEmpty());
+        assertNotNull(delta.getSyncToken());
+        verifyNoInteractions(eventRepository, userService);
+    }
+
+    @Test
+    void testGetMyChanges_ReportsArchivedEvents() {
+        UUID archivedId = UUID.randomUUID();
+        LocalDateTime from = LocalDateTime.now().minusHours(1);
+
+        when(userService.getCurrentUser()).thenReturn(currentUser);
+        when(eventRepository.findOwnedChanges(eq(1L), eq(from), any(LocalDateTime.class), eq(EventCursor.FIRST.getId()), eq(PageRequest.ofSize(PageCursor.DEFAULT_LIMIT + 1))))
+                .thenReturn(List.of(row(event)));
+        when(eventTombstoneService.findArchivedEventIds(eq(1L), eq(from), any(LocalDateTime.class))).thenReturn(List.of(archivedId));
+
+        EventDeltaDto delta = eventService.getMyChanges(SyncToken.since(from).encode(), null);
+
+        assertEquals(event.getId(), delta.getChanged().get(0).getId());
+        assertEquals(List.of(archivedId), delta.getRemoved());
+        assertFalse(delta.isHasMore());
+    }
+
+    @Test
+    void testGetMyChanges_ExpiredToken() {
+        when(eventTombstoneService.isExpired(any(SyncToken.class), any(LocalDateTime.class))).thenReturn(true);
+
+        EventDeltaDto delta = eventService.getMyChanges(SyncToken.since(LocalDateTime.now().minusDays(90)).encode(), null);
+
+        assertTrue(delta.isResyncRequired());
+        assertTrue(delta.getChanged().isEmpty());
+        assertNotNull(delta.getSyncToken());
+        verifyNoInteractions(eventRepository, userService);
+    }
+
+    @Test
+    void testGetSharedChanges_InvalidToken() {
+        assertThrows(IllegalArgumentException.class, () -> eventService.getSharedChanges("not a token", null));
     }
 
     @Test
@@ -447,16 +619,293 @@ class EventServiceTest {
         when(userService.getCurrentUser()).thenReturn(currentUser);
 
         // Mock EventRepository behavior
+        EventRepository.Expiration changed = mock(EventRepository.Expiration.class);
+        when(changed.getExpirationAt()).thenReturn(event.getExpirationAt());
         when(eventRepository.findById(eventId)).thenReturn(Optional.of(event));
+        when(eventRepository.updateStatusByIds(eq(List.of(eventId)), eq("REMOVED"), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(List.of(changed));
 
         // Call service method
         assertDoesNotThrow(() -> eventService.changeEventStatus(eventId, newStatus));
 
-        // Assertions
-        assertEquals(newStatus, event.getStatus());
-
-        // Verify EventRepository method call
+        // Verify the change went through the claim-guarded update
         verify(eventRepository).findById(eventId);
-        verify(eventRepository).save(event);
+        verify(eventRepository, never()).save(any());
+        verify(moderationQueueService).complete(List.of(eventId), 1L);
+        verify(eventExpirationScheduler).schedule(eventId, event.getExpirationAt());
+        verify(eventStreamService).publish(EventChangeType.REMOVED, eventId);
+    }
+
+    @Test
+    void testChangeEventStatus_ClaimedByOther() {
+        UUID eventId = UUID.randomUUID();
+
+        User moderator = new User();
+        moderator.setId(1L);
+        moderator.setRole(Role.ROLE_MODERATOR);
+
+        Event event = new Event();
+        event.setId(eventId);
+        event.changeVisibility(EventVisibility.PUBLIC);
+        event.setStatus(Status.UNVERIFIED);
+        event.setOwner(moderator);
+
+        when(userService.getCurrentUser()).thenReturn(moderator);
+        when(eventRepository.findById(eventId)).thenReturn(Optional.of(event));
+        // Another moderator claimed the event after it was read, the guarded update changes nothing
+        when(eventRepository.updateStatusByIds(eq(List.of(eventId)), eq("OPENED"), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        assertThrows(ConflictException.class, () -> eventService.changeEventStatus(eventId, Status.OPENED));
+
+        verify(eventRepository, never()).save(any());
+        verify(moderationQueueService, never()).complete(any(), any());
+        verifyNoInteractions(eventExpirationScheduler, eventStreamService);
+    }
+
+    @Test
+    void testChangeEventsStatus_ByIds() {
+        UUID updatedId = UUID.randomUUID();
+        UUID unchangedId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        LocalDateTime expirationAt = LocalDateTime.now().plusDays(1);
+
+        EventRepository.Expiration changed = mock(EventRepository.Expiration.class);
+        when(changed.getId()).thenReturn(updatedId);
+        when(changed.getExpirationAt()).thenReturn(expirationAt);
+
+        when(userService.getCurrentUser()).thenReturn(currentUser);
+        when(eventRepository.updateStatusByIds(eq(List.of(updatedId, unchangedId, missingId)), eq("OPENED"), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(List.of(changed));
+        when(eventRepository.findExistingIds(List.of(unchangedId, missingId))).thenReturn(List.of(unchangedId));
+
+        EventBulkStatusRequestDto request = new EventBulkStatusRequestDto(
+                List.of(updatedId, unchangedId, missingId, updatedId), null, null);
+
+        EventBulkStatusResponseDto result = eventService.changeEventsStatus(request, Status.OPENED);
+
+        assertEquals(List.of(updatedId), result.getUpdated());
+        assertEquals(List.of(unchangedId), result.getUnchanged());
+        assertEquals(List.of(missingId), result.getNotFound());
+        assertTrue(result.getClaimed().isEmpty());
+        verify(eventExpirationScheduler).schedule(updatedId, expirationAt);
+    }
+
+    @Test
+    void testChangeEventsStatus_ClaimedByOtherSkipped() {
+        UUID updatedId = UUID.randomUUID();
+        UUID claimedId = UUID.randomUUID();
+
+        EventRepository.Expiration changed = mock(EventRepository.Expiration.class);
+        when(changed.getId()).thenReturn(updatedId);
+
+        when(userService.getCurrentUser()).thenReturn(currentUser);
+        // The UPDATE leaves out the event claimed by the second moderator
+        when(eventRepository.updateStatusByIds(eq(List.of(updatedId, claimedId)), eq("OPENED"), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(List.of(changed));
+        when(eventRepository.findExistingIds(List.of(claimedId))).thenReturn(List.of(claimedId));
+        when(moderationQueueService.findClaimedByOther(List.of(claimedId), 1L)).thenReturn(List.of(claimedId));
+
+        EventBulkStatusResponseDto result = eventService.changeEventsStatus(
+                new EventBulkStatusRequestDto(List.of(updatedId, claimedId), null, null), Status.OPENED);
+
+        assertEquals(List.of(updatedId), result.getUpdated());
+        assertEquals(List.of(claimedId), result.getClaimed());
+        assertTrue(result.getUnchanged().isEmpty());
+        assertTrue(result.getNotFound().isEmpty());
+        // Only the claims of the event changed by this moderator are completed
+        verify(moderationQueueService).complete(List.of(updatedId), 1L);
+        verify(eventStreamService).publish(EventChangeType.of(Status.OPENED), List.of(updatedId));
+    }
+
+    @Test
+    void testChangeEventsStatus_ByFilter() {
+        UUID updatedId = UUID.randomUUID();
+        EventRepository.Expiration changed = mock(EventRepository.Expiration.class);
+        when(changed.getId()).thenReturn(updatedId);
+
+        when(userService.getCurrentUser()).thenReturn(currentUser);
+        when(eventRepository.updateStatusByFilter(eq(1L), eq("UNVERIFIED"), eq("REJECTED"), eq(1L), any(LocalDateTime.class),
+                eq(EventBulkStatusRequestDto.MAX_EVENTS)))
+                .thenReturn(List.of(changed));
+
+        EventBulkStatusResponseDto result = eventService.changeEventsStatus(
+                new EventBulkStatusRequestDto(null, 1L, Status.UNVERIFIED), Status.REJECTED);
+
+        assertEquals(List.of(updatedId), result.getUpdated());
+        assertTrue(result.getUnchanged().isEmpty());
+        assertTrue(result.getNotFound().isEmpty());
+        assertFalse(result.isHasMore());
+        verify(eventRepository, never()).findExistingIds(any());
+        verifyNoInteractions(eventExpirationScheduler);
+    }
+
+    @Test
+    void testChangeEventsStatus_ByFilterHasMore() {
+        List<EventRepository.Expiration> changed = new ArrayList<>();
+        for (int i = 0; i < EventBulkStatusRequestDto.MAX_EVENTS; i++) {
+            EventRepository.Expiration expiration = mock(EventRepository.Expiration.class);
+            when(expiration.getId()).thenReturn(UUID.randomUUID());
+            changed.add(expiration);
+        }
+
+        when(userService.getCurrentUser()).thenReturn(currentUser);
+        when(eventRepository.updateStatusByFilter(isNull(), eq("UNVERIFIED"), eq("REJECTED"), eq(1L), any(LocalDateTime.class),
+                eq(EventBulkStatusRequestDto.MAX_EVENTS)))
+                .thenReturn(changed);
+
+        EventBulkStatusResponseDto result = eventService.changeEventsStatus(
+                new EventBulkStatusRequestDto(null, null, Status.UNVERIFIED), Status.REJECTED);
+
+        assertEquals(EventBulkStatusRequestDto.MAX_EVENTS, result.getUpdated().size());
+        assertTrue(result.isHasMore());
+    }
+
+    @Test
+    void testChangeEventsStatus_InvalidSelection() {
+        EventBulkStatusRequestDto both = new EventBulkStatusRequestDto(List.of(UUID.randomUUID()), 1L, null);
+        EventBulkStatusRequestDto none = new EventBulkStatusRequestDto(List.of(), null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> eventService.changeEventsStatus(both, Status.OPENED));
+        assertThrows(IllegalArgumentException.class, () -> eventService.changeEventsStatus(none, Status.OPENED));
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void testInviteUsers() {
+        event.changeVisibility(EventVisibility.SELECTED_INDIVIDUALS);
+        when(userService.getCurrentUser()).thenReturn(currentUser);
+        when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(userService.getExistingIds(List.of(2L, 3L, 4L))).thenReturn(List.of(2L, 3L));
+        when(eventInvitationRepository.insertAllowedUsers(event.getId(), List.of(2L, 3L))).thenReturn(new int[]{1, 0});
+
+        EventInviteBatchResponseDto result = eventService.inviteUsers(event.getId(),
+                new UserBatchRequestDto(List.of(2L, 3L, 4L, 2L)));
+
+        assertEquals(List.of(2L), result.getAdded());
+        assertEquals(List.of(3L), result.getAlreadyInvited());
+        assertEquals(List.of(4L), result.getNotFound());
+        verify(eventAudienceService).addAllowedUsers(event.getId(), List.of(2L));
+        verify(eventRepository, never()).save(any());
+    }
+
+    @Test
+    void testInviteUsers_NotSelectedIndividuals() {
+        when(userService.getCurrentUser()).thenReturn(currentUser);
+        when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> eventService.inviteUsers(event.getId(), new UserBatchRequestDto(List.of(2L))));
+
+        verifyNoInteractions(eventInvitationRepository, eventAudienceService);
+    }
+
+    @Test
+    void testGetAll_AudienceCounts() {
+        UUID chatId = UUID.randomUUID();
+        List<EventRowDto> rows = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            EventVisibility visibility = EventVisibility.values()[i % EventVisibility.values().length];
+            rows.add(new EventRowDto(UUID.randomUUID(), "Event " + i, null, visibility, Status.OPENED,
+                    LocalDateTime.of(2024, 1, 1, 12, 0).minusMinutes(i), null, currentUser.getId(), currentUser.getUsername(),
+                    visibility == EventVisibility.SPECIFIC_CHAT ? chatId : null, "Chat", currentUser.getId(), currentUser.getUsername()));
+        }
+
+        when(eventRepository.findEventsPage(any(LocalDateTime.class), any(UUID.class), any(Pageable.class))).thenReturn(rows);
+        when(eventAudienceService.countAudiences(anyCollection()))
+                .thenReturn(Map.of(rows.get(1).getId(), 2000L, rows.get(3).getId(), 5L));
+
+        List<EventSummaryResponseDto> result = eventService.getAll(null, PageCursor.MAX_LIMIT).getItems();
+
+        assertEquals(50, result.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(rows.get(i).getId(), result.get(i).getId());
+        }
+
+        assertNull(result.get(0).getAudienceCount());
+        assertEquals(2000L, result.get(1).getAudienceCount());
+        assertEquals(0L, result.get(2).getAudienceCount());
+        assertEquals(chatId, result.get(3).getSharedChat().getId());
+        assertEquals(5L, result.get(3).getSharedChat().getMemberCount());
+
+        // The public events have no audience to count, the statement budget is in ListingStatementBudgetTest
+        verify(eventAudienceService).countAudiences(argThat(ids -> ids.size() == 37));
+    }
+
+    @Test
+    void testGetAudience() {
+        event.changeVisibility(EventVisibility.FRIENDS_ONLY);
+        when(userService.getCurrentUser()).thenReturn(currentUser);
+        when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(eventAudienceService.getAudiencePage(event.getId(), 0, 3))
+                .thenReturn(List.of(new UserResponseDto(1L, "testuser"), new UserResponseDto(2L, "friend"), new UserResponseDto(5L, "other")));
+
+        CursorPageDto<UserResponseDto> result = eventService.getAudience(event.getId(), null, 2);
+
+        assertEquals(2, result.getItems().size());
+        assertNotNull(result.getNextCursor());
+
+        when(eventAudienceService.getAudiencePage(event.getId(), 2, 3)).thenReturn(List.of(new UserResponseDto(5L, "other")));
+
+        CursorPageDto<UserResponseDto> next = eventService.getAudience(event.getId(), result.getNextCursor(), 2);
+
+        assertEquals(List.of(new UserResponseDto(5L, "other")), next.getItems());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void testGetAudience_NotInAudience() {
+        User other = new User();
+        other.setId(7L);
+        other.setRole(Role.ROLE_USER);
+        event.changeVisibility(EventVisibility.FRIENDS_ONLY);
+        when(userService.getCurrentUser()).thenReturn(other);
+        when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(eventAudienceService.isInAudience(event.getId(), 7L)).thenReturn(false);
+
+        // Refused the same way as a missing event
+        assertThrows(EntityNotFoundException.class, () -> eventService.getAudience(event.getId(), null, null));
+
+        verify(eventAudienceService, never()).getAudiencePage(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testGetAudience_AudienceMemberAndModerator() {
+        User member = new User();
+        member.setId(7L);
+        member.setRole(Role.ROLE_USER);
+        User moderator = new User();
+        moderator.setId(8L);
+        moderator.setRole(Role.ROLE_MODERATOR);
+        event.changeVisibility(EventVisibility.SELECTED_INDIVIDUALS);
+        when(userService.getCurrentUser()).thenReturn(member, member, moderator, moderator);
+        when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(eventAudienceService.isInAudience(event.getId(), 7L)).thenReturn(true);
+        when(eventAudienceService.getAudiencePage(event.getId(), 0, 21)).thenReturn(List.of(new UserResponseDto(7L, "member")));
+
+        assertEquals(1, eventService.getAudience(event.getId(), null, null).getItems().size());
+        assertEquals(1, eventService.getAudience(event.getId(), null, null).getItems().size());
+
+        verify(eventAudienceService, never()).isInAudience(event.getId(), 8L);
+    }
+
+    @Test
+    void testGetAudience_PublicEvent() {
+        when(userService.getCurrentUser()).thenReturn(currentUser);
+        when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+
+        assertThrows(IllegalArgumentException.class, () -> eventService.getAudience(event.getId(), null, null));
+        assertThrows(IllegalArgumentException.class, () -> eventService.getAudience(event.getId(), "not a cursor", null));
+
+        verifyNoInteractions(eventAudienceService);
+    }
+
+    private static EventRowDto row(Event event) {
+        Chat chat = event.getAllowedChat();
+        return new EventRowDto(event.getId(), event.getTitle(), event.getDescription(), event.getVisibility(),
+                event.getStatus(), event.getCreatedAt(), event.getExpirationAt(),
+                event.getOwner().getId(), event.getOwner().getUsername(),
+                chat == null ? null : chat.getId(), chat == null ? null : chat.getTitle(),
+                chat == null ? null : chat.getOwner().getId(), chat == null ? null : chat.getOwner().getUsername());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,181 @@
+package com.midel.service;
+
+import com.midel.dto.event.EventChangeDto;
+import com.midel.entity.enums.EventChangeType;
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Status;
+import com.midel.repository.EventAudienceRepository;
+import com.midel.repository.EventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventStreamServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EventAudienceRepository eventAudienceRepository;
+
+    private MeterRegistry meterRegistry;
+    private EventStreamService service;
+    private final Map<Long, RecordingEmitter> emitters = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new EventStreamService(eventRepository, eventAudienceRepository, meterRegistry, 60_000, 2, 10, 2) {
+            @Override
+            SseEmitter createEmitter(long timeoutMs) {
+                return new RecordingEmitter();
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testDispatch_ReachesOwnerAndAudience() throws InterruptedException {
+        UUID eventId = UUID.randomUUID();
+        subscribe(1L);
+        subscribe(2L);
+        subscribe(3L);
+
+        List<EventRepository.ChangeTarget> targets = List.of(target(eventId, 1L, EventVisibility.FRIENDS_ONLY, Status.OPENED));
+        List<EventAudienceRepository.AudienceMember> members = List.of(member(eventId, 1L), member(eventId, 2L));
+        when(eventRepository.findChangeTargets(List.of(eventId))).thenReturn(targets);
+        when(eventAudienceRepository.findMembersByEventIds(List.of(eventId))).thenReturn(members);
+
+        service.dispatch(EventChangeType.APPROVED, List.of(eventId), LocalDateTime.now());
+
+        assertEquals(EventChangeType.APPROVED, ((EventChangeDto) emitters.get(1L).next()).getType());
+        assertEquals(eventId, ((EventChangeDto) emitters.get(2L).next()).getEventId());
+        assertNull(emitters.get(3L).sent.poll(100, TimeUnit.MILLISECONDS));
+        assertNull(emitters.get(1L).sent.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testDispatch_UnverifiedEventReachesOwnerOnly() throws InterruptedException {
+        UUID eventId = UUID.randomUUID();
+        subscribe(1L);
+        subscribe(2L);
+
+        List<EventRepository.ChangeTarget> targets = List.of(target(eventId, 1L, EventVisibility.PUBLIC, Status.UNVERIFIED));
+        when(eventRepository.findChangeTargets(List.of(eventId))).thenReturn(targets);
+
+        service.dispatch(EventChangeType.CREATED, List.of(eventId), LocalDateTime.now());
+
+        assertEquals(EventChangeType.CREATED, ((EventChangeDto) emitters.get(1L).next()).getType());
+        assertNull(emitters.get(2L).sent.poll(100, TimeUnit.MILLISECONDS));
+        verify(eventAudienceRepository, never()).findMembersByEventIds(anyCollection());
+    }
+
+    @Test
+    void testPublish_WithoutSubscribers() {
+        service.publish(EventChangeType.UPDATED, UUID.randomUUID());
+
+        verifyNoInteractions(eventRepository, eventAudienceRepository);
+    }
+
+    @Test
+    void testSubscribe_Limits() {
+        subscribe(1L);
+        service.subscribe(1L);
+
+        assertThrows(IllegalStateException.class, () -> service.subscribe(1L));
+        assertEquals(2, service.connectionCount());
+        assertEquals(2, meterRegistry.get("events.stream.connections").gauge().value());
+    }
+
+    @Test
+    void testOffer_OverflowDropsToResync() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        EventStreamSubscriber subscriber = new EventStreamSubscriber(1L, emitter, 2);
+
+        assertTrue(subscriber.offer(change()));
+        assertTrue(subscriber.offer(change()));
+        assertFalse(subscriber.offer(change()));
+        assertEquals(0, subscriber.pending());
+
+        EventChangeDto latest = change();
+        assertTrue(subscriber.offer(latest));
+        assertTrue(subscriber.startDrain());
+        subscriber.drain();
+
+        assertEquals(EventStreamSubscriber.RESYNC_EVENT, emitter.next());
+        assertSame(latest, emitter.next());
+        assertTrue(emitter.sent.isEmpty());
+    }
+
+    private void subscribe(Long userId) {
+        emitters.put(userId, (RecordingEmitter) service.subscribe(userId));
+    }
+
+    private static EventChangeDto change() {
+        return new EventChangeDto(EventChangeType.UPDATED, UUID.randomUUID(), EventVisibility.PUBLIC, Status.OPENED, LocalDateTime.now());
+    }
+
+    private static EventRepository.ChangeTarget target(UUID id, Long ownerId, EventVisibility visibility, Status status) {
+        EventRepository.ChangeTarget target = mock(EventRepository.ChangeTarget.class);
+        when(target.getId()).thenReturn(id);
+        when(target.getOwnerId()).thenReturn(ownerId);
+        when(target.getVisibility()).thenReturn(visibility);
+        when(target.getStatus()).thenReturn(status);
+        return target;
+    }
+
+    private static EventAudienceRepository.AudienceMember member(UUID eventId, Long userId) {
+        EventAudienceRepository.AudienceMember member = mock(EventAudienceRepository.AudienceMember.class);
+        when(member.getEventId()).thenReturn(eventId);
+        when(member.getUserId()).thenReturn(userId);
+        return member;
+    }
+
+    /**
+     * Emitter keeping the event names of resyncs and the data of changes, heartbeats are ignored.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<Object> sent = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof EventChangeDto change) {
+                    sent.add(change);
+                } else if (part.getData().toString().contains("event:" + EventStreamSubscriber.RESYNC_EVENT)) {
+                    sent.add(EventStreamSubscriber.RESYNC_EVENT);
+                }
+            }
+        }
+
+        Object next() throws InterruptedException {
+            Object value = sent.poll(1, TimeUnit.SECONDS);
+            assertNotNull(value, "Nothing was sent");
+            return value;
+        }
+
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.midel.service;
+
+import com.midel.dto.event.EventRowDto;
+import com.midel.dto.event.EventSummaryResponseDto;
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Status;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventSummariesTest {
+
+    @Test
+    void testDistinctById() {
+        EventRowDto first = row(EventVisibility.PUBLIC);
+        EventRowDto second = row(EventVisibility.FRIENDS_ONLY);
+        EventRowDto third = row(EventVisibility.PUBLIC);
+
+        List<EventRowDto> rows = List.of(first, second, third);
+        assertSame(rows, EventSummaries.distinctById(rows));
+
+        assertEquals(List.of(first, second, third), EventSummaries.distinctById(List.of(first, second, first, third, second)));
+    }
+
+    @Test
+    void testMap_ParallelKeepsOrder() {
+        List<EventRowDto> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(row(i % 2 == 0 ? EventVisibility.PUBLIC : EventVisibility.FRIENDS_ONLY));
+        }
+        Map<UUID, Long> audienceCounts = Map.of(rows.get(1).getId(), 42L);
+
+        List<EventSummaryResponseDto> sequential = EventSummaries.map(rows, audienceCounts, false);
+        List<EventSummaryResponseDto> parallel = EventSummaries.map(rows, audienceCounts, true);
+
+        assertEquals(sequential, parallel);
+        assertEquals(rows.get(999).getId(), parallel.get(999).getId());
+        assertNull(parallel.get(0).getAudienceCount());
+        assertEquals(42L, parallel.get(1).getAudienceCount());
+        assertEquals(0L, parallel.get(3).getAudienceCount());
+        assertEquals(500, EventSummaries.restrictedEventIds(rows).size());
+    }
+
+    private static EventRowDto row(EventVisibility visibility) {
+        return new EventRowDto(UUID.randomUUID(), "Event", null, visibility, Status.OPENED,
+                LocalDateTime.of(2024, 1, 1, 12, 0), null, 1L, "owner", null, null, null, null);
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.midel.service;
+
+import com.midel.repository.EventTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventTombstoneServiceTest {
+
+    @Mock
+    private EventTombstoneRepository eventTombstoneRepository;
+
+    @Mock
+    private LeaseService leaseService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EventTombstoneService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new EventTombstoneService(eventTombstoneRepository, leaseService, transactionManager, 24, 300, 2);
+    }
+
+    @Test
+    void testCompact_DeletesInBatches() {
+        when(leaseService.tryAcquire(eq(EventTombstoneService.LEASE_NAME), any(Duration.class))).thenReturn(true);
+        when(eventTombstoneRepository.deleteBatchBefore(any(LocalDateTime.class), eq(2))).thenReturn(2, 2, 1);
+
+        service.compact();
+
+        verify(eventTombstoneRepository, times(3)).deleteBatchBefore(
+                argThat(before -> before.isBefore(LocalDateTime.now().minusHours(23))), eq(2));
+        verify(leaseService).release(EventTombstoneService.LEASE_NAME);
+    }
+
+    @Test
+    void testCompact_WithoutLease() {
+        when(leaseService.tryAcquire(eq(EventTombstoneService.LEASE_NAME), any(Duration.class))).thenReturn(false);
+
+        service.compact();
+
+        verifyNoInteractions(eventTombstoneRepository);
+        verify(leaseService, never()).release(any());
+    }
+
+    @Test
+    void testIsExpired() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertTrue(service.isExpired(SyncToken.since(now.minusHours(25)), now));
+        assertFalse(service.isExpired(SyncToken.since(now.minusHours(23)), now));
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.midel.service;
+
+import com.midel.entity.User;
+import com.midel.entity.enums.Role;
+import com.midel.security.JwtPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SIGNING_KEY = "SZHFXEYNJSEU1J79AUTONR61TARZZSRJR0TFUTWONS4ASHF4DFQIK6CNG4AM1GLE";
+
+    private JwtService jwtService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SIGNING_KEY, 3600);
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        user.setRole(Role.ROLE_USER);
+    }
+
+    @Test
+    void testExtractVerifiedClaims() {
+        String token = jwtService.generateToken(user);
+
+        Claims claims = jwtService.extractVerifiedClaims(token);
+
+        assertNotNull(claims);
+        assertEquals("testuser", claims.getSubject());
+        assertEquals(1, ((Number) claims.get("id")).intValue());
+        assertEquals(Role.ROLE_USER.name(), claims.get("role"));
+        assertTrue(jwtService.isTokenValid(claims, user));
+    }
+
+    @Test
+    void testIsTokenValid_OtherUser() {
+        String token = jwtService.generateToken(user);
+
+        User otherUser = new User();
+        otherUser.setUsername("otheruser");
+
+        assertFalse(jwtService.isTokenValid(token, otherUser));
+    }
+
+    @Test
+    void testExtractVerifiedClaims_Expired() {
+        JwtService expiredTokenService = new JwtService(SIGNING_KEY, -1);
+        String token = expiredTokenService.generateToken(user);
+
+        assertNull(jwtService.extractVerifiedClaims(token));
+        assertNull(jwtService.extractUserName(token));
+        assertFalse(jwtService.isTokenValid(token, user));
+    }
+
+    @Test
+    void testExtractVerifiedClaims_ForeignSignature() {
+        JwtService foreignService = new JwtService(SIGNING_KEY.replace('S', 'T'), 3600);
+        String token = foreignService.generateToken(user);
+
+        assertThrows(SignatureException.class, () -> jwtService.extractVerifiedClaims(token));
+    }
+
+    @Test
+    void testExtractPrincipal() {
+        Claims claims = jwtService.extractVerifiedClaims(jwtService.generateToken(user));
+
+        JwtPrincipal principal = jwtService.extractPrincipal(claims);
+
+        assertEquals(1L, principal.getId());
+        assertEquals("testuser", principal.getUsername());
+        assertEquals(Role.ROLE_USER, principal.getRole());
+        assertTrue(jwtService.isTokenValid(claims, principal));
+        assertFalse(jwtService.isIssuedBefore(claims, 60));
+    }
+
+    @Test
+    void testIsTokenValid_RevokedVersion() {
+        String token = jwtService.generateToken(user);
+
+        user.setTokenVersion(user.getTokenVersion() + 1);
+
+        assertFalse(jwtService.isTokenValid(token, user));
+        assertTrue(jwtService.isTokenValid(jwtService.generateToken(user), user));
+    }
+
+}
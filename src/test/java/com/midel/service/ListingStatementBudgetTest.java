@@ -0,0 +1,232 @@
+package com.midel.service;
+
+import com.midel.dto.CursorPageDto;
+import com.midel.dto.chat.ChatSummaryResponseDto;
+import com.midel.dto.event.EventSummaryResponseDto;
+import com.midel.dto.user.UserResponseDto;
+import com.midel.dto.user.UserWithFriendsResponseDto;
+import com.midel.entity.Chat;
+import com.midel.entity.Event;
+import com.midel.entity.EventAudience;
+import com.midel.entity.User;
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Role;
+import com.midel.entity.enums.Status;
+import com.midel.monitoring.HibernateStatisticsConfig;
+import com.midel.monitoring.RequestStatistics;
+import com.midel.repository.ChatRepository;
+import com.midel.repository.EventAudienceRepository;
+import com.midel.repository.EventInvitationRepository;
+import com.midel.repository.EventRepository;
+import com.midel.repository.EventTombstoneRepository;
+import com.midel.repository.UserRepository;
+import com.midel.security.JwtPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the list endpoints against a real Hibernate session on an in-memory database within statement budgets,
+ * any lazy load or statement per row fails the test. Event pages are projections with one grouped audience
+ * count, chat and user listings one query each.
+ */
+@DataJpaTest(showSql = false)
+@Import(HibernateStatisticsConfig.class)
+class ListingStatementBudgetTest {
+
+    private static final int EVENTS = 50;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventAudienceRepository eventAudienceRepository;
+
+    @Autowired
+    private EventTombstoneRepository eventTombstoneRepository;
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UserService userService;
+    private EventService eventService;
+
+    private User owner;
+    private User viewer;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner"));
+        viewer = entityManager.persist(user("viewer"));
+        owner.setFriends(new LinkedHashSet<>(Set.of(viewer)));
+
+        Chat chat = entityManager.persist(Chat.builder()
+                .title("Chat")
+                .owner(owner)
+                .members(new LinkedHashSet<>(Set.of(owner, viewer)))
+                .build());
+
+        // Every visibility, with the audience index the services maintain written directly
+        for (int i = 0; i < EVENTS; i++) {
+            EventVisibility visibility = EventVisibility.values()[i % EventVisibility.values().length];
+
+            Event event = new Event();
+            event.setTitle("Event " + i);
+            event.setStatus(Status.OPENED);
+            event.setOwner(owner);
+            event.changeVisibility(visibility);
+            switch (visibility) {
+                case SELECTED_INDIVIDUALS -> event.addAllowedUser(viewer);
+                case SPECIFIC_CHAT -> event.setAllowedChat(chat);
+                default -> {
+                }
+            }
+            entityManager.persist(event);
+
+            if (visibility != EventVisibility.PUBLIC) {
+                entityManager.persist(new EventAudience(viewer.getId(), event.getId(), null));
+                if (visibility != EventVisibility.SPECIFIC_CHAT) {
+                    entityManager.persist(new EventAudience(owner.getId(), event.getId(), null));
+                }
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        userService = mock(UserService.class);
+        eventService = new EventService(
+                eventRepository,
+                mock(EventInvitationRepository.class),
+                userService,
+                mock(ChatService.class),
+                new EventAudienceService(eventAudienceRepository, eventTombstoneRepository),
+                mock(EventExpirationScheduler.class),
+                mock(EventStreamService.class),
+                mock(EventTombstoneService.class),
+                mock(ModerationQueueService.class)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testGetAll_WithinBudget() {
+        try (RequestStatistics ignored = RequestStatistics.open(2, 0, true)) {
+            CursorPageDto<EventSummaryResponseDto> page = eventService.getAll(null, EVENTS);
+
+            assertEquals(EVENTS, page.getItems().size());
+        }
+    }
+
+    @Test
+    void testGetSharedEvents_WithinBudget() {
+        when(userService.getCurrentUser()).thenReturn(viewer);
+
+        try (RequestStatistics ignored = RequestStatistics.open(2, 0, true)) {
+            CursorPageDto<EventSummaryResponseDto> page = eventService.getSharedEvents(null, EVENTS);
+
+            assertEquals(EVENTS, page.getItems().size());
+        }
+    }
+
+    @Test
+    void testGetMyEvents_WithinBudget() {
+        when(userService.getCurrentUser()).thenReturn(owner);
+
+        try (RequestStatistics ignored = RequestStatistics.open(2, 0, true)) {
+            CursorPageDto<EventSummaryResponseDto> page = eventService.getMyEvents(null, EVENTS);
+
+            assertEquals(EVENTS, page.getItems().size());
+            assertTrue(page.getItems().stream()
+                    .filter(event -> event.getVisibility() == EventVisibility.FRIENDS_ONLY)
+                    .allMatch(event -> event.getAudienceCount() == 2));
+        }
+    }
+
+    @Test
+    void testGetAllByStatus_WithinBudget() {
+        try (RequestStatistics ignored = RequestStatistics.open(2, 0, true)) {
+            CursorPageDto<EventSummaryResponseDto> page = eventService.getAllByStatus(Status.OPENED, null, EVENTS);
+
+            assertEquals(EVENTS, page.getItems().size());
+        }
+    }
+
+    @Test
+    void testGetAll_StatementsDoNotGrowWithPageSize() {
+        int small;
+        try (RequestStatistics statistics = RequestStatistics.open(RequestStatistics.UNLIMITED, 0, true)) {
+            eventService.getAll(null, 5);
+            small = statistics.getStatements();
+        }
+
+        try (RequestStatistics statistics = RequestStatistics.open(RequestStatistics.UNLIMITED, 0, true)) {
+            eventService.getAll(null, EVENTS);
+            assertEquals(small, statistics.getStatements());
+        }
+    }
+
+    @Test
+    void testChatListings_WithinBudget() {
+        when(userService.getCurrentUser()).thenReturn(owner);
+        ChatService chatService = new ChatService(chatRepository, userService, mock(EventAudienceService.class));
+
+        try (RequestStatistics ignored = RequestStatistics.open(2, 0, true)) {
+            Collection<ChatSummaryResponseDto> all = chatService.getAll();
+            Collection<ChatSummaryResponseDto> my = chatService.getMy();
+
+            assertEquals(1, all.size());
+            assertEquals(2L, my.iterator().next().getMemberCount());
+        }
+    }
+
+    @Test
+    void testUserListings_WithinBudget() {
+        UserService realUserService = new UserService(userRepository,
+                new CurrentUserCache(new SimpleMeterRegistry(), false, 100, 60, 30), mock(EventAudienceService.class));
+        JwtPrincipal principal = JwtPrincipal.of(owner);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        try (RequestStatistics ignored = RequestStatistics.open(2, 0, true)) {
+            Collection<UserWithFriendsResponseDto> all = realUserService.getAll();
+            Collection<UserResponseDto> friends = realUserService.getFriends();
+
+            assertEquals(2, all.size());
+            assertEquals(viewer.getId(), friends.iterator().next().getId());
+        }
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole(Role.ROLE_USER);
+        return user;
+    }
+
+}
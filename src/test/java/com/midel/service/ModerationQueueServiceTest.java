@@ -0,0 +1,108 @@
+package com.midel.service;
+
+import com.midel.dto.event.EventRowDto;
+import com.midel.dto.event.ModerationClaimResponseDto;
+import com.midel.entity.User;
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Status;
+import com.midel.repository.EventRepository;
+import com.midel.repository.ModerationClaimRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ModerationQueueServiceTest {
+
+    @Mock
+    private ModerationClaimRepository moderationClaimRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EventAudienceService eventAudienceService;
+
+    @Mock
+    private UserService userService;
+
+    private ModerationQueueService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ModerationQueueService(moderationClaimRepository, eventRepository, eventAudienceService, userService, 300);
+    }
+
+    @Test
+    void testClaim_OldestFirst() {
+        User moderator = new User();
+        moderator.setId(4L);
+        when(userService.getCurrentUser()).thenReturn(moderator);
+
+        EventRowDto older = row(EventVisibility.PUBLIC, LocalDateTime.of(2024, 1, 1, 10, 0));
+        EventRowDto newer = row(EventVisibility.FRIENDS_ONLY, LocalDateTime.of(2024, 1, 1, 11, 0));
+
+        when(moderationClaimRepository.claimNext(eq(4L), any(LocalDateTime.class), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(newer.getId(), older.getId()));
+        when(eventRepository.findRowsByIds(List.of(newer.getId(), older.getId()))).thenReturn(List.of(newer, older));
+        when(eventAudienceService.countAudiences(List.of(newer.getId()))).thenReturn(Map.of(newer.getId(), 3L));
+
+        ModerationClaimResponseDto response = service.claim(2);
+
+        assertEquals(List.of(older.getId(), newer.getId()), response.getEvents().stream().map(e -> e.getId()).toList());
+        assertEquals(3L, response.getEvents().get(1).getAudienceCount());
+        assertTrue(response.getExpiresAt().isAfter(LocalDateTime.now().plusSeconds(290)));
+    }
+
+    @Test
+    void testClaim_EmptyQueue() {
+        User moderator = new User();
+        moderator.setId(4L);
+        when(userService.getCurrentUser()).thenReturn(moderator);
+        when(moderationClaimRepository.claimNext(eq(4L), any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of());
+
+        ModerationClaimResponseDto response = service.claim(null);
+
+        assertTrue(response.getEvents().isEmpty());
+        verifyNoInteractions(eventRepository, eventAudienceService);
+    }
+
+    @Test
+    void testComplete_KeepsClaimsOfOtherModerators() {
+        UUID eventId = UUID.randomUUID();
+
+        service.complete(List.of(eventId), 4L);
+        service.complete(List.of(), 4L);
+
+        verify(moderationClaimRepository).deleteCompleted(eq(List.of(eventId)), eq(4L), any(LocalDateTime.class));
+        verifyNoMoreInteractions(moderationClaimRepository);
+    }
+
+    @Test
+    void testFindClaimedByOther() {
+        UUID eventId = UUID.randomUUID();
+        when(moderationClaimRepository.findClaimedByOther(eq(List.of(eventId)), eq(4L), any(LocalDateTime.class)))
+                .thenReturn(List.of(eventId));
+
+        assertEquals(List.of(eventId), service.findClaimedByOther(List.of(eventId), 4L));
+        assertTrue(service.findClaimedByOther(List.of(), 4L).isEmpty());
+    }
+
+    private static EventRowDto row(EventVisibility visibility, LocalDateTime createdAt) {
+        return new EventRowDto(UUID.randomUUID(), "Event", null, visibility, Status.UNVERIFIED,
+                createdAt, null, 1L, "owner", null, null, null, null);
+    }
+
+}
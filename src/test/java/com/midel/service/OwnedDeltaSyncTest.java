@@ -0,0 +1,111 @@
+package com.midel.service;
+
+import com.midel.dto.event.EventDeltaDto;
+import com.midel.entity.Event;
+import com.midel.entity.EventTombstone;
+import com.midel.entity.User;
+import com.midel.entity.enums.EventVisibility;
+import com.midel.entity.enums.Role;
+import com.midel.entity.enums.Status;
+import com.midel.repository.EventInvitationRepository;
+import com.midel.repository.EventRepository;
+import com.midel.repository.EventTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the delta sync of the owned events against a real Hibernate session on an in-memory database after an
+ * archive run. The archive statement is native to PostgreSQL, so its effect on the live tables, the deleted event
+ * and the tombstone of its owner, is written directly.
+ */
+@DataJpaTest(showSql = false)
+class OwnedDeltaSyncTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventTombstoneRepository eventTombstoneRepository;
+
+    private EventService eventService;
+
+    private User owner;
+    private Event live;
+    private UUID archivedId;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner"));
+        User other = entityManager.persist(user("other"));
+        live = entityManager.persist(event(owner, "Live"));
+        Event otherLive = entityManager.persist(event(other, "Other"));
+
+        LocalDateTime deletedAt = LocalDateTime.now().minusMinutes(1);
+        // Archived events of the owner and of another user
+        archivedId = UUID.randomUUID();
+        entityManager.persist(new EventTombstone(null, archivedId, owner.getId(), deletedAt));
+        entityManager.persist(new EventTombstone(null, UUID.randomUUID(), other.getId(), deletedAt));
+        // The owner left the audience of a live event, which stays in the owned listing
+        entityManager.persist(new EventTombstone(null, live.getId(), owner.getId(), deletedAt));
+        entityManager.persist(new EventTombstone(null, otherLive.getId(), owner.getId(), deletedAt));
+
+        entityManager.flush();
+        entityManager.clear();
+
+        UserService userService = mock(UserService.class);
+        when(userService.getCurrentUser()).thenReturn(owner);
+        eventService = new EventService(
+                eventRepository,
+                mock(EventInvitationRepository.class),
+                userService,
+                mock(ChatService.class),
+                mock(EventAudienceService.class),
+                mock(EventExpirationScheduler.class),
+                mock(EventStreamService.class),
+                new EventTombstoneService(eventTombstoneRepository, mock(LeaseService.class),
+                        mock(PlatformTransactionManager.class), 720, 300, 10000),
+                mock(ModerationQueueService.class)
+        );
+    }
+
+    @Test
+    void testGetMyChanges_AfterArchive() {
+        EventDeltaDto delta = eventService.getMyChanges(SyncToken.since(LocalDateTime.now().minusHours(1)).encode(), null);
+
+        assertEquals(List.of(archivedId), delta.getRemoved());
+        assertEquals(1, delta.getChanged().size());
+        assertEquals(live.getId(), delta.getChanged().get(0).getId());
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole(Role.ROLE_USER);
+        return user;
+    }
+
+    private static Event event(User owner, String title) {
+        Event event = new Event();
+        event.setTitle(title);
+        event.setStatus(Status.OPENED);
+        event.setOwner(owner);
+        event.changeVisibility(EventVisibility.PUBLIC);
+        return event;
+    }
+
+}
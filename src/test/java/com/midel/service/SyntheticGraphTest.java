@@ -0,0 +1,74 @@
+package com.midel.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticGraphTest {
+
+    @Test
+    void testPreferentialAttachment_Reproducible() {
+        assertEquals(edges(2000, 3, 7), edges(2000, 3, 7));
+        assertNotEquals(edges(2000, 3, 7), edges(2000, 3, 8));
+    }
+
+    @Test
+    void testPreferentialAttachment_Shape() {
+        int nodes = 10_000;
+        int[] degrees = new int[nodes];
+        Set<Long> distinct = new HashSet<>();
+
+        long count = SyntheticGraph.preferentialAttachment(nodes, 3, new SplittableRandom(1), (from, to) -> {
+            assertTrue(from > to);
+            assertTrue(distinct.add((long) from * nodes + to));
+            degrees[from]++;
+            degrees[to]++;
+        });
+
+        assertEquals(6 + (nodes - 4) * 3L, count);
+        assertEquals(count, distinct.size());
+
+        // The hubs of a power law graph have far more friends than the minimum of 3
+        int max = 0;
+        for (int degree : degrees) {
+            assertTrue(degree >= 3);
+            max = Math.max(max, degree);
+        }
+        assertTrue(max > 100, "max degree " + max);
+    }
+
+    @Test
+    void testPreferentialAttachment_NoEdges() {
+        assertEquals(0, SyntheticGraph.preferentialAttachment(100, 0, new SplittableRandom(1), (from, to) -> fail()));
+        assertEquals(0, SyntheticGraph.preferentialAttachment(1, 5, new SplittableRandom(1), (from, to) -> fail()));
+    }
+
+    @Test
+    void testBoundedPowerLaw() {
+        SplittableRandom random = new SplittableRandom(1);
+        int small = 0;
+        for (int i = 0; i < 10_000; i++) {
+            int value = SyntheticGraph.boundedPowerLaw(2, 500, 1.5, random);
+            assertTrue(value >= 2 && value <= 500);
+            if (value < 10) {
+                small++;
+            }
+        }
+        assertTrue(small > 5_000, "small " + small);
+        assertEquals(5, SyntheticGraph.boundedPowerLaw(5, 5, 1.5, random));
+    }
+
+    private static List<Long> edges(int nodes, int edgesPerNode, long seed) {
+        List<Long> edges = new ArrayList<>();
+        SyntheticGraph.preferentialAttachment(nodes, edgesPerNode, new SplittableRandom(seed),
+                (from, to) -> edges.add((long) from << 32 | to));
+        return edges;
+    }
+
+}